@@ -0,0 +1,89 @@
+package com.ryanair.challenge.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.api.mapper.FlightMapper;
+import com.ryanair.challenge.api.model.FlightDTO;
+import com.ryanair.challenge.api.rest.response.FlightJsonWriter;
+import com.ryanair.challenge.api.rest.response.GenericResponse;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.infrastructure.client.mapper.FlightClientMapper;
+import com.ryanair.challenge.infrastructure.timetable.MonthTimetable;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import com.ryanair.challenge.infrastructure.timetable.SyntheticSchedules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The last part of a search response: mapping the found flights with {@link FlightMapper} and writing the
+ * {@link GenericResponse} with an object mapper configured the way Spring Boot configures the application one,
+ * against writing the same body straight from the flights with {@link FlightJsonWriter}. Half of the flights are
+ * direct and half have one stop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBenchmark {
+
+    private static final int DAY = 16;
+
+    @Param({"10", "100", "1000"})
+    private int flights;
+
+    private List<Flight> found;
+    private GenericResponse<List<FlightDTO>> response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final MonthTimetable intoHub = MonthTimetable.decode(ScheduleKey.of("BCN", "BGY", 2021, 7),
+            SyntheticSchedules.day(7, DAY, SyntheticSchedules.flights(random, flights)));
+        final MonthTimetable outOfHub = MonthTimetable.decode(ScheduleKey.of("BGY", "MAD", 2021, 7),
+            SyntheticSchedules.day(7, DAY, SyntheticSchedules.flights(random, flights)));
+
+        found = new ArrayList<>(flights);
+        for (int flight = 0; flight < flights; flight++) {
+            found.add(flight % 2 == 0 ?
+                FlightClientMapper.toFlight(intoHub, flight) :
+                FlightClientMapper.toConnection(intoHub, flight, outOfHub, flight));
+        }
+        response = GenericResponse.<List<FlightDTO>>builder().data(toFlightDTO()).build();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<FlightDTO> toFlightDTO() {
+        return found.stream()
+            .map(FlightMapper::toFlightDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(GenericResponse.<List<FlightDTO>>builder().data(toFlightDTO()).build());
+    }
+
+    @Benchmark
+    public byte[] writeResponse() {
+        return FlightJsonWriter.page(found, null);
+    }
+}
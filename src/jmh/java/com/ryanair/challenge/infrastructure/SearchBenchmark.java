@@ -0,0 +1,145 @@
+package com.ryanair.challenge.infrastructure;
+
+import com.ryanair.challenge.configuration.FetchProperties;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.ConnectionBuilder;
+import com.ryanair.challenge.infrastructure.timetable.ConnectionScan;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlanner;
+import com.ryanair.challenge.infrastructure.timetable.ParallelFetcher;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.SyntheticSchedules;
+import com.ryanair.challenge.infrastructure.timetable.TimetableFetcher;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vavr.control.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole one stop search from BCN to MAD through {@code hubs} connecting airports, with in-memory clients serving
+ * synthetic schedules of {@code flightsPerDay} flights per day on every leg. Routes come from the loaded route
+ * network. The warm search finds every schedule in the cache; the cold one empties it first, so it also pays for
+ * decoding every month it needs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final String DEPARTURE = "BCN";
+    private static final String ARRIVAL = "MAD";
+    private static final YearMonth MONTH = YearMonth.of(2021, 7);
+
+    @Param({"1", "8", "32"})
+    private int hubs;
+
+    @Param({"5", "20"})
+    private int flightsPerDay;
+
+    private TimetableRepository timetableRepository;
+    private BookFlightServiceImpl bookFlightService;
+    private BookFlightRequest request;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final List<RouteDTO> routes = new ArrayList<>();
+        final Map<String, ScheduleDTO> schedules = new HashMap<>();
+        addRoute(routes, schedules, DEPARTURE, ARRIVAL, random);
+        for (int hub = 0; hub < hubs; hub++) {
+            final String code = "H%02d".formatted(hub);
+            addRoute(routes, schedules, DEPARTURE, code, random);
+            addRoute(routes, schedules, code, ARRIVAL, random);
+        }
+
+        final RyanairRouteClient routeClient = new InMemoryRouteClient(routes);
+        final RyanairScheduleClient scheduleClient = (from, to, year, month) -> schedules.get(from + to);
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ParallelFetcher parallelFetcher = new ParallelFetcher(Runnable::run, new FetchProperties());
+        final RouteNetwork routeNetwork = new RouteNetwork(routeClient);
+        routeNetwork.refresh();
+
+        timetableRepository = new TimetableRepository(scheduleClient, null, new RyanairCacheProperties.Schedules(),
+            Runnable::run, meterRegistry);
+        bookFlightService = new BookFlightServiceImpl(routeNetwork,
+            new RouteRepository(routeClient, null, new RyanairCacheProperties.Routes(), Runnable::run, meterRegistry),
+            new FetchPlanner(),
+            new TimetableFetcher(timetableRepository, parallelFetcher), parallelFetcher,
+            new ConnectionBuilder(new SearchProperties()), new ConnectionScan(new SearchProperties()),
+            new SearchProperties(), new SearchMetrics(meterRegistry), new SearchPopularity(new WarmupProperties()));
+        request = BookFlightRequest.builder().departure(DEPARTURE).arrival(ARRIVAL)
+            .departureDateTime(LocalDateTime.of(2021, 7, 16, 0, 0))
+            .arrivalDateTime(LocalDateTime.of(2021, 7, 16, 23, 59))
+            .build();
+        bookFlightService.getFlights(request);
+    }
+
+    @Benchmark
+    public Either<BookFlightServiceException, List<Flight>> warmSearch() {
+        return bookFlightService.getFlights(request);
+    }
+
+    @Benchmark
+    public Either<BookFlightServiceException, List<Flight>> coldSearch() {
+        timetableRepository.invalidateAll();
+        return bookFlightService.getFlights(request);
+    }
+
+    private void addRoute(final List<RouteDTO> routes, final Map<String, ScheduleDTO> schedules,
+                          final String from, final String to, final Random random) {
+        routes.add(RouteDTO.builder().airportFrom(from).airportTo(to).operator("RYANAIR").build());
+        schedules.put(from + to, SyntheticSchedules.month(random, MONTH, flightsPerDay));
+    }
+
+    private static final class InMemoryRouteClient implements RyanairRouteClient {
+
+        private final List<RouteDTO> routes;
+
+        private InMemoryRouteClient(final List<RouteDTO> routes) {
+            this.routes = routes;
+        }
+
+        @Override
+        public List<RouteDTO> getRoutes(final String airportFrom) {
+            final List<RouteDTO> from = new ArrayList<>();
+            for (RouteDTO route : routes) {
+                if (route.getAirportFrom().equals(airportFrom)) {
+                    from.add(route);
+                }
+            }
+            return from;
+        }
+
+        @Override
+        public List<RouteDTO> getAllRoutes() {
+            return routes;
+        }
+    }
+}
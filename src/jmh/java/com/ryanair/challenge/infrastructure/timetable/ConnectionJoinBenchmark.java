@@ -0,0 +1,94 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.Leg;
+import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous nested-loop pairing of first and second legs, on parsed {@link LocalDateTime}s, with
+ * {@link ConnectionBuilder} on decoded timetables over a window of that day. Flights are spread uniformly over
+ * one day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionJoinBenchmark {
+
+    private static final int DAY = 27;
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2021, 7, DAY, 0, 0);
+
+    @Param({"10", "100", "1000"})
+    private int flightsPerLeg;
+
+    private List<FlightDTO> firstLegs;
+    private List<FlightDTO> secondLegs;
+    private Timetable timetable;
+    private SearchWindow window;
+    private ConnectionBuilder connectionBuilder;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        firstLegs = SyntheticSchedules.flights(random, flightsPerLeg);
+        secondLegs = SyntheticSchedules.flights(random, flightsPerLeg);
+        final ScheduleKey intoHub = ScheduleKey.of("BCN", "BGY", 2021, 7);
+        final ScheduleKey outOfHub = ScheduleKey.of("BGY", "CFU", 2021, 7);
+        timetable = new Timetable(Map.of(
+            intoHub, MonthTimetable.decode(intoHub, SyntheticSchedules.day(7, DAY, firstLegs)),
+            outOfHub, MonthTimetable.decode(outOfHub, SyntheticSchedules.day(7, DAY, secondLegs))), 2);
+        window = SearchWindow.of(BookFlightRequest.builder()
+            .departureDateTime(MIDNIGHT)
+            .arrivalDateTime(MIDNIGHT.with(LocalTime.MAX)).build());
+        connectionBuilder = new ConnectionBuilder(new SearchProperties());
+    }
+
+    @Benchmark
+    public List<Flight> nestedLoopJoin() {
+        final List<Flight> list = new ArrayList<>();
+        for (FlightDTO first : firstLegs) {
+            for (FlightDTO second : secondLegs) {
+                if (time(first.getArrivalTime()).plusHours(2).isBefore(time(second.getDepartureTime()))) {
+                    list.add(Flight.builder().stops(1).legs(legs(first, second)).build());
+                }
+            }
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Flight> sortMergeJoin() {
+        return connectionBuilder.connect(timetable, "BCN", "BGY", "CFU", window);
+    }
+
+    private LocalDateTime time(final String time) {
+        return MIDNIGHT.with(LocalTime.parse(time));
+    }
+
+    private List<Leg> legs(final FlightDTO first, final FlightDTO second) {
+        return List.of(
+            Leg.builder().departureAirport("BCN").arrivalAirport("BGY")
+                .departureDateTime(time(first.getDepartureTime()).toString())
+                .arrivalDateTime(time(first.getArrivalTime()).toString()).build(),
+            Leg.builder().departureAirport("BGY").arrivalAirport("CFU")
+                .departureDateTime(time(second.getDepartureTime()).toString())
+                .arrivalDateTime(time(second.getArrivalTime()).toString()).build());
+    }
+}
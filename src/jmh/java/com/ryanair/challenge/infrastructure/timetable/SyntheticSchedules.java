@@ -0,0 +1,47 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
+import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Schedules shaped like the upstream responses, with a given number of flights per day departing uniformly between
+ * midnight and 20:00 and lasting one to four hours. Seed the {@link Random} so every run decodes the same month.
+ */
+public final class SyntheticSchedules {
+
+    private SyntheticSchedules() {
+    }
+
+    public static ScheduleDTO month(final Random random, final YearMonth month, final int flightsPerDay) {
+        final List<DayDTO> days = new ArrayList<>(month.lengthOfMonth());
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            days.add(DayDTO.builder().day(day).flights(flights(random, flightsPerDay)).build());
+        }
+        return ScheduleDTO.builder().month(month.getMonthValue()).days(days).build();
+    }
+
+    public static ScheduleDTO day(final int month, final int day, final List<FlightDTO> flights) {
+        return ScheduleDTO.builder().month(month)
+            .days(List.of(DayDTO.builder().day(day).flights(flights).build()))
+            .build();
+    }
+
+    public static List<FlightDTO> flights(final Random random, final int count) {
+        final List<FlightDTO> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int departure = random.nextInt(20 * 60);
+            final int arrival = departure + 60 + random.nextInt(180);
+            flights.add(FlightDTO.builder().carrierCode("FR").number(String.valueOf(1000 + i))
+                .departureTime("%02d:%02d".formatted(departure / 60, departure % 60))
+                .arrivalTime("%02d:%02d".formatted(arrival / 60 % 24, arrival % 60))
+                .build());
+        }
+        return flights;
+    }
+}
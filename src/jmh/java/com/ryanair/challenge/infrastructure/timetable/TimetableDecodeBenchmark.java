@@ -0,0 +1,42 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.YearMonth;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of one month of schedule into a {@link MonthTimetable}: parsing every departure and arrival time into
+ * epoch minutes and sorting each day by departure. This is the work every schedule cache miss pays for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimetableDecodeBenchmark {
+
+    private static final ScheduleKey KEY = ScheduleKey.of("BCN", "MAD", 2021, 7);
+
+    @Param({"1", "10", "50"})
+    private int flightsPerDay;
+
+    private ScheduleDTO schedule;
+
+    @Setup
+    public void setUp() {
+        schedule = SyntheticSchedules.month(new Random(42), YearMonth.of(2021, 7), flightsPerDay);
+    }
+
+    @Benchmark
+    public MonthTimetable decode() {
+        return MonthTimetable.decode(KEY, schedule);
+    }
+}
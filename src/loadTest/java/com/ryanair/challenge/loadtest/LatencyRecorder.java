@@ -0,0 +1,38 @@
+package com.ryanair.challenge.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every recorded latency so percentiles are exact. A run of a few minutes at a few thousand searches per
+ * second is a few million longs, well within the heap of the harness.
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+
+    public synchronized void record(final long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Latencies at each of the given percentiles, in nanoseconds, or zeros when nothing was recorded.
+     */
+    public synchronized long[] percentiles(final double... percentiles) {
+        final long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        final long[] values = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length && count > 0; i++) {
+            final int rank = (int) Math.ceil(percentiles[i] / 100 * count);
+            values[i] = sorted[Math.max(rank, 1) - 1];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ryanair.challenge.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the searches of the mix at a fixed rate, whether or not the previous ones have answered, as independent
+ * users would. Each latency is measured from the moment the search was due rather than from when it was actually
+ * sent, so a generator that falls behind an overloaded application does not hide the queueing from the results.
+ */
+public class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final SearchMix searchMix;
+    private final HttpClient httpClient;
+
+    public LoadGenerator(final LoadTestOptions options, final SearchMix searchMix) {
+        this.options = options;
+        this.searchMix = searchMix;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    }
+
+    public LoadResult run(final Duration duration) throws InterruptedException {
+
+        final long interval = TimeUnit.SECONDS.toNanos(1) / options.rps;
+        final long searches = duration.toNanos() / interval;
+        final Semaphore inFlight = new Semaphore(options.maxInFlight);
+        final LoadResult result = new LoadResult();
+        final long start = System.nanoTime();
+
+        for (long search = 0; search < searches; search++) {
+            final long due = start + search * interval;
+            waitUntil(due);
+            if (!inFlight.tryAcquire()) {
+                result.drop();
+                continue;
+            }
+            httpClient.sendAsync(HttpRequest.newBuilder(searchMix.next()).timeout(REQUEST_TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    result.record(System.nanoTime() - due, response, failure);
+                    inFlight.release();
+                });
+        }
+
+        inFlight.tryAcquire(options.maxInFlight, REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        result.finish(System.nanoTime() - start);
+        return result;
+    }
+
+    private static void waitUntil(final long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ryanair.challenge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the outcome of the measured run and writes it as JSON next to the other build reports, so runs before and
+ * after a change can be compared.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+    private static final String[] NAMES = {"p50", "p95", "p99", "p999"};
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    public LoadReport(final LoadTestOptions options, final LoadResult result,
+                      final long upstreamCalls, final long upstreamFailures) {
+
+        final Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rps", options.rps);
+        settings.put("duration", options.duration.toString());
+        settings.put("latency", options.latency);
+        settings.put("latencyMedianMillis", options.latencyMedian.toMillis());
+        settings.put("latencyMaxMillis", options.latencyMax.toMillis());
+        settings.put("latencySigma", options.latencySigma);
+        settings.put("errorRate", options.errorRate);
+        settings.put("days", options.days);
+        settings.put("connectionShare", options.connectionShare);
+        settings.put("asyncShare", options.asyncShare);
+
+        final Map<String, Object> latency = new LinkedHashMap<>();
+        final double[] millis = result.percentilesMillis(PERCENTILES);
+        for (int i = 0; i < NAMES.length; i++) {
+            latency.put(NAMES[i], millis[i]);
+        }
+
+        report.put("settings", settings);
+        report.put("completed", result.completed());
+        report.put("throughput", result.throughput());
+        report.put("errors", result.errors());
+        report.put("dropped", result.dropped());
+        report.put("outcomes", result.outcomes());
+        report.put("latencyMillis", latency);
+        report.put("upstreamCalls", upstreamCalls);
+        report.put("upstreamFailures", upstreamFailures);
+    }
+
+    public void print() {
+        System.out.printf("%nCompleted %s searches at %.1f/s : errors : %s, dropped : %s%n",
+            report.get("completed"), (double) report.get("throughput"), report.get("errors"), report.get("dropped"));
+        System.out.printf("Outcomes : %s%n", report.get("outcomes"));
+        System.out.printf("Latency (ms) : %s%n", report.get("latencyMillis"));
+        System.out.printf("Upstream calls : %s, failed : %s%n", report.get("upstreamCalls"),
+            report.get("upstreamFailures"));
+    }
+
+    public void write(final LoadTestOptions options) throws IOException {
+        Files.createDirectories(options.report.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(options.report.toFile(), report);
+        System.out.printf("Report written to %s%n", options.report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ryanair.challenge.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What happened to the searches of one run: how long each took from the moment it was due to be sent, how each one
+ * ended, and how many were dropped because too many were already waiting.
+ */
+public class LoadResult {
+
+    private static final int SERVER_ERROR = 500;
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long elapsedNanos;
+
+    void record(final long latencyNanos, final HttpResponse<?> response, final Throwable failure) {
+        latencies.record(latencyNanos);
+        final String outcome = response != null ?
+            String.valueOf(response.statusCode()) :
+            failure.getClass().getSimpleName();
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (response == null || response.statusCode() >= SERVER_ERROR) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void drop() {
+        dropped.incrementAndGet();
+    }
+
+    void finish(final long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int completed() {
+        return latencies.count();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : completed() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public Map<String, Long> outcomes() {
+        final Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Latencies at each of the given percentiles, in milliseconds.
+     */
+    public double[] percentilesMillis(final double... percentiles) {
+        final long[] nanos = latencies.percentiles(percentiles);
+        final double[] millis = new double[nanos.length];
+        for (int i = 0; i < nanos.length; i++) {
+            millis[i] = nanos[i] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+        return millis;
+    }
+}
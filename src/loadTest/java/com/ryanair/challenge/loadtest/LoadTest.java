@@ -0,0 +1,62 @@
+package com.ryanair.challenge.loadtest;
+
+import com.ryanair.challenge.RyanairChallengeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the whole application against the {@link UpstreamSimulator}, warms it up with the {@link SearchMix} and
+ * then measures it at the configured rate. Run it with {@code ./gradlew loadTest}; every setting comes from a
+ * {@code loadtest.*} system property (see {@link LoadTestOptions}), and {@code provider.*} ones reach the
+ * application, e.g. {@code -Dprovider.ryanair.hedging.enabled=true}.
+ *
+ * <p>The generator runs in the same JVM as the application, so leave it some headroom when reading the numbers
+ * close to saturation.
+ */
+public class LoadTest {
+
+    /**
+     * Off unless asked for: the route fixture only has departures from BCN, so a graph built from it knows no flight
+     * out of any hub and every search would be direct only. Without it the connecting routes come from the fixture.
+     */
+    private static final String NETWORK_ENABLED = "provider.ryanair.network.enabled";
+    /**
+     * Off unless asked for, so every run starts as cold as the previous one instead of from its snapshot.
+     */
+    private static final String SNAPSHOT_ENABLED = "provider.ryanair.snapshot.enabled";
+
+    public static void main(final String[] args) throws Exception {
+
+        final LoadTestOptions options = new LoadTestOptions();
+        try (UpstreamSimulator upstream = new UpstreamSimulator(options)) {
+            upstream.start();
+
+            final SpringApplicationBuilder builder = new SpringApplicationBuilder(RyanairChallengeApplication.class);
+            try (ConfigurableApplicationContext application = builder.run("--server.port=0",
+                "--logging.level.com.ryanair=WARN",
+                "--provider.ryanair.routes.url=" + upstream.url(UpstreamSimulator.ROUTES_PATH),
+                "--provider.ryanair.schedule.url=" + upstream.url(UpstreamSimulator.SCHEDULE_PATH),
+                "--%s=%s".formatted(NETWORK_ENABLED, System.getProperty(NETWORK_ENABLED, "false")),
+                "--%s=%s".formatted(SNAPSHOT_ENABLED, System.getProperty(SNAPSHOT_ENABLED, "false")))) {
+
+                final int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                final LoadGenerator generator =
+                    new LoadGenerator(options, new SearchMix(options, "http://localhost:%d".formatted(port)));
+
+                System.out.printf("Warming up for %s at %d searches/s%n", options.warmup, options.rps);
+                generator.run(options.warmup);
+
+                final long upstreamCalls = upstream.requests();
+                final long upstreamFailures = upstream.failures();
+                System.out.printf("Measuring for %s at %d searches/s%n", options.duration, options.rps);
+                final LoadResult result = generator.run(options.duration);
+
+                final LoadReport report = new LoadReport(options, result,
+                    upstream.requests() - upstreamCalls, upstream.failures() - upstreamFailures);
+                report.print();
+                report.write(options);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ryanair.challenge.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties. Durations are written as in the
+ * application properties, e.g. {@code 80ms}, {@code 30s} or {@code 2m}.
+ */
+public class LoadTestOptions {
+
+    private static final String PREFIX = "loadtest.";
+
+    /**
+     * Searches started per second, whether or not the previous ones have answered.
+     */
+    final int rps = intValue("rps", 50);
+    final Duration warmup = duration("warmup", "10s");
+    final Duration duration = duration("duration", "60s");
+    /**
+     * Searches waiting for an answer above which new ones are dropped instead of sent, so an overloaded application
+     * does not make the generator run out of memory. Dropped searches are reported.
+     */
+    final int maxInFlight = intValue("maxInFlight", 2000);
+
+    /**
+     * {@code fixed}, {@code uniform} or {@code lognormal} delay added by the simulated upstream to every response.
+     */
+    final String latency = text("latency", "lognormal");
+    /**
+     * Fixed delay, lower bound of the uniform delay and median of the log-normal one.
+     */
+    final Duration latencyMedian = duration("latency.median", "80ms");
+    /**
+     * Upper bound of the uniform delay.
+     */
+    final Duration latencyMax = duration("latency.max", "300ms");
+    /**
+     * Standard deviation of the logarithm of the log-normal delay; the higher, the longer its tail.
+     */
+    final double latencySigma = doubleValue("latency.sigma", 0.5);
+    /**
+     * Share of upstream calls, between 0 and 1, answered with 503 Service Unavailable.
+     */
+    final double errorRate = doubleValue("errorRate", 0.01);
+    final int upstreamThreads = intValue("upstreamThreads", 200);
+
+    /**
+     * Days of July 2021 the searches are spread over. Together with the destinations of the route fixture it sets
+     * how many different schedules the searches need, and so how often they are served from the caches.
+     */
+    final int days = intValue("days", 31);
+    /**
+     * Share of searches, between 0 and 1, asking for connections as well as direct flights.
+     */
+    final double connectionShare = doubleValue("connectionShare", 0.5);
+    /**
+     * Share of searches, between 0 and 1, sent to the asynchronous endpoint.
+     */
+    final double asyncShare = doubleValue("asyncShare", 0.0);
+    final long seed = intValue("seed", 42);
+
+    final Path fixtures = Path.of(text("fixtures", "src/test/resources/response"));
+    final Path report = Path.of(text("report", "build/reports/loadtest/results.json"));
+
+    private static String text(final String name, final String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    private static int intValue(final String name, final int defaultValue) {
+        return Integer.parseInt(text(name, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleValue(final String name, final double defaultValue) {
+        return Double.parseDouble(text(name, String.valueOf(defaultValue)));
+    }
+
+    private static Duration duration(final String name, final String defaultValue) {
+        return DurationStyle.detectAndParse(text(name, defaultValue));
+    }
+}
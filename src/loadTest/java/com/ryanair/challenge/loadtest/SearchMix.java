@@ -0,0 +1,56 @@
+package com.ryanair.challenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Searches from BCN, the departure of the route fixture, to every destination it lists, on the configured days of
+ * July 2021, the month of the schedule fixture. The same seed always replays the same searches in the same order.
+ */
+public class SearchMix {
+
+    private static final String DEPARTURE = "BCN";
+    private static final String ROUTES = "valid_routes.json";
+    private static final int SEARCHES = 10_000;
+    private static final String SEARCH =
+        "%s/ryanair/%s?departure=%s&arrival=%s&departureDateTime=%s&arrivalDateTime=%s&maxStops=%d";
+
+    private final List<URI> searches;
+    private int next;
+
+    public SearchMix(final LoadTestOptions options, final String baseUrl) throws IOException {
+
+        final TreeSet<String> destinations = new TreeSet<>();
+        for (JsonNode route : new ObjectMapper().readTree(options.fixtures.resolve(ROUTES).toFile())) {
+            destinations.add(route.get("airportTo").asText());
+        }
+        final List<String> arrivals = new ArrayList<>(destinations);
+
+        final Random random = new Random(options.seed);
+        this.searches = new ArrayList<>(SEARCHES);
+        for (int i = 0; i < SEARCHES; i++) {
+            final LocalDateTime day = LocalDateTime.of(2021, 7, 1 + random.nextInt(options.days), 0, 0);
+            searches.add(URI.create(SEARCH.formatted(baseUrl,
+                random.nextDouble() < options.asyncShare ? "flights/async" : "flights",
+                DEPARTURE,
+                arrivals.get(random.nextInt(arrivals.size())),
+                day,
+                day.withHour(23).withMinute(59),
+                    random.nextDouble() < options.connectionShare ? 1 : 0)));
+        }
+    }
+
+    public URI next() {
+        final URI search = searches.get(next);
+        next = (next + 1) % searches.size();
+        return search;
+    }
+}
@@ -0,0 +1,115 @@
+package com.ryanair.challenge.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Local stand-in for the Ryanair routes and schedules APIs, serving the recorded fixtures for any airport and month
+ * after a delay drawn from the configured distribution, and failing the configured share of calls with 503.
+ */
+public class UpstreamSimulator implements AutoCloseable {
+
+    static final String ROUTES_PATH = "/locate/3";
+    static final String SCHEDULE_PATH = "/timtbl/3";
+
+    private static final String ROUTES = "valid_routes.json";
+    private static final String SCHEDULE = "valid_BCN_BGY_schedule.json";
+
+    private final WireMockServer server;
+    private final FaultInjector faultInjector;
+
+    public UpstreamSimulator(final LoadTestOptions options) throws IOException {
+        this.faultInjector = new FaultInjector(options.errorRate);
+        this.server = new WireMockServer(options()
+            .dynamicPort()
+            .containerThreads(options.upstreamThreads)
+            .asynchronousResponseEnabled(true)
+            .asynchronousResponseThreads(options.upstreamThreads)
+            .disableRequestJournal()
+            .extensions(faultInjector));
+
+        server.stubFor(get(urlPathMatching(ROUTES_PATH + "/routes(/[A-Z]{3})?"))
+            .willReturn(okJson(Files.readString(options.fixtures.resolve(ROUTES)))));
+        server.stubFor(get(urlPathMatching(SCHEDULE_PATH + "/schedules/[A-Z]{3}/[A-Z]{3}/years/\\d{4}/months/\\d{1,2}"))
+            .willReturn(okJson(Files.readString(options.fixtures.resolve(SCHEDULE)))));
+
+        final int median = (int) options.latencyMedian.toMillis();
+        switch (options.latency) {
+            case "fixed" -> server.setGlobalFixedDelay(median);
+            case "uniform" -> server.setGlobalRandomDelay(
+                new UniformDistribution(median, (int) options.latencyMax.toMillis()));
+            case "lognormal" -> server.setGlobalRandomDelay(new LogNormal(median, options.latencySigma));
+            default -> throw new IllegalArgumentException("Unknown latency distribution %s".formatted(options.latency));
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String url(final String path) {
+        return "http://localhost:%d%s".formatted(server.port(), path);
+    }
+
+    public long requests() {
+        return faultInjector.requests.get();
+    }
+
+    public long failures() {
+        return faultInjector.failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    private static class FaultInjector extends ResponseDefinitionTransformer {
+
+        private static final int SERVICE_UNAVAILABLE = 503;
+
+        private final double errorRate;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        FaultInjector(final double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public ResponseDefinition transform(final Request request, final ResponseDefinition responseDefinition,
+                                            final FileSource files, final Parameters parameters) {
+            requests.incrementAndGet();
+            if (ThreadLocalRandom.current().nextDouble() >= errorRate) {
+                return responseDefinition;
+            }
+            failures.incrementAndGet();
+            return ResponseDefinitionBuilder.like(responseDefinition).but()
+                .withStatus(SERVICE_UNAVAILABLE)
+                .withBody("")
+                .build();
+        }
+
+        @Override
+        public String getName() {
+            return "fault-injector";
+        }
+    }
+}
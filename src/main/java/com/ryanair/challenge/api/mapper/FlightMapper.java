@@ -24,6 +24,7 @@ public class FlightMapper {
                 .map(FlightMapper::toLegDTO)
                 .collect(Collectors.toList())
             )
+            .stale(flight.isStale())
             .build();
     }
 
@@ -17,7 +17,11 @@ public class RequestMapper {
                 .departure(request.getDeparture())
                 .arrival(request.getArrival())
                 .departureDateTime(request.getDepartureDateTime())
-                .arrivalDateTime(request.getArrivalDateTime()).build();
+                .arrivalDateTime(request.getArrivalDateTime())
+                .maxStops(request.getMaxStops())
+                .sort(request.getSort())
+                .limit(request.getLimit())
+                .cursor(request.getCursor()).build();
     }
 
 }
@@ -1,6 +1,7 @@
 package com.ryanair.challenge.api.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ryanair.challenge.domain.model.FlightSort;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,8 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
 
 
@@ -35,4 +38,15 @@ public class BookFlightRequestDTO {
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     @JsonProperty("arrivalDateTime")
     private LocalDateTime arrivalDateTime;
+    @PositiveOrZero
+    @JsonProperty("maxStops")
+    private Integer maxStops;
+    @JsonProperty("sort")
+    private FlightSort sort;
+    @Positive
+    @JsonProperty("limit")
+    private Integer limit;
+    @PositiveOrZero
+    @JsonProperty("cursor")
+    private Integer cursor;
 }
@@ -1,5 +1,6 @@
 package com.ryanair.challenge.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -16,4 +17,6 @@ public class FlightDTO implements Serializable {
 
     private int stops;
     private List<LegDTO> legs;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
 }
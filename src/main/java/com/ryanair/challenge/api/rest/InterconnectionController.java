@@ -4,23 +4,51 @@ import com.ryanair.challenge.api.mapper.FlightMapper;
 import com.ryanair.challenge.api.mapper.RequestMapper;
 import com.ryanair.challenge.api.model.BookFlightRequestDTO;
 import com.ryanair.challenge.api.model.FlightDTO;
+import com.ryanair.challenge.api.rest.response.FlightJsonWriter;
+import com.ryanair.challenge.api.rest.response.FlightStreamEmitter;
 import com.ryanair.challenge.api.rest.response.GenericResponse;
 import com.ryanair.challenge.api.rest.response.GenericResponseError;
+import com.ryanair.challenge.api.rest.response.SearchResultCache;
 import com.ryanair.challenge.application.GetFlights;
+import com.ryanair.challenge.application.GetFlightsAsync;
+import com.ryanair.challenge.application.GetFlightsBatch;
+import com.ryanair.challenge.application.StreamFlights;
+import com.ryanair.challenge.configuration.SearchProperties;
 import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
 import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
 import io.vavr.control.Either;
+import io.vavr.control.Try;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Validated
@@ -29,32 +57,189 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class InterconnectionController {
 
+    private static final String TOO_MANY_SEARCHES = "A batch accepts at most %d searches";
+    private static final String EMPTY_SEARCH = "The search is empty";
+    private static final String STREAM_NOT_PAGED = "A streamed search accepts no sort, limit or cursor";
+
     private final GetFlights getFlights;
+    private final GetFlightsAsync getFlightsAsync;
+    private final GetFlightsBatch getFlightsBatch;
+    private final StreamFlights streamFlights;
+    private final Validator validator;
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+    private final SearchResultCache searchResultCache;
 
     @GetMapping("/flights")
-    public GenericResponse<List<FlightDTO>> getFlights(@Valid final BookFlightRequestDTO bookFlightRequestDTO) {
+    public ResponseEntity<?> getCachedFlights(@Valid final BookFlightRequestDTO bookFlightRequestDTO) {
+        logRequest(bookFlightRequestDTO);
+
+        final BookFlightRequest request = RequestMapper.toBookFlightRequest(bookFlightRequestDTO);
+        if (searchResultCache.isEnabled()) {
+            return searchResultCache.page(request, getFlights).<ResponseEntity<?>>fold(
+                notFound -> ResponseEntity.ok(buildResponse(Either.left(notFound))),
+                this::cachedResponse);
+        }
+
+        final Either<BookFlightServiceException, List<Flight>> flights = getFlights.apply(request);
+        if (flights.isLeft()) {
+            return ResponseEntity.ok(buildResponse(flights));
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(searchMetrics.time(SearchMetrics.Stage.MAPPING, () ->
+                FlightJsonWriter.page(flights.get(), nextCursor(bookFlightRequestDTO, flights.get().size()))));
+    }
+
+    @GetMapping("/flights/async")
+    public CompletableFuture<GenericResponse<List<FlightDTO>>> getFlightsAsync(@Valid final BookFlightRequestDTO bookFlightRequestDTO) {
+        logRequest(bookFlightRequestDTO);
+
+        return getFlightsAsync.apply(RequestMapper.toBookFlightRequest(bookFlightRequestDTO))
+            .thenApply(flights -> buildResponse(flights, bookFlightRequestDTO));
+    }
+
+    @GetMapping(value = "/flights", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<ResponseBodyEmitter> streamFlights(@Valid final BookFlightRequestDTO bookFlightRequestDTO,
+                                                             @RequestHeader(HttpHeaders.ACCEPT) final String accept) {
+        logRequest(bookFlightRequestDTO);
+
+        final FlightStreamEmitter emitter = FlightStreamEmitter.forAccept(accept);
+        if (isPaged(bookFlightRequestDTO)) {
+            Try.run(() -> emitter.sendError(badRequest(STREAM_NOT_PAGED)))
+                .onSuccess(done -> emitter.complete())
+                .onFailure(emitter::completeWithError);
+            return ResponseEntity.badRequest().body(emitter);
+        }
+
+        streamFlights.apply(RequestMapper.toBookFlightRequest(bookFlightRequestDTO),
+                flight -> Try.run(() -> emitter.sendFlight(flight))
+                    .getOrElseThrow(BookFlightServiceException::new))
+            .whenComplete((streamed, failure) -> endStream(emitter, streamed, failure));
+        return ResponseEntity.ok(emitter);
+    }
+
+    @PostMapping("/flights/batch")
+    public GenericResponse<List<GenericResponse<List<FlightDTO>>>> getFlightsBatch(
+        @RequestBody final List<BookFlightRequestDTO> bookFlightRequestDTOs) {
+        log.debug("Getting flights for a batch of %d searches".formatted(bookFlightRequestDTOs.size()));
+
+        if (bookFlightRequestDTOs.size() > searchProperties.getMaxBatchSize()) {
+            throw new BookFlightServiceException(TOO_MANY_SEARCHES.formatted(searchProperties.getMaxBatchSize()));
+        }
+
+        final List<Optional<GenericResponseError>> invalidSearches = bookFlightRequestDTOs.stream()
+            .map(this::validate)
+            .collect(Collectors.toList());
+
+        final Iterator<Either<BookFlightServiceException, List<Flight>>> results = getFlightsBatch.apply(
+            IntStream.range(0, bookFlightRequestDTOs.size())
+                .filter(search -> invalidSearches.get(search).isEmpty())
+                .mapToObj(search -> RequestMapper.toBookFlightRequest(bookFlightRequestDTOs.get(search)))
+                .collect(Collectors.toList()))
+            .iterator();
+
+        return GenericResponse.<List<GenericResponse<List<FlightDTO>>>>builder()
+            .data(IntStream.range(0, bookFlightRequestDTOs.size())
+                .mapToObj(search -> invalidSearches.get(search)
+                    .map(error -> GenericResponse.<List<FlightDTO>>builder().error(error).build())
+                    .orElseGet(() -> buildResponse(results.next(), bookFlightRequestDTOs.get(search))))
+                .collect(Collectors.toList()))
+            .build();
+    }
+
+    private ResponseEntity<byte[]> cachedResponse(final byte[] body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.maxAge(searchResultCache.getMaxAge()))
+            .eTag("\"%s\"".formatted(DigestUtils.md5DigestAsHex(body)))
+            .body(body);
+    }
+
+    private void endStream(final FlightStreamEmitter emitter,
+                           final Either<BookFlightServiceException, Integer> streamed, final Throwable failure) {
+        Try.run(() -> {
+            if (Objects.nonNull(failure)) {
+                log.error(failure.getMessage(), failure);
+                emitter.sendError(badRequest(cause(failure).getLocalizedMessage()));
+            } else if (streamed.isLeft()) {
+                emitter.sendError(buildErrorDTOObject(streamed.getLeft()));
+            } else {
+                log.debug("Streamed %d flights as %s".formatted(streamed.get(), emitter.getMediaType()));
+            }
+        })
+            .onSuccess(done -> emitter.complete())
+            .onFailure(emitter::completeWithError);
+    }
+
+    private boolean isPaged(final BookFlightRequestDTO bookFlightRequestDTO) {
+        return Objects.nonNull(bookFlightRequestDTO.getSort()) || Objects.nonNull(bookFlightRequestDTO.getLimit()) ||
+            Objects.nonNull(bookFlightRequestDTO.getCursor());
+    }
+
+    private Throwable cause(final Throwable failure) {
+        return failure instanceof CompletionException && Objects.nonNull(failure.getCause()) ?
+            failure.getCause() : failure;
+    }
+
+    private Optional<GenericResponseError> validate(final BookFlightRequestDTO bookFlightRequestDTO) {
+        if (Objects.isNull(bookFlightRequestDTO)) {
+            return Optional.of(badRequest(EMPTY_SEARCH));
+        }
+        return validator.validate(bookFlightRequestDTO).stream()
+            .min(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+            .map(this::badRequest);
+    }
+
+    private GenericResponseError badRequest(final ConstraintViolation<BookFlightRequestDTO> violation) {
+        return badRequest("%s %s".formatted(violation.getPropertyPath(), violation.getMessage()));
+    }
+
+    private GenericResponseError badRequest(final String message) {
+        return GenericResponseError.builder()
+            .code(HttpStatus.BAD_REQUEST.value())
+            .message(message)
+            .build();
+    }
+
+    private void logRequest(final BookFlightRequestDTO bookFlightRequestDTO) {
         log.debug("Getting flights by : departure : %s, departureDateTime : %s, arrival : %s, arrivalDateTime : %s"
             .formatted(bookFlightRequestDTO.getDeparture(), bookFlightRequestDTO.getDepartureDateTime(),
                 bookFlightRequestDTO.getArrival(), bookFlightRequestDTO.getArrivalDateTime()));
+    }
 
-        final var flightsData = getFlights.apply(RequestMapper.toBookFlightRequest(bookFlightRequestDTO));
+    private GenericResponse<List<FlightDTO>> buildResponse(final Either<BookFlightServiceException, List<Flight>> flightsData,
+                                                           final BookFlightRequestDTO bookFlightRequestDTO) {
+        final GenericResponse<List<FlightDTO>> response = buildResponse(flightsData);
+        if (Objects.nonNull(response.getData())) {
+            response.setNextCursor(nextCursor(bookFlightRequestDTO, response.getData().size()));
+        }
+        return response;
+    }
 
+    private Integer nextCursor(final BookFlightRequestDTO bookFlightRequestDTO, final int found) {
+        final Integer limit = bookFlightRequestDTO.getLimit();
+        return Objects.nonNull(limit) && found == limit ?
+            Optional.ofNullable(bookFlightRequestDTO.getCursor()).orElse(0) + limit : null;
+    }
+
+    private GenericResponse<List<FlightDTO>> buildResponse(final Either<BookFlightServiceException, List<Flight>> flightsData) {
         return flightsData.isRight() ?
             GenericResponse.<List<FlightDTO>>builder().data(buildDataList(flightsData)).build() :
-            GenericResponse.<List<FlightDTO>>builder().error(buildErrorDTOObject(flightsData)).build();
+            GenericResponse.<List<FlightDTO>>builder().error(buildErrorDTOObject(flightsData.getLeft())).build();
     }
 
-    private GenericResponseError buildErrorDTOObject(final Either<BookFlightServiceException, List<Flight>> dataList) {
+    private GenericResponseError buildErrorDTOObject(final BookFlightServiceException exception) {
         return GenericResponseError.builder()
             .code(HttpStatus.NOT_FOUND.value())
-            .message(dataList.getLeft().getLocalizedMessage())
+            .message(exception.getLocalizedMessage())
             .build();
     }
 
     private List<FlightDTO> buildDataList(final Either<BookFlightServiceException, List<Flight>> dataList) {
-        return dataList.get().stream()
+        return searchMetrics.time(SearchMetrics.Stage.MAPPING, () -> dataList.get().stream()
             .map(FlightMapper::toFlightDTO)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.ryanair.challenge.api.rest.response;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.Leg;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes found flights straight into one byte buffer as the JSON Jackson writes for the mapped DTOs, nulls included.
+ */
+public final class FlightJsonWriter {
+
+    private static final int MAX_AIRPORTS = 1024;
+    private static final Map<String, byte[]> AIRPORTS = new ConcurrentHashMap<>();
+
+    private static final byte[] DATA_START = ascii("{\"data\":[");
+    private static final byte[] NEXT_CURSOR = ascii("],\"nextCursor\":");
+    private static final byte[] DATA_END = ascii("]}");
+    private static final byte[] STOPS = ascii("{\"stops\":");
+    private static final byte[] LEGS = ascii(",\"legs\":[");
+    private static final byte[] DEPARTURE_AIRPORT = ascii("{\"departureAirport\":");
+    private static final byte[] ARRIVAL_AIRPORT = ascii(",\"arrivalAirport\":");
+    private static final byte[] DEPARTURE_DATE_TIME = ascii(",\"departureDateTime\":");
+    private static final byte[] ARRIVAL_DATE_TIME = ascii(",\"arrivalDateTime\":");
+    private static final byte[] STALE = ascii(",\"stale\":true");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] ERROR = ascii("{\"error\":{");
+    private static final byte[] CODE = ascii("\"code\":");
+    private static final byte[] MESSAGE = ascii("\"message\":");
+    private static final byte[] ERROR_END = ascii("}}");
+
+    private byte[] buffer;
+    private int size;
+    private int flights;
+
+    private FlightJsonWriter(final int capacity) {
+        this.buffer = new byte[Math.max(capacity, 64)];
+    }
+
+    public static FlightJsonWriter body(final int capacity) {
+        final FlightJsonWriter body = new FlightJsonWriter(capacity + DATA_START.length + 32);
+        body.put(DATA_START);
+        return body;
+    }
+
+    public static byte[] page(final List<Flight> flights, final Integer nextCursor) {
+        final FlightJsonWriter body = body(flights.size() * 192);
+        flights.forEach(body::add);
+        return body.end(nextCursor);
+    }
+
+    public static byte[] flight(final Flight flight) {
+        final FlightJsonWriter writer = new FlightJsonWriter(192);
+        writer.write(flight);
+        return writer.toByteArray();
+    }
+
+    public static byte[] error(final GenericResponseError error) {
+        final FlightJsonWriter writer = new FlightJsonWriter(64);
+        writer.put(ERROR);
+        if (Objects.nonNull(error.getCode())) {
+            writer.put(CODE);
+            writer.putInt(error.getCode());
+        }
+        if (Objects.nonNull(error.getMessage())) {
+            if (Objects.nonNull(error.getCode())) {
+                writer.put((byte) ',');
+            }
+            writer.put(MESSAGE);
+            writer.putString(error.getMessage());
+        }
+        writer.put(ERROR_END);
+        return writer.toByteArray();
+    }
+
+    public FlightJsonWriter add(final Flight flight) {
+        separate();
+        write(flight);
+        return this;
+    }
+
+    public FlightJsonWriter add(final byte[] flight) {
+        separate();
+        put(flight);
+        return this;
+    }
+
+    public byte[] end(final Integer nextCursor) {
+        if (Objects.isNull(nextCursor)) {
+            put(DATA_END);
+        } else {
+            put(NEXT_CURSOR);
+            putInt(nextCursor);
+            put((byte) '}');
+        }
+        return toByteArray();
+    }
+
+    private void separate() {
+        if (flights++ > 0) {
+            put((byte) ',');
+        }
+    }
+
+    /**
+     * Same fields as {@code FlightMapper.toFlightDTO}.
+     */
+    private void write(final Flight flight) {
+
+        if (Objects.isNull(flight)) {
+            put(NULL);
+            return;
+        }
+
+        final List<Leg> legs = flight.getLegs();
+        put(STOPS);
+        putInt(legs.size() - 1);
+        put(LEGS);
+        for (int leg = 0; leg < legs.size(); leg++) {
+            if (leg > 0) {
+                put((byte) ',');
+            }
+            write(legs.get(leg));
+        }
+        put((byte) ']');
+        if (flight.isStale()) {
+            put(STALE);
+        }
+        put((byte) '}');
+    }
+
+    private void write(final Leg leg) {
+
+        if (Objects.isNull(leg)) {
+            put(NULL);
+            return;
+        }
+
+        put(DEPARTURE_AIRPORT);
+        putAirport(leg.getDepartureAirport());
+        put(ARRIVAL_AIRPORT);
+        putAirport(leg.getArrivalAirport());
+        put(DEPARTURE_DATE_TIME);
+        putString(leg.getDepartureDateTime());
+        put(ARRIVAL_DATE_TIME);
+        putString(leg.getArrivalDateTime());
+        put((byte) '}');
+    }
+
+    /**
+     * Airports are few, so each one is encoded once, up to a maximum.
+     */
+    private void putAirport(final String airport) {
+
+        if (Objects.isNull(airport)) {
+            put(NULL);
+            return;
+        }
+
+        final byte[] encoded = AIRPORTS.get(airport);
+        if (Objects.nonNull(encoded)) {
+            put(encoded);
+        } else if (AIRPORTS.size() < MAX_AIRPORTS) {
+            put(AIRPORTS.computeIfAbsent(airport, FlightJsonWriter::quoted));
+        } else {
+            put(quoted(airport));
+        }
+    }
+
+    /**
+     * Anything but printable ASCII with nothing to escape is escaped the way Jackson does.
+     */
+    private void putString(final String value) {
+
+        if (Objects.isNull(value)) {
+            put(NULL);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                put(quoted(value));
+                return;
+            }
+        }
+
+        ensure(value.length() + 2);
+        buffer[size++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+        buffer[size++] = '"';
+    }
+
+    private void putInt(final int value) {
+        if (value >= 0 && value < 10) {
+            put((byte) ('0' + value));
+        } else {
+            put(ascii(Integer.toString(value)));
+        }
+    }
+
+    private void put(final byte value) {
+        ensure(1);
+        buffer[size++] = value;
+    }
+
+    private void put(final byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void ensure(final int more) {
+        if (size + more > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + more));
+        }
+    }
+
+    private byte[] toByteArray() {
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private static byte[] quoted(final String value) {
+        final byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+        final byte[] quoted = new byte[escaped.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
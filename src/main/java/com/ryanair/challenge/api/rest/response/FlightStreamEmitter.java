@@ -0,0 +1,78 @@
+package com.ryanair.challenge.api.rest.response;
+
+import com.ryanair.challenge.domain.model.Flight;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Response body written one flight at a time, as newline delimited JSON or as server-sent events.
+ */
+public class FlightStreamEmitter extends ResponseBodyEmitter {
+
+    private static final byte[] FLIGHT_EVENT = ascii("event:flight\ndata:");
+    private static final byte[] ERROR_EVENT = ascii("event:error\ndata:");
+    private static final byte[] EVENT_END = ascii("\n\n");
+    private static final byte[] LINE_END = ascii("\n");
+
+    private final MediaType mediaType;
+
+    public FlightStreamEmitter(final MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Server-sent events when the client prefers them, newline delimited JSON otherwise.
+     */
+    public static FlightStreamEmitter forAccept(final String accept) {
+
+        final List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(accepted);
+
+        return new FlightStreamEmitter(accepted.stream()
+            .filter(type -> type.isCompatibleWith(MediaType.APPLICATION_NDJSON) ||
+                type.isCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+            .findFirst()
+            .filter(type -> !type.isCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .map(type -> MediaType.TEXT_EVENT_STREAM)
+            .orElse(MediaType.APPLICATION_NDJSON));
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public void sendFlight(final Flight flight) throws IOException {
+        write(FLIGHT_EVENT, FlightJsonWriter.flight(flight));
+    }
+
+    public void sendError(final GenericResponseError error) throws IOException {
+        write(ERROR_EVENT, FlightJsonWriter.error(error));
+    }
+
+    private void write(final byte[] event, final byte[] json) throws IOException {
+        final boolean events = MediaType.TEXT_EVENT_STREAM.equals(mediaType);
+        final byte[] start = events ? event : new byte[0];
+        final byte[] end = events ? EVENT_END : LINE_END;
+
+        final byte[] frame = new byte[start.length + json.length + end.length];
+        System.arraycopy(start, 0, frame, 0, start.length);
+        System.arraycopy(json, 0, frame, start.length, json.length);
+        System.arraycopy(end, 0, frame, start.length + json.length, end.length);
+        send(frame, mediaType);
+    }
+
+    @Override
+    protected void extendResponse(final ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        outputMessage.getHeaders().setContentType(mediaType);
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
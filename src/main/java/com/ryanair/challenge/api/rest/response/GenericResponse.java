@@ -16,4 +16,5 @@ public class GenericResponse<T> {
 
     private T data;
     private GenericResponseError error;
+    private Integer nextCursor;
 }
@@ -0,0 +1,197 @@
+package com.ryanair.challenge.api.rest.response;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.FlightSort;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics.Stage;
+import com.ryanair.challenge.infrastructure.timetable.ItineraryRanking;
+import com.ryanair.challenge.infrastructure.timetable.SearchWindow;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.vavr.control.Either;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the flights of recent searches serialized as JSON, one entry per route, days, stops and sort, and cuts the
+ * page of each request from them. Results with stale flights are not kept.
+ */
+public class SearchResultCache {
+
+    private static final String CACHE_NAME = "ryanair.results";
+
+    private final RyanairCacheProperties.Results properties;
+    private final SearchProperties searchProperties;
+    private final SearchPopularity searchPopularity;
+    private final SearchMetrics searchMetrics;
+    private final Cache<Key, Results> results;
+
+    public SearchResultCache(final RyanairCacheProperties.Results properties, final SearchProperties searchProperties,
+                             final SearchPopularity searchPopularity, final SearchMetrics searchMetrics,
+                             final MeterRegistry meterRegistry) {
+        this(properties, searchProperties, searchPopularity, searchMetrics, meterRegistry, Ticker.systemTicker());
+    }
+
+    SearchResultCache(final RyanairCacheProperties.Results properties, final SearchProperties searchProperties,
+                      final SearchPopularity searchPopularity, final SearchMetrics searchMetrics,
+                      final MeterRegistry meterRegistry, final Ticker ticker) {
+        this.properties = properties;
+        this.searchProperties = searchProperties;
+        this.searchPopularity = searchPopularity;
+        this.searchMetrics = searchMetrics;
+        this.results = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumWeight())
+            .weigher((Key key, Results found) -> found.bytes)
+            .expireAfterWrite(properties.getTtl())
+            .ticker(ticker)
+            .recordStats()
+            .build(), CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Duration getMaxAge() {
+        return properties.getMaxAge();
+    }
+
+    /**
+     * A hit is still counted as a search of its route months, so the warm up keeps seeing the demand.
+     */
+    public Either<BookFlightServiceException, byte[]> page(
+        final BookFlightRequest request,
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> search) {
+
+        final SearchWindow window = SearchWindow.of(request, searchProperties.getMaxWindowDays());
+        final Key key = Key.of(request, window, searchProperties.getMaxStops());
+
+        final Results cached = results.getIfPresent(key);
+        if (Objects.nonNull(cached)) {
+            searchPopularity.record(request.getDeparture(), request.getArrival(), window.getMonths());
+            return searchMetrics.time(Stage.MAPPING, () -> cached.page(request, window));
+        }
+
+        return search.apply(key.toRequest())
+            .flatMap(flights -> searchMetrics.time(Stage.MAPPING, () -> {
+                final Results searched = serialize(flights);
+                if (!searched.stale) {
+                    results.put(key, searched);
+                }
+                return searched.page(request, window);
+            }));
+    }
+
+    private Results serialize(final List<Flight> flights) {
+        return new Results(flights.stream()
+            .map(flight -> new CachedFlight(flight.getDepartureEpochMinute(), flight.getArrivalEpochMinute(),
+                FlightJsonWriter.flight(flight)))
+            .collect(Collectors.toList()),
+            flights.stream().anyMatch(Flight::isStale));
+    }
+
+    /**
+     * A search normalized to whole days. Journeys with several stops are only the Pareto optimal ones of their
+     * window, so those searches keep their exact window.
+     */
+    @Value
+    private static class Key {
+
+        String departure;
+        String arrival;
+        LocalDateTime departAfter;
+        LocalDateTime arriveBefore;
+        int maxStops;
+        FlightSort sort;
+
+        private static Key of(final BookFlightRequest request, final SearchWindow window, final int maxStops) {
+            final int stops = Math.min(Objects.isNull(request.getMaxStops()) ? 1 : request.getMaxStops(), maxStops);
+            final LocalDateTime endOfLastDay = window.getLastDay().atTime(LocalTime.MAX);
+            if (stops > 1) {
+                final LocalDateTime arrival = request.getArrivalDateTime();
+                return new Key(request.getDeparture(), request.getArrival(), request.getDepartureDateTime(),
+                    arrival.isAfter(endOfLastDay) ? endOfLastDay : arrival, stops, ItineraryRanking.sortOf(request));
+            }
+            return new Key(request.getDeparture(), request.getArrival(), window.getFirstDay().atStartOfDay(),
+                endOfLastDay, stops, ItineraryRanking.sortOf(request));
+        }
+
+        private BookFlightRequest toRequest() {
+            return BookFlightRequest.builder()
+                .departure(departure)
+                .arrival(arrival)
+                .departureDateTime(departAfter)
+                .arrivalDateTime(arriveBefore)
+                .maxStops(maxStops)
+                .sort(sort)
+                .build();
+        }
+    }
+
+    private static final class Results {
+
+        private final List<CachedFlight> flights;
+        private final boolean stale;
+        private final int bytes;
+
+        private Results(final List<CachedFlight> flights, final boolean stale) {
+            this.flights = flights;
+            this.stale = stale;
+            this.bytes = Math.max(1, flights.stream().mapToInt(flight -> flight.json.length).sum());
+        }
+
+        private Either<BookFlightServiceException, byte[]> page(final BookFlightRequest request,
+                                                                final SearchWindow window) {
+
+            final int offset = Objects.isNull(request.getCursor()) ? 0 : request.getCursor();
+            final int limit = Objects.isNull(request.getLimit()) ? Integer.MAX_VALUE : request.getLimit();
+            final FlightJsonWriter body = FlightJsonWriter.body(Math.min(bytes, 64 * 1024));
+
+            int inside = 0;
+            int written = 0;
+            for (CachedFlight flight : flights) {
+                if (written == limit) {
+                    break;
+                }
+                if (!window.departsInside(flight.departure) || !window.arrivesInside(flight.arrival)) {
+                    continue;
+                }
+                if (inside++ < offset) {
+                    continue;
+                }
+                written++;
+                body.add(flight.json);
+            }
+
+            if (inside == 0) {
+                return Either.left(BookFlightServiceException.noFlightsAvailable(request.getDeparture(),
+                    request.getArrival()));
+            }
+            return Either.right(body.end(written == limit ? offset + limit : null));
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class CachedFlight {
+
+        private final int departure;
+        private final int arrival;
+        private final byte[] json;
+    }
+}
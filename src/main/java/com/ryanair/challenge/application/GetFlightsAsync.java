@@ -0,0 +1,25 @@
+package com.ryanair.challenge.application;
+
+import com.ryanair.challenge.domain.BookFlightService;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import io.vavr.control.Either;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+@AllArgsConstructor
+public class GetFlightsAsync implements Function<BookFlightRequest, CompletableFuture<Either<BookFlightServiceException, List<Flight>>>> {
+
+    private final BookFlightService bookFlightService;
+
+    @Override
+    public CompletableFuture<Either<BookFlightServiceException, List<Flight>>> apply(BookFlightRequest bookFlightRequest) {
+        return bookFlightService.getFlightsAsync(bookFlightRequest);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ryanair.challenge.application;
+
+import com.ryanair.challenge.domain.BookFlightService;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import io.vavr.control.Either;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+@Component
+@AllArgsConstructor
+public class StreamFlights implements BiFunction<BookFlightRequest, Consumer<Flight>, CompletableFuture<Either<BookFlightServiceException, Integer>>> {
+
+    private final BookFlightService bookFlightService;
+
+    @Override
+    public CompletableFuture<Either<BookFlightServiceException, Integer>> apply(BookFlightRequest bookFlightRequest,
+                                                                              Consumer<Flight> sink) {
+        return bookFlightService.streamFlights(bookFlightRequest, sink);
+    }
+}
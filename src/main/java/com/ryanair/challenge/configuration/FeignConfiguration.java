@@ -1,15 +1,92 @@
 package com.ryanair.challenge.configuration;
 
+import com.ryanair.challenge.infrastructure.client.decoder.RyanairJsonReader;
+import com.ryanair.challenge.infrastructure.client.decoder.RyanairStreamingDecoder;
+import com.ryanair.challenge.infrastructure.client.transport.CompressionInterceptor;
+import feign.Client;
 import feign.Contract;
+import feign.Request;
+import feign.codec.Decoder;
+import feign.okhttp.OkHttpClient;
+import feign.optionals.OptionalDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
+@EnableConfigurationProperties(TransportProperties.class)
 public class FeignConfiguration {
 
+    private static final String POOL_METRICS = "http.client.pool";
+    private static final String REQUEST_METRICS = "http.client.requests";
+    private static final Tags TRANSPORT_TAGS = Tags.of("client", "ryanair");
+
     @Bean
     public Contract feignContract() {
         return new Contract.Default();
     }
 
+    @Bean
+    public Decoder feignDecoder(final ObjectFactory<HttpMessageConverters> messageConverters,
+                                final RyanairJsonReader ryanairJsonReader) {
+        return new RyanairStreamingDecoder(ryanairJsonReader,
+            new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters))));
+    }
+
+    @Bean
+    public ConnectionPool ryanairConnectionPool(final TransportProperties transportProperties,
+                                                final MeterRegistry meterRegistry) {
+        final ConnectionPool connectionPool = new ConnectionPool(transportProperties.getMaxIdleConnections(),
+            transportProperties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(connectionPool, POOL_METRICS, TRANSPORT_TAGS,
+            transportProperties.getMaxIdleConnections()).bindTo(meterRegistry);
+        return connectionPool;
+    }
+
+    @Bean
+    public okhttp3.OkHttpClient ryanairOkHttpClient(final ConnectionPool ryanairConnectionPool,
+                                                    final TransportProperties transportProperties,
+                                                    final MeterRegistry meterRegistry) {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(transportProperties.getMaxAsyncRequests());
+        dispatcher.setMaxRequestsPerHost(transportProperties.getMaxAsyncRequests());
+        return new okhttp3.OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(ryanairConnectionPool)
+            .protocols(transportProperties.isHttp2() ?
+                List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+            .connectTimeout(transportProperties.getConnectTimeout())
+            .readTimeout(transportProperties.getReadTimeout())
+            .addInterceptor(new CompressionInterceptor())
+            .eventListener(OkHttpMetricsEventListener.builder(meterRegistry, REQUEST_METRICS)
+                .tags(TRANSPORT_TAGS)
+                .build())
+            .build();
+    }
+
+    @Bean
+    public Client feignClient(final okhttp3.OkHttpClient ryanairOkHttpClient) {
+        return new OkHttpClient(ryanairOkHttpClient);
+    }
+
+    // same timeouts as the OkHttp client, otherwise Feign derives a new client for every request
+    @Bean
+    public Request.Options feignOptions(final TransportProperties transportProperties) {
+        return new Request.Options(transportProperties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+            transportProperties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS, true);
+    }
 }
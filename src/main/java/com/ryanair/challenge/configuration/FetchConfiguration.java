@@ -0,0 +1,25 @@
+package com.ryanair.challenge.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableConfigurationProperties(FetchProperties.class)
+public class FetchConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor ryanairFetchExecutor(final FetchProperties fetchProperties) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fetchProperties.getPoolSize());
+        executor.setMaxPoolSize(fetchProperties.getPoolSize());
+        executor.setQueueCapacity(fetchProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("ryanair-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+}
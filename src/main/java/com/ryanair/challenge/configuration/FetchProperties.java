@@ -0,0 +1,34 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.fetch")
+public class FetchProperties {
+
+    /**
+     * Threads shared by every search to run upstream calls.
+     */
+    private int poolSize = 32;
+    /**
+     * Calls waiting for a thread. Once it is full further calls fail right away.
+     */
+    private int queueCapacity = 256;
+    /**
+     * Upstream calls a single search may have in flight at the same time.
+     */
+    private int maxInFlightPerRequest = 8;
+    /**
+     * Upstream calls a batch of searches may have in flight at the same time.
+     */
+    private int maxInFlightPerBatch = 32;
+    /**
+     * Maximum time to wait for a single upstream call.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,55 @@
+package com.ryanair.challenge.configuration;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgeBudget;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgedUpstream;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * The hedge budget is shared so the extra load on the upstream is bounded for both clients together.
+ */
+@Configuration
+@EnableConfigurationProperties(HedgingProperties.class)
+public class HedgingConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor ryanairHedgeExecutor(final HedgingProperties hedgingProperties) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hedgingProperties.getPoolSize());
+        executor.setMaxPoolSize(hedgingProperties.getPoolSize());
+        // no queue and no caller-runs: a saturated pool skips the hedge rather than delaying it
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ryanair-hedge-");
+        return executor;
+    }
+
+    @Bean
+    public HedgeBudget hedgeBudget(final HedgingProperties hedgingProperties) {
+        return new HedgeBudget(hedgingProperties);
+    }
+
+    @Bean
+    public HedgedUpstream<List<RouteDTO>> routesHedge(final HedgingProperties hedgingProperties,
+                                                      final HedgeBudget hedgeBudget,
+                                                      @Qualifier("ryanairHedgeExecutor") final Executor executor,
+                                                      final MeterRegistry meterRegistry) {
+        return new HedgedUpstream<>("routes", hedgingProperties, hedgeBudget, executor, meterRegistry);
+    }
+
+    @Bean
+    public HedgedUpstream<ScheduleDTO> schedulesHedge(final HedgingProperties hedgingProperties,
+                                                      final HedgeBudget hedgeBudget,
+                                                      @Qualifier("ryanairHedgeExecutor") final Executor executor,
+                                                      final MeterRegistry meterRegistry) {
+        return new HedgedUpstream<>("schedules", hedgingProperties, hedgeBudget, executor, meterRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.hedging")
+public class HedgingProperties {
+
+    /**
+     * Whether a second identical call is sent when the first one is slow.
+     */
+    private boolean enabled = false;
+    /**
+     * Percentile of the recent response times of a client after which the second call is sent.
+     */
+    private int percentile = 95;
+    /**
+     * Responses the percentile is computed over.
+     */
+    private int windowSize = 500;
+    /**
+     * Responses to observe before the percentile replaces the initial delay.
+     */
+    private int minSamples = 50;
+    /**
+     * Delay used until enough responses have been observed.
+     */
+    private Duration initialDelay = Duration.ofMillis(200);
+    /**
+     * Lower bound for the delay, so a fast upstream is not hedged on noise.
+     */
+    private Duration minDelay = Duration.ofMillis(20);
+    /**
+     * Extra calls allowed, as a percentage of the calls made by every client together.
+     */
+    private int budgetPercent = 5;
+    /**
+     * Hedges that may be sent back to back when the budget has been saved up.
+     */
+    private int budgetBurst = 10;
+    /**
+     * Threads running the blocking calls, so the caller can take whichever answers first.
+     */
+    private int poolSize = 64;
+}
@@ -0,0 +1,46 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.resilience")
+public class ResilienceProperties {
+
+    /**
+     * Percentage of failed calls among the recorded ones that opens the circuit.
+     */
+    private int failureRateThreshold = 50;
+    /**
+     * Number of most recent calls the failure rate is computed over.
+     */
+    private int slidingWindowSize = 20;
+    /**
+     * Calls to record before the failure rate is taken into account.
+     */
+    private int minimumNumberOfCalls = 10;
+    /**
+     * Time the circuit stays open before probe calls are let through.
+     */
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+    /**
+     * Probe calls let through while the circuit is half open.
+     */
+    private int permittedCallsInHalfOpenState = 3;
+    /**
+     * Upstream calls each client may have in flight at the same time.
+     */
+    private int maxConcurrentCalls = 32;
+    /**
+     * Time a blocking call waits for a free slot before falling back.
+     */
+    private Duration maxWaitDuration = Duration.ofMillis(500);
+    /**
+     * Last good responses each client keeps to fall back to.
+     */
+    private int lastKnownGoodSize = 5000;
+}
@@ -0,0 +1,28 @@
+package com.ryanair.challenge.configuration;
+
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableScheduling
+@AllArgsConstructor
+@EnableConfigurationProperties(RouteNetworkProperties.class)
+public class RouteNetworkConfiguration implements SchedulingConfigurer {
+
+    private final RouteNetwork routeNetwork;
+    private final RouteNetworkProperties routeNetworkProperties;
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (routeNetworkProperties.isEnabled()) {
+            taskRegistrar.addFixedDelayTask(new IntervalTask(routeNetwork::refresh,
+                routeNetworkProperties.getRefreshInterval().toMillis(), 0));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.network")
+public class RouteNetworkProperties {
+
+    /**
+     * Whether the route graph is loaded at startup and kept refreshed.
+     */
+    private boolean enabled = true;
+    /**
+     * Delay between the end of a graph load and the start of the next one.
+     */
+    private Duration refreshInterval = Duration.ofHours(6);
+}
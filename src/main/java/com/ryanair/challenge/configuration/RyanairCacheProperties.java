@@ -0,0 +1,75 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.cache")
+public class RyanairCacheProperties {
+
+    private Routes routes = new Routes();
+    private Schedules schedules = new Schedules();
+    private Results results = new Results();
+
+    @Getter
+    @Setter
+    public static class Routes {
+
+        /**
+         * Origin airports kept in memory.
+         */
+        private long maximumSize = 1000;
+        /**
+         * Age after which a route list is refreshed in the background while the cached one is still served.
+         */
+        private Duration refreshAfter = Duration.ofHours(1);
+        /**
+         * Age after which a route list is dropped and must be fetched again before answering.
+         */
+        private Duration ttl = Duration.ofHours(24);
+    }
+
+    @Getter
+    @Setter
+    public static class Schedules {
+
+        /**
+         * Total number of flights kept in memory across all cached month timetables.
+         */
+        private long maximumWeight = 500_000;
+        /**
+         * Time to live of the current month; each month further ahead adds the same amount again.
+         */
+        private Duration baseTtl = Duration.ofMinutes(15);
+        /**
+         * Upper bound for the time to live of months far in the future.
+         */
+        private Duration maxTtl = Duration.ofHours(6);
+    }
+
+    @Getter
+    @Setter
+    public static class Results {
+
+        /**
+         * Whether the flights of recent searches are kept to answer searches of the same days.
+         */
+        private boolean enabled = true;
+        /**
+         * Total bytes of serialized flights kept in memory across all cached searches.
+         */
+        private long maximumWeight = 64L * 1024 * 1024;
+        /**
+         * Age after which the flights of a search are dropped and searched again.
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+        /**
+         * How long clients may reuse a response without asking again, sent as {@code Cache-Control} max-age.
+         */
+        private Duration maxAge = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ryanair.challenge.configuration;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgedUpstream;
+import com.ryanair.challenge.infrastructure.client.resilience.ResilientUpstream;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.CoalescingRyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.HedgedRyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.ResilientRyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.CoalescingRyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.HedgedRyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.ResilientRyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import com.ryanair.challenge.infrastructure.timetable.SnapshotStore;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableConfigurationProperties({RyanairCacheProperties.class, ResilienceProperties.class})
+public class RyanairClientConfiguration {
+
+    @Bean
+    @Primary
+    public RyanairRouteClient ryanairRouteClient(@Qualifier("ryanairRouteFeignClient") final RyanairRouteClient feignClient,
+                                                 final ResilientUpstream<String, List<RouteDTO>> routesUpstream,
+                                                 final HedgedUpstream<List<RouteDTO>> routesHedge,
+                                                 final MeterRegistry meterRegistry) {
+        return new CoalescingRyanairRouteClient(new ResilientRyanairRouteClient(
+            new HedgedRyanairRouteClient(feignClient, routesHedge), routesUpstream), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public RyanairScheduleClient ryanairScheduleClient(@Qualifier("ryanairScheduleFeignClient") final RyanairScheduleClient feignClient,
+                                                       final ResilientUpstream<ScheduleKey, ScheduleDTO> schedulesUpstream,
+                                                       final HedgedUpstream<ScheduleDTO> schedulesHedge,
+                                                       final MeterRegistry meterRegistry) {
+        return new CoalescingRyanairScheduleClient(new ResilientRyanairScheduleClient(
+            new HedgedRyanairScheduleClient(feignClient, schedulesHedge), schedulesUpstream), meterRegistry);
+    }
+
+    @Bean
+    public ResilientUpstream<String, List<RouteDTO>> routesUpstream(final ResilienceProperties resilienceProperties,
+                                                                    final MeterRegistry meterRegistry) {
+        return new ResilientUpstream<>("routes", resilienceProperties,
+            routes -> routes.stream()
+                .map(route -> route.toBuilder().stale(true).build())
+                .collect(Collectors.toList()),
+            meterRegistry);
+    }
+
+    @Bean
+    public ResilientUpstream<ScheduleKey, ScheduleDTO> schedulesUpstream(final ResilienceProperties resilienceProperties,
+                                                                         final MeterRegistry meterRegistry) {
+        return new ResilientUpstream<>("schedules", resilienceProperties,
+            schedule -> schedule.toBuilder().stale(true).build(), meterRegistry);
+    }
+
+    @Bean
+    public RouteRepository routeRepository(final RyanairRouteClient ryanairRouteClient,
+                                           final RyanairAsyncClient ryanairAsyncClient,
+                                           final RyanairCacheProperties cacheProperties,
+                                           @Qualifier("ryanairFetchExecutor") final Executor executor,
+                                           final MeterRegistry meterRegistry) {
+        return new RouteRepository(ryanairRouteClient, ryanairAsyncClient, cacheProperties.getRoutes(), executor,
+            meterRegistry);
+    }
+
+    @Bean
+    public TimetableRepository timetableRepository(final RyanairScheduleClient ryanairScheduleClient,
+                                                   final RyanairAsyncClient ryanairAsyncClient,
+                                                   final RyanairCacheProperties cacheProperties,
+                                                   @Qualifier("ryanairFetchExecutor") final Executor executor,
+                                                   final MeterRegistry meterRegistry) {
+        return new TimetableRepository(ryanairScheduleClient, ryanairAsyncClient, cacheProperties.getSchedules(),
+            executor, meterRegistry);
+    }
+
+    @Bean(initMethod = "restore", destroyMethod = "save")
+    public SnapshotStore snapshotStore(final SnapshotProperties snapshotProperties,
+                                       final RouteNetworkProperties routeNetworkProperties,
+                                       final RouteNetwork routeNetwork,
+                                       final TimetableRepository timetableRepository,
+                                       final SearchPopularity searchPopularity,
+                                       @Qualifier("ryanairFetchExecutor") final Executor executor) {
+        return new SnapshotStore(snapshotProperties, routeNetworkProperties, routeNetwork, timetableRepository,
+            searchPopularity, executor);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.ryanair.challenge.configuration;
+
+import com.ryanair.challenge.api.rest.response.SearchResultCache;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlanner;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
+import com.ryanair.challenge.infrastructure.warmup.CacheWarmer;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({SearchProperties.class, WarmupProperties.class})
+public class SearchConfiguration {
+
+    @Bean
+    public SearchPopularity searchPopularity(final WarmupProperties warmupProperties) {
+        return new SearchPopularity(warmupProperties);
+    }
+
+    @Bean
+    public CacheWarmer cacheWarmer(final WarmupProperties warmupProperties, final SearchPopularity searchPopularity,
+                                   final RouteNetwork routeNetwork, final RouteRepository routeRepository,
+                                   final FetchPlanner fetchPlanner, final TimetableRepository timetableRepository) {
+        return new CacheWarmer(warmupProperties, searchPopularity, routeNetwork, routeRepository, fetchPlanner,
+            timetableRepository);
+    }
+
+    @Bean
+    public SearchResultCache searchResultCache(final RyanairCacheProperties cacheProperties,
+                                               final SearchProperties searchProperties,
+                                               final SearchPopularity searchPopularity,
+                                               final SearchMetrics searchMetrics,
+                                               final MeterRegistry meterRegistry) {
+        return new SearchResultCache(cacheProperties.getResults(), searchProperties, searchPopularity, searchMetrics,
+            meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.search")
+public class SearchProperties {
+
+    /**
+     * Minimum time between landing at a connecting airport and taking the next flight from it.
+     */
+    private Duration minConnectionTime = Duration.ofHours(2);
+    /**
+     * Longest wait at a connecting airport.
+     */
+    private Duration maxConnectionTime = Duration.ofHours(24);
+    /**
+     * Most days of the requested window that are searched, counted from the day of the departure time.
+     */
+    private int maxWindowDays = 7;
+    /**
+     * Upper bound for the number of stops a request may ask for.
+     */
+    private int maxStops = 2;
+    /**
+     * Largest number of searches accepted in one batch request.
+     */
+    private int maxBatchSize = 100;
+
+    public int getMinConnectionMinutes() {
+        return (int) minConnectionTime.toMinutes();
+    }
+
+    public int getMaxConnectionMinutes() {
+        return (int) maxConnectionTime.toMinutes();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ryanair.challenge.configuration;
+
+import com.ryanair.challenge.infrastructure.timetable.SnapshotStore;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableScheduling
+@AllArgsConstructor
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfiguration implements SchedulingConfigurer {
+
+    private final SnapshotStore snapshotStore;
+    private final SnapshotProperties snapshotProperties;
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (snapshotProperties.isEnabled()) {
+            final long interval = snapshotProperties.getInterval().toMillis();
+            taskRegistrar.addFixedDelayTask(new IntervalTask(snapshotStore::save, interval, interval));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Whether routes and schedules are written to disk while running and read back on the next startup.
+     */
+    private boolean enabled = true;
+    /**
+     * File the snapshot is kept in.
+     */
+    private Path path = Path.of("snapshot", "ryanair.snapshot");
+    /**
+     * Delay between the end of one snapshot write and the start of the next one.
+     */
+    private Duration interval = Duration.ofMinutes(10);
+    /**
+     * Snapshots older than this are ignored at startup and the service starts cold.
+     */
+    private Duration maxAge = Duration.ofHours(24);
+}
@@ -0,0 +1,38 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.transport")
+public class TransportProperties {
+
+    /**
+     * Idle connections kept open for reuse, per pool.
+     */
+    private int maxIdleConnections = 32;
+    /**
+     * Time an idle connection is kept open before it is closed.
+     */
+    private Duration keepAlive = Duration.ofMinutes(5);
+    /**
+     * Maximum time to establish a connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Maximum time between two reads of a response.
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+    /**
+     * Whether HTTP/2 is offered when connecting.
+     */
+    private boolean http2 = true;
+    /**
+     * Non-blocking calls in flight at once.
+     */
+    private int maxAsyncRequests = 64;
+}
@@ -0,0 +1,33 @@
+package com.ryanair.challenge.configuration;
+
+import com.ryanair.challenge.infrastructure.warmup.CacheWarmer;
+import com.ryanair.challenge.infrastructure.warmup.WarmupHealthIndicator;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableScheduling
+@AllArgsConstructor
+public class WarmupConfiguration implements SchedulingConfigurer {
+
+    private final CacheWarmer cacheWarmer;
+    private final WarmupProperties warmupProperties;
+
+    @Bean
+    public WarmupHealthIndicator warmupHealthIndicator() {
+        return new WarmupHealthIndicator(cacheWarmer);
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (warmupProperties.isEnabled()) {
+            taskRegistrar.addFixedDelayTask(new IntervalTask(cacheWarmer::warm,
+                warmupProperties.getInterval().toMillis(), 0));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ryanair.challenge.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "provider.ryanair.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether the schedules of popular searches are fetched ahead of the searches.
+     */
+    private boolean enabled = true;
+    /**
+     * Delay between the end of one warm up run and the start of the next one.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+    /**
+     * Time after which the weight of a search in the popularity of its route and month has halved.
+     */
+    private Duration halfLife = Duration.ofHours(1);
+    /**
+     * Most popular route months kept warm.
+     */
+    private int hotSetSize = 300;
+    /**
+     * Decayed number of searches a route month needs before it is kept warm.
+     */
+    private double minScore = 2;
+    /**
+     * Route months whose popularity is tracked.
+     */
+    private int maxTracked = 10_000;
+    /**
+     * Upstream calls a single warm up run may make.
+     */
+    private int maxFetchesPerRun = 120;
+    /**
+     * Schedules expiring within this time are fetched again.
+     */
+    private Duration refreshAhead = Duration.ofMinutes(5);
+    /**
+     * Longest time readiness waits for a hot set after a start that restored no popularity.
+     */
+    private Duration coldStartTimeout = Duration.ofMinutes(5);
+}
@@ -6,8 +6,17 @@ import com.ryanair.challenge.domain.model.BookFlightRequest;
 import io.vavr.control.Either;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface BookFlightService {
 
     Either<BookFlightServiceException, List<Flight>> getFlights(final BookFlightRequest city);
+
+    CompletableFuture<Either<BookFlightServiceException, List<Flight>>> getFlightsAsync(final BookFlightRequest city);
+
+    CompletableFuture<Either<BookFlightServiceException, Integer>> streamFlights(final BookFlightRequest city,
+                                                                        final Consumer<Flight> sink);
+
+    List<Either<BookFlightServiceException, List<Flight>>> getFlightsBatch(final List<BookFlightRequest> requests);
 }
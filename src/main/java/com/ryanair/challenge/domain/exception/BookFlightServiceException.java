@@ -3,6 +3,8 @@ package com.ryanair.challenge.domain.exception;
 
 public class BookFlightServiceException extends RuntimeException {
 
+    private static final String NO_FLIGHTS_AVAILABLE = "No flights available from %s to %s on this date";
+
     public BookFlightServiceException(String message) {
         super(message);
     }
@@ -10,4 +12,8 @@ public class BookFlightServiceException extends RuntimeException {
     public BookFlightServiceException(Throwable throwable) {
         super(throwable);
     }
+
+    public static BookFlightServiceException noFlightsAvailable(String departure, String arrival) {
+        return new BookFlightServiceException(NO_FLIGHTS_AVAILABLE.formatted(departure, arrival));
+    }
 }
\ No newline at end of file
@@ -16,4 +16,8 @@ public class BookFlightRequest {
     private String arrival;
     private LocalDateTime departureDateTime;
     private LocalDateTime arrivalDateTime;
+    private Integer maxStops;
+    private FlightSort sort;
+    private Integer limit;
+    private Integer cursor;
 }
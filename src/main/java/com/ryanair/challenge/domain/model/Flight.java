@@ -13,4 +13,7 @@ public class Flight {
 
     private int stops;
     private List<Leg> legs;
+    private boolean stale;
+    private int departureEpochMinute;
+    private int arrivalEpochMinute;
 }
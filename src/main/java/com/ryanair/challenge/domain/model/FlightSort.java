@@ -0,0 +1,12 @@
+package com.ryanair.challenge.domain.model;
+
+/**
+ * Orders a search can rank its itineraries by. Ties are broken by departure and then by arrival.
+ */
+public enum FlightSort {
+
+    DEPARTURE,
+    ARRIVAL,
+    DURATION,
+    STOPS
+}
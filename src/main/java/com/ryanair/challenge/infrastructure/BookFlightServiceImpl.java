@@ -1,119 +1,392 @@
 package com.ryanair.challenge.infrastructure;
 
+import com.ryanair.challenge.configuration.SearchProperties;
 import com.ryanair.challenge.domain.BookFlightService;
 import com.ryanair.challenge.domain.exception.BookFlightServiceException;
 import com.ryanair.challenge.domain.model.BookFlightRequest;
 import com.ryanair.challenge.domain.model.Flight;
-import com.ryanair.challenge.domain.model.Leg;
-import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
-import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
 import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
-import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
-import com.ryanair.challenge.infrastructure.client.mapper.FlightClientMapper;
-import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
-import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics.Stage;
+import com.ryanair.challenge.infrastructure.network.RouteGraph;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.ConnectionBuilder;
+import com.ryanair.challenge.infrastructure.timetable.ConnectionScan;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlan;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlanner;
+import com.ryanair.challenge.infrastructure.timetable.ItineraryRanking;
+import com.ryanair.challenge.infrastructure.timetable.MonthTimetable;
+import com.ryanair.challenge.infrastructure.timetable.ParallelFetcher;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import com.ryanair.challenge.infrastructure.timetable.SearchWindow;
+import com.ryanair.challenge.infrastructure.timetable.Timetable;
+import com.ryanair.challenge.infrastructure.timetable.TimetableFetcher;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
 import io.vavr.control.Either;
 import io.vavr.control.Try;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Component
 @AllArgsConstructor
 public class BookFlightServiceImpl implements BookFlightService {
 
-    private static final String COLON = ":";
     private static final String RYANAIR = "RYANAIR";
     private static final String ROUTE_NOT_FOUND = "Route not found";
-    private static final String NO_FLIGHTS_AVAILABLE = "No flights available from %s to %s on this date";
 
-    private final RyanairRouteClient ryanairRouteClient;
-    private final RyanairScheduleClient ryanairScheduleClient;
+    private final RouteNetwork routeNetwork;
+    private final RouteRepository routeRepository;
+    private final FetchPlanner fetchPlanner;
+    private final TimetableFetcher timetableFetcher;
+    private final ParallelFetcher parallelFetcher;
+    private final ConnectionBuilder connectionBuilder;
+    private final ConnectionScan connectionScan;
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+    private final SearchPopularity searchPopularity;
 
     @Override
     public Either<BookFlightServiceException, List<Flight>> getFlights(final BookFlightRequest request) {
 
-        final List<RouteDTO> routes = getAvailableRoutesWithFilter(request);
+        final AtomicInteger upstreamCalls = new AtomicInteger();
+        final List<RouteDTO> routes = searchMetrics.time(Stage.ROUTES, () -> routes(request, upstreamCalls));
 
-        if (notRoutesAvailable(routes)) {
+        final Either<BookFlightServiceException, List<Flight>> flights = plan(request, routes)
+            .flatMap(search -> {
+                final Timetable timetable = searchMetrics.time(Stage.SCHEDULES,
+                    () -> timetableFetcher.fetch(search.getPlan()));
+                upstreamCalls.addAndGet(recordScheduleCalls(search, timetable.getExecutedCalls()));
+                return connect(search, timetable);
+            });
+
+        return recorded(upstreamCalls.get(), flights, List::size);
+    }
+
+    @Override
+    public CompletableFuture<Either<BookFlightServiceException, List<Flight>>> getFlightsAsync(final BookFlightRequest request) {
+
+        final AtomicInteger upstreamCalls = new AtomicInteger();
+        return routesAsync(request, upstreamCalls)
+            .thenCompose(routes -> plan(request, routes).fold(
+                notFound -> CompletableFuture.<Either<BookFlightServiceException, List<Flight>>>completedFuture(
+                    Either.left(notFound)),
+                search -> searchMetrics.timeAsync(Stage.SCHEDULES, () -> timetableFetcher.fetchAsync(search.getPlan()))
+                    .thenApply(timetable -> {
+                        upstreamCalls.addAndGet(recordScheduleCalls(search, timetable.getExecutedCalls()));
+                        return connect(search, timetable);
+                    })))
+            .thenApply(flights -> recorded(upstreamCalls.get(), flights, List::size));
+    }
+
+    @Override
+    public CompletableFuture<Either<BookFlightServiceException, Integer>> streamFlights(final BookFlightRequest request,
+                                                                                     final Consumer<Flight> sink) {
+
+        final AtomicInteger upstreamCalls = new AtomicInteger();
+        return routesAsync(request, upstreamCalls)
+            .thenCompose(routes -> plan(request, routes).fold(
+                notFound -> CompletableFuture.<Either<BookFlightServiceException, Integer>>completedFuture(
+                    Either.left(notFound)),
+                search -> streamFlights(search, sink, upstreamCalls)))
+            .thenApply(streamed -> recorded(upstreamCalls.get(), streamed, Integer::intValue));
+    }
+
+    @Override
+    public List<Either<BookFlightServiceException, List<Flight>>> getFlightsBatch(final List<BookFlightRequest> requests) {
+
+        final Set<String> departuresOutsideTheGraph = requests.stream()
+            .map(BookFlightRequest::getDeparture)
+            .filter(departure -> !routeNetwork.getGraph().contains(departure))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        final Set<String> uncachedDepartures = departuresOutsideTheGraph.stream()
+            .filter(departure -> !routeRepository.isCached(departure))
+            .collect(Collectors.toCollection(HashSet::new));
+        final Map<String, Try<List<RouteDTO>>> routeLists = searchMetrics.time(Stage.ROUTES,
+            () -> parallelFetcher.fetchEach(departuresOutsideTheGraph, routeRepository::get));
+
+        final List<Try<Either<BookFlightServiceException, PlannedSearch>>> searches = requests.stream()
+            .map(request -> Try.of(() -> plan(request, routeNetwork
+                .routesBetween(request.getDeparture(), request.getArrival())
+                .orElseGet(() -> filterRoutes(request, routeLists.get(request.getDeparture()).get())))))
+            .collect(Collectors.toList());
+
+        final List<FetchPlan> plans = searches.stream()
+            .flatMap(search -> search.toJavaStream().flatMap(Either::toJavaStream))
+            .map(PlannedSearch::getPlan)
+            .collect(Collectors.toList());
+        final Set<ScheduleKey> keys = plans.stream()
+            .flatMap(plan -> plan.getKeys().stream())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        final Set<ScheduleKey> uncachedKeys = timetableFetcher.uncached(keys);
+        final Map<ScheduleKey, Try<MonthTimetable>> timetables = searchMetrics.time(Stage.SCHEDULES,
+            () -> timetableFetcher.fetchEach(keys));
+
+        final int plannedCalls = plans.stream().mapToInt(FetchPlan::getPlannedCalls).sum();
+        searchMetrics.recordScheduleCalls(plannedCalls, uncachedKeys.size());
+        log.debug("Fetched schedules for a batch of %d searches : planned calls : %d, executed calls : %d"
+            .formatted(requests.size(), plannedCalls, uncachedKeys.size()));
+
+        final Map<Integer, Try<Either<BookFlightServiceException, List<Flight>>>> results = parallelFetcher.fetchEach(
+            IntStream.range(0, requests.size()).boxed().collect(Collectors.toList()),
+            item -> searches.get(item).get()
+                .flatMap(search -> connect(search, timetableFetcher.timetableFor(search.getPlan(), timetables))));
+
+        return IntStream.range(0, requests.size())
+            .mapToObj(item -> recorded(
+                takeUpstreamCalls(requests.get(item), searches.get(item), uncachedDepartures, uncachedKeys),
+                results.get(item).getOrElseGet(this::failedSearch), List::size))
+            .collect(Collectors.toList());
+    }
+
+    private int takeUpstreamCalls(final BookFlightRequest request,
+                                  final Try<Either<BookFlightServiceException, PlannedSearch>> search,
+                                  final Set<String> departuresLeft, final Set<ScheduleKey> keysLeft) {
+        return (departuresLeft.remove(request.getDeparture()) ? 1 : 0) + (int) search.toJavaStream()
+            .flatMap(Either::toJavaStream)
+            .flatMap(planned -> planned.getPlan().getKeys().stream())
+            .filter(keysLeft::remove)
+            .count();
+    }
+
+    private List<RouteDTO> routes(final BookFlightRequest request, final AtomicInteger upstreamCalls) {
+        return routeNetwork.routesBetween(request.getDeparture(), request.getArrival())
+            .orElseGet(() -> {
+                upstreamCalls.addAndGet(routeRepository.isCached(request.getDeparture()) ? 0 : 1);
+                return filterRoutes(request, routeRepository.get(request.getDeparture()));
+            });
+    }
+
+    private CompletableFuture<List<RouteDTO>> routesAsync(final BookFlightRequest request,
+                                                          final AtomicInteger upstreamCalls) {
+        return searchMetrics.timeAsync(Stage.ROUTES, () -> routeNetwork
+            .routesBetween(request.getDeparture(), request.getArrival())
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> {
+                upstreamCalls.addAndGet(routeRepository.isCached(request.getDeparture()) ? 0 : 1);
+                return routeRepository.getAsync(request.getDeparture())
+                    .thenApply(allRoutes -> filterRoutes(request, allRoutes));
+            }));
+    }
+
+    private Either<BookFlightServiceException, PlannedSearch> plan(final BookFlightRequest request,
+                                                                   final List<RouteDTO> routes) {
+        return searchMetrics.time(Stage.PLAN, () -> planSearch(request, routes));
+    }
+
+    private Either<BookFlightServiceException, List<Flight>> connect(final PlannedSearch search,
+                                                                     final Timetable timetable) {
+        return searchMetrics.time(Stage.CONNECTIONS, () -> buildFlights(search, timetable));
+    }
+
+    private <T> Either<BookFlightServiceException, T> recorded(final int upstreamCalls,
+                                                               final Either<BookFlightServiceException, T> result,
+                                                               final ToIntFunction<T> flights) {
+        searchMetrics.recordSearch(upstreamCalls, result.fold(notFound -> 0, flights::applyAsInt));
+        return result;
+    }
+
+    private CompletableFuture<Either<BookFlightServiceException, Integer>> streamFlights(
+        final PlannedSearch search, final Consumer<Flight> sink, final AtomicInteger upstreamCalls) {
+
+        final BookFlightRequest request = search.getRequest();
+        final SearchWindow window = search.getWindow();
+        upstreamCalls.addAndGet(recordScheduleCalls(search,
+            timetableFetcher.countUncached(search.getPlan().getKeys())));
+        final Map<ScheduleKey, CompletableFuture<MonthTimetable>> fetches = timetableFetcher.startAsync(search.getPlan());
+        final CompletableFuture<Timetable> allFetched = searchMetrics.timeAsync(Stage.SCHEDULES,
+            () -> timetableFetcher.collect(fetches));
+        final AtomicLong connecting = new AtomicLong();
+        final AtomicInteger streamed = new AtomicInteger();
+        final Consumer<List<Flight>> stream = flights -> {
+            flights.forEach(sink);
+            streamed.addAndGet(flights.size());
+        };
+
+        CompletableFuture<Void> streaming = CompletableFuture.completedFuture(null);
+        if (Objects.nonNull(getDirectRoutes(search.getRoutes()))) {
+            streaming = streaming.thenCombine(
+                fetched(fetches, window, request.getDeparture(), request.getArrival())
+                    .thenApply(timetable -> timed(connecting,
+                        () -> getDirectValidFlights(request, window, timetable))),
+                (previous, flights) -> flights).thenAccept(stream);
+        }
+        for (RouteDTO route : getRoutesWithStop(search.getRoutes())) {
+            streaming = streaming.thenCombine(
+                fetched(fetches, window, route.getAirportFrom(), route.getConnectingAirport(), route.getAirportTo())
+                    .thenApply(timetable -> timed(connecting, () -> connectionBuilder.connect(timetable,
+                        route.getAirportFrom(), route.getConnectingAirport(), route.getAirportTo(), window))),
+                (previous, flights) -> flights).thenAccept(stream);
+        }
+        if (search.isMultiStop()) {
+            streaming = streaming.thenCombine(allFetched
+                    .thenApply(timetable -> timed(connecting, () -> flightsWithSeveralStops(search, timetable))),
+                (previous, flights) -> flights).thenAccept(stream);
+        }
+
+        return streaming.thenApply(done -> {
+            searchMetrics.record(Stage.CONNECTIONS, connecting.get());
+            return streamed.get() > 0 ?
+                Either.right(streamed.get()) :
+                Either.left(noFlightsAvailable(request));
+        });
+    }
+
+    private <T> T timed(final AtomicLong nanos, final Supplier<T> work) {
+        final long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            nanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private CompletableFuture<Timetable> fetched(final Map<ScheduleKey, CompletableFuture<MonthTimetable>> fetches,
+                                                 final SearchWindow window, final String... airports) {
+
+        final Map<ScheduleKey, CompletableFuture<MonthTimetable>> legs = new LinkedHashMap<>();
+        for (int leg = 1; leg < airports.length; leg++) {
+            for (YearMonth month : window.getMonths()) {
+                final ScheduleKey key = ScheduleKey.of(airports[leg - 1], airports[leg], month);
+                legs.put(key, fetches.getOrDefault(key, CompletableFuture.completedFuture(MonthTimetable.empty(key))));
+            }
+        }
+        return timetableFetcher.collect(legs);
+    }
+
+    private int recordScheduleCalls(final PlannedSearch search, final int executedCalls) {
+
+        final BookFlightRequest request = search.getRequest();
+        final int plannedCalls = search.getPlan().getPlannedCalls();
+
+        searchMetrics.recordScheduleCalls(plannedCalls, executedCalls);
+        log.debug("Fetched schedules from %s to %s : planned calls : %d, executed calls : %d"
+            .formatted(request.getDeparture(), request.getArrival(), plannedCalls, executedCalls));
+        return executedCalls;
+    }
+
+    private Either<BookFlightServiceException, List<Flight>> failedSearch(final Throwable cause) {
+        return Either.left(cause instanceof BookFlightServiceException ?
+            (BookFlightServiceException) cause : new BookFlightServiceException(cause));
+    }
+
+    private Either<BookFlightServiceException, PlannedSearch> planSearch(final BookFlightRequest request,
+                                                                         final List<RouteDTO> allRoutes) {
+
+        final boolean multiStop = isMultiStop(request);
+        final List<RouteDTO> routes = maxLegs(request) == 1 ? getDirectRoutesOnly(allRoutes) : allRoutes;
+
+        if (notRoutesAvailable(routes) && !multiStop) {
             return Either.left(new BookFlightServiceException(ROUTE_NOT_FOUND));
-        } else if (onlyDirectRoutes(routes)) {
-            return directFlights(request);
-        } else return directFlightsAndFlightsWithStop(request, routes);
+        }
+
+        final SearchWindow window = SearchWindow.of(request, searchProperties.getMaxWindowDays());
+        searchPopularity.record(request.getDeparture(), request.getArrival(), window.getMonths());
+        return Either.right(new PlannedSearch(request, window, routes, planFetch(request, window, routes, multiStop),
+            multiStop));
+    }
+
+    private FetchPlan planFetch(final BookFlightRequest request, final SearchWindow window,
+                                final List<RouteDTO> routes, final boolean multiStop) {
+        return multiStop ?
+            fetchPlanner.plan(request, window, routeNetwork.getGraph(), maxLegs(request)) :
+            fetchPlanner.plan(request, window, routes);
+    }
+
+    private Either<BookFlightServiceException, List<Flight>> buildFlights(final PlannedSearch search,
+                                                                          final Timetable timetable) {
+
+        final BookFlightRequest request = search.getRequest();
+        final List<RouteDTO> routes = search.getRoutes();
+
+        final ItineraryRanking ranking = ItineraryRanking.of(request);
+        if (onlyDirectRoutes(routes)) {
+            offerDirectValidFlights(request, search.getWindow(), timetable, ranking);
+        } else if (!notRoutesAvailable(routes)) {
+            offerDirectFlightsAndFlightsWithStop(request, search.getWindow(), routes, timetable, ranking);
+        }
+        if (search.isMultiStop()) {
+            flightsWithSeveralStops(search, timetable).forEach(ranking::offer);
+        }
+        return flightsOrNotAvailable(request, ranking);
+    }
+
+    private boolean isMultiStop(final BookFlightRequest request) {
+        final RouteGraph graph = routeNetwork.getGraph();
+        return maxLegs(request) > 2 && graph.contains(request.getDeparture()) && graph.contains(request.getArrival());
+    }
+
+    private int maxLegs(final BookFlightRequest request) {
+        return Objects.isNull(request.getMaxStops()) ? 2 :
+            Math.min(request.getMaxStops(), searchProperties.getMaxStops()) + 1;
+    }
+
+    private List<Flight> flightsWithSeveralStops(final PlannedSearch search, final Timetable timetable) {
+
+        final BookFlightRequest request = search.getRequest();
+        final List<MonthTimetable> routes = search.getPlan().getKeys().stream()
+            .map(timetable::get)
+            .collect(Collectors.toList());
 
+        return connectionScan.paretoJourneys(routes, request.getDeparture(), request.getArrival(),
+            search.getWindow(), maxLegs(request))
+            .stream()
+            .filter(flight -> flight.getStops() > 1)
+            .collect(Collectors.toList());
     }
 
-    private Either<BookFlightServiceException, List<Flight>> directFlightsAndFlightsWithStop(final BookFlightRequest request,
-                                                                                             final List<RouteDTO> routes) {
+    private void offerDirectFlightsAndFlightsWithStop(final BookFlightRequest request,
+                                                      final SearchWindow window,
+                                                      final List<RouteDTO> routes,
+                                                      final Timetable timetable,
+                                                      final ItineraryRanking ranking) {
 
-        List<Flight> flights = new ArrayList<>();
         final RouteDTO directRoutes = getDirectRoutes(routes);
         final List<RouteDTO> routesWithStop = getRoutesWithStop(routes);
 
         if (Objects.nonNull(directRoutes)) {
-            Either<BookFlightServiceException, List<Flight>> directFlights = directFlights(request);
-            flights.addAll(directFlights.get());
+            offerDirectValidFlights(request, window, timetable, ranking);
         }
         if (!routesWithStop.isEmpty()) {
-            Either<BookFlightServiceException, List<Flight>> flightsWithStop = flightsWithStop(request, routesWithStop);
-            flights.addAll(flightsWithStop.get());
+            offerFlightsWithStop(window, routesWithStop, timetable, ranking);
         }
-        if (flights.isEmpty()) {
-            return Either.left(new BookFlightServiceException(NO_FLIGHTS_AVAILABLE
-                .formatted(request.getDeparture(), request.getArrival())));
-        } else return Either.right(flights);
     }
 
     private RouteDTO getDirectRoutes(final List<RouteDTO> routes) {
         return routes.stream().filter(x -> Objects.isNull(x.getConnectingAirport())).findFirst().orElse(null);
     }
 
-    private Either<BookFlightServiceException, List<Flight>> flightsWithStop(final BookFlightRequest request,
-                                                                             final List<RouteDTO> routes) {
-
-        LocalDateTime date = request.getDepartureDateTime();
-        List<Flight> list = new ArrayList<>();
+    private void offerFlightsWithStop(final SearchWindow window, final List<RouteDTO> routes,
+                                      final Timetable timetable, final ItineraryRanking ranking) {
 
         for (RouteDTO route : routes) {
-            final var firstFlightToStop = getFlightsByDay(route.getAirportFrom(),
-                route.getConnectingAirport(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
-            for (FlightDTO flightDTO : firstFlightToStop) {
-                final var stopFlightToArrival = getFlightsByDay(route.getConnectingAirport(),
-                    route.getAirportTo(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
-                for (FlightDTO arrival : stopFlightToArrival) {
-                    if (stopHasTwoHours(flightDTO, arrival)) {
-                        list.add(Flight.builder().stops(1).legs(buildLegsFlight(flightDTO, arrival)).build());
-                    }
-                }
-            }
+            connectionBuilder.connect(timetable, route.getAirportFrom(), route.getConnectingAirport(),
+                route.getAirportTo(), window, ranking);
         }
-
-        return Either.right(list);
     }
 
-    private List<Leg> buildLegsFlight(final FlightDTO firstFlightToStop, final FlightDTO stopFlightToArrival) {
-        return List.of(Leg.builder().departureAirport(firstFlightToStop.getDepartureCity())
-                .arrivalAirport(firstFlightToStop.getArrivalCity())
-                .departureDateTime(firstFlightToStop.getDepartureLocalDateTime().toString())
-                .arrivalDateTime(firstFlightToStop.getArrivalLocalDateTime().toString())
-                .build(),
-            Leg.builder()
-                .departureAirport(stopFlightToArrival.getDepartureCity())
-                .arrivalAirport(stopFlightToArrival.getArrivalCity())
-                .departureDateTime(stopFlightToArrival.getDepartureLocalDateTime().toString())
-                .arrivalDateTime(stopFlightToArrival.getArrivalLocalDateTime().toString()).build());
-    }
-
-    private boolean stopHasTwoHours(final FlightDTO firstFlightToStop, final FlightDTO stopFlightToArrival) {
-        return firstFlightToStop.getArrivalLocalDateTime()
-            .plusHours(2).isBefore(stopFlightToArrival.getDepartureLocalDateTime());
+    private List<RouteDTO> getDirectRoutesOnly(final List<RouteDTO> routes) {
+        return routes.stream()
+            .filter(e -> Objects.isNull(e.getConnectingAirport()))
+            .collect(Collectors.toList());
     }
 
     private List<RouteDTO> getRoutesWithStop(final List<RouteDTO> routes) {
@@ -122,81 +395,53 @@ public class BookFlightServiceImpl implements BookFlightService {
             .collect(Collectors.toList());
     }
 
-    private Either<BookFlightServiceException, List<Flight>> directFlights(final BookFlightRequest request) {
-
-        final String departure = request.getDeparture();
-        final String arrival = request.getArrival();
-
-        final var flightsByDay = getFlightsByDay(departure, arrival, request.getDepartureDateTime().getYear(),
-            request.getDepartureDateTime().getMonthValue(), request.getDepartureDateTime().getDayOfMonth());
-
-        final var flightsWithFilter =
-            Try.of(() -> getDirectValidFlights(request, flightsByDay))
-                .toEither()
-                .mapLeft(BookFlightServiceException::new);
-
-        if (flightsWithFilter.isRight()) {
-            return flightsWithFilter;
-        } else return Either.left(new BookFlightServiceException(NO_FLIGHTS_AVAILABLE.formatted(departure, arrival)));
-
+    private Either<BookFlightServiceException, List<Flight>> flightsOrNotAvailable(final BookFlightRequest request,
+                                                                                  final ItineraryRanking ranking) {
+        if (ranking.getOffered() == 0) {
+            return Either.left(noFlightsAvailable(request));
+        } else return Either.right(ranking.page());
     }
 
-    private List<Flight> getDirectValidFlights(final BookFlightRequest bookFlightRequest, final List<FlightDTO> flights) {
-        return Optional.of(flights.stream()
-            .filter(filterByTime(bookFlightRequest))
-            .map(FlightClientMapper::toBookFlightRequest)
-            .collect(Collectors.toList()))
-            .orElse(Collections.emptyList());
+    private BookFlightServiceException noFlightsAvailable(final BookFlightRequest request) {
+        return BookFlightServiceException.noFlightsAvailable(request.getDeparture(), request.getArrival());
     }
 
-    private void completeObjectWithDatesAndIataCode(List<FlightDTO> flights, final LocalDateTime day, String departure, String arrival) {
-        if (!ObjectUtils.isEmpty(flights))
-            flights.forEach(flight -> {
-                flight.setDepartureLocalDateTime(LocalDateTime.parse(getDepartureTime(day, flight)));
-                flight.setArrivalLocalDateTime(LocalDateTime.parse(getArrivalTime(day, flight)));
-                flight.setDepartureCity(departure);
-                flight.setArrivalCity(arrival);
-            });
+    private void offerDirectValidFlights(final BookFlightRequest bookFlightRequest, final SearchWindow window,
+                                         final Timetable timetable, final ItineraryRanking ranking) {
+
+        for (LocalDate day : window.getDays()) {
+            final MonthTimetable flights = timetable.get(ScheduleKey.of(bookFlightRequest.getDeparture(),
+                bookFlightRequest.getArrival(), day));
+
+            IntStream.range(flights.firstOfDay(day.getDayOfMonth()), flights.endOfDay(day.getDayOfMonth()))
+                .filter(filterByTime(window, flights))
+                .forEach(flight -> ranking.offer(flights, flight));
+        }
     }
 
-    private List<FlightDTO> getFlightsByDay(String departure, String arrival, Integer year, Integer month, Integer day) {
+    private List<Flight> getDirectValidFlights(final BookFlightRequest bookFlightRequest, final SearchWindow window,
+                                               final Timetable timetable) {
 
-        List<FlightDTO> flights = Optional.ofNullable(ryanairScheduleClient.getSchedule(departure, arrival, year, month))
-            .map(ScheduleDTO::getDays)
-            .orElse(Collections.emptyList())
-            .stream()
-            .collect(Collectors.toMap(DayDTO::getDay, DayDTO::getFlights))
-            .get(day);
-        completeObjectWithDatesAndIataCode(flights, LocalDateTime.of(year, month, day, 0, 0), departure, arrival);
-        return flights;
+        final ItineraryRanking flights = ItineraryRanking.inOfferedOrder();
+        offerDirectValidFlights(bookFlightRequest, window, timetable, flights);
+        return flights.page();
     }
 
-    private List<RouteDTO> getAvailableRoutesWithFilter(BookFlightRequest request) {
+    private List<RouteDTO> filterRoutes(final BookFlightRequest request, final List<RouteDTO> routes) {
 
-        return Optional.of(ryanairRouteClient.getRoutes(request.getDeparture())
+        return Optional.ofNullable(routes).orElse(Collections.emptyList())
             .stream().filter(filterRyanairResults(request))
-            .collect(Collectors.toList()))
-            .orElse(Collections.emptyList());
+            .collect(Collectors.toList());
     }
 
     private Predicate<RouteDTO> filterRyanairResults(BookFlightRequest request) {
         return x -> RYANAIR.equals(x.getOperator()) && request.getArrival().equals(x.getAirportTo());
     }
 
-    private Predicate<FlightDTO> filterByTime(BookFlightRequest bookFlightRequest) {
-        return flight -> flight.getDepartureLocalDateTime().isAfter(bookFlightRequest.getDepartureDateTime())
-            && flight.getArrivalLocalDateTime().isBefore(bookFlightRequest.getArrivalDateTime());
+    private IntPredicate filterByTime(SearchWindow window, MonthTimetable flights) {
+        return flight -> window.departsInside(flights.departure(flight)) && window.arrivesInside(flights.arrival(flight));
     }
 
-    private int getHourFromString(String time) {
-        return Integer.parseInt(time.split(COLON)[0]);
-    }
-
-    private int getMinuteFromString(String time) {
-        return Integer.parseInt(time.split(COLON)[1]);
-    }
-
-
     private boolean onlyDirectRoutes(List<RouteDTO> routes) {
         return routes.size() == 1 && routes.stream().anyMatch(x -> ObjectUtils.isEmpty(x.getConnectingAirport()));
     }
@@ -205,11 +450,14 @@ public class BookFlightServiceImpl implements BookFlightService {
         return routes.isEmpty();
     }
 
-    private String getArrivalTime(LocalDateTime day, FlightDTO x) {
-        return day.withHour(getHourFromString(x.getArrivalTime())).withMinute(getMinuteFromString(x.getArrivalTime())).toString();
-    }
+    @Getter
+    @AllArgsConstructor
+    private static class PlannedSearch {
 
-    private String getDepartureTime(LocalDateTime day, FlightDTO x) {
-        return day.withHour(getHourFromString(x.getDepartureTime())).withMinute(getMinuteFromString(x.getDepartureTime())).toString();
+        private final BookFlightRequest request;
+        private final SearchWindow window;
+        private final List<RouteDTO> routes;
+        private final FetchPlan plan;
+        private final boolean multiStop;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.ryanair.challenge.infrastructure.client;
+
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one in-flight upstream call, its result and its error.
+ */
+public class SingleFlight<K, V> {
+
+    private static final String COALESCED_CALLS = "ryanair.upstream.coalesced";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SingleFlight(final String client, final MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder(COALESCED_CALLS)
+            .description("Upstream calls saved by joining an identical call already in flight")
+            .tag("client", client)
+            .register(meterRegistry);
+    }
+
+    public V execute(final K key, final Supplier<V> upstreamCall) {
+
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+
+        if (Objects.nonNull(running)) {
+            coalesced.increment();
+            return join(running);
+        }
+
+        try {
+            final V value = upstreamCall.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V join(final CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else throw new BookFlightServiceException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ryanair.challenge.infrastructure.client;
+
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import lombok.Getter;
+
+@Getter
+public class UpstreamStatusException extends BookFlightServiceException {
+
+    private final int status;
+
+    public UpstreamStatusException(final int status, final String url) {
+        super("Unexpected status %d from %s".formatted(status, url));
+        this.status = status;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ryanair.challenge.infrastructure.client.decoder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
+import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads schedule and route payloads from the Jackson token stream, keeping only the fields a search uses.
+ */
+@Component
+public class RyanairJsonReader {
+
+    private final JsonFactory jsonFactory;
+
+    public RyanairJsonReader(final ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public ScheduleDTO readSchedule(final InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return isNull(parser.nextToken()) ? null : readSchedule(parser);
+        }
+    }
+
+    public List<RouteDTO> readRoutes(final InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return isNull(parser.nextToken()) ? null : readRoutes(parser);
+        }
+    }
+
+    private boolean isNull(final JsonToken first) {
+        return first == null || first == JsonToken.VALUE_NULL;
+    }
+
+    private ScheduleDTO readSchedule(final JsonParser parser) throws IOException {
+        final ScheduleDTO schedule = new ScheduleDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "month" -> schedule.setMonth(parser.getValueAsInt());
+                case "days" -> schedule.setDays(readDays(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return schedule;
+    }
+
+    private List<DayDTO> readDays(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        final List<DayDTO> days = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            final DayDTO day = new DayDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "day" -> day.setDay(parser.getValueAsInt());
+                    case "flights" -> day.setFlights(readFlights(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            days.add(day);
+        }
+        return days;
+    }
+
+    private List<FlightDTO> readFlights(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        final List<FlightDTO> flights = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            final FlightDTO flight = new FlightDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "carrierCode" -> flight.setCarrierCode(internedValue(parser));
+                    case "number" -> flight.setNumber(parser.getValueAsString());
+                    case "departureTime" -> flight.setDepartureTime(parser.getValueAsString());
+                    case "arrivalTime" -> flight.setArrivalTime(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            flights.add(flight);
+        }
+        return flights;
+    }
+
+    private List<RouteDTO> readRoutes(final JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        final List<RouteDTO> routes = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            final RouteDTO route = new RouteDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "airportFrom" -> route.setAirportFrom(internedValue(parser));
+                    case "airportTo" -> route.setAirportTo(internedValue(parser));
+                    case "connectingAirport" -> route.setConnectingAirport(internedValue(parser));
+                    case "operator" -> route.setOperator(internedValue(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    private String internedValue(final JsonParser parser) throws IOException {
+        final String value = parser.getValueAsString();
+        return Objects.isNull(value) ? null : value.intern();
+    }
+}
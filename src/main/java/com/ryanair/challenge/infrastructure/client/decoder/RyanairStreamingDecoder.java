@@ -0,0 +1,42 @@
+package com.ryanair.challenge.infrastructure.client.decoder;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import feign.Response;
+import feign.codec.Decoder;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+
+@AllArgsConstructor
+public class RyanairStreamingDecoder implements Decoder {
+
+    private final RyanairJsonReader ryanairJsonReader;
+    private final Decoder delegate;
+
+    @Override
+    public Object decode(final Response response, final Type type) throws IOException {
+
+        if (Objects.isNull(response.body())) {
+            return delegate.decode(response, type);
+        } else if (isSchedule(type)) {
+            return ryanairJsonReader.readSchedule(response.body().asInputStream());
+        } else if (isRouteList(type)) {
+            return ryanairJsonReader.readRoutes(response.body().asInputStream());
+        } else return delegate.decode(response, type);
+    }
+
+    private boolean isSchedule(final Type type) {
+        return type == ScheduleDTO.class;
+    }
+
+    private boolean isRouteList(final Type type) {
+        return type instanceof ParameterizedType
+            && ((ParameterizedType) type).getRawType() == List.class
+            && ((ParameterizedType) type).getActualTypeArguments()[0] == RouteDTO.class;
+    }
+}
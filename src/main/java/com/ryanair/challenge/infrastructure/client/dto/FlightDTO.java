@@ -6,7 +6,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import java.io.Serializable;
-import java.time.LocalDateTime;
 
 @Data
 @Builder(toBuilder = true)
@@ -24,8 +23,4 @@ public class FlightDTO implements Serializable {
     private String departureTime;
     @JsonProperty("arrivalTime")
     private String arrivalTime;
-    private transient LocalDateTime departureLocalDateTime;
-    private transient LocalDateTime arrivalLocalDateTime;
-    private transient String departureCity;
-    private transient String arrivalCity;
 }
@@ -1,5 +1,6 @@
 package com.ryanair.challenge.infrastructure.client.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -12,7 +13,7 @@ import java.io.Serializable;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(Include.NON_NULL)
@@ -22,4 +23,6 @@ public class ScheduleDTO implements Serializable {
     private int month;
     @JsonProperty("days")
     private List<DayDTO> days;
+    @JsonIgnore
+    private boolean stale;
 }
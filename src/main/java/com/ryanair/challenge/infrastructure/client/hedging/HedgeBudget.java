@@ -0,0 +1,30 @@
+package com.ryanair.challenge.infrastructure.client.hedging;
+
+import com.ryanair.challenge.configuration.HedgingProperties;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by every hedged client: each call deposits a fraction of a token and each hedge spends one.
+ */
+public class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(final HedgingProperties properties) {
+        this.deposit = properties.getBudgetPercent() * TOKEN / 100;
+        this.capacity = properties.getBudgetBurst() * TOKEN;
+    }
+
+    public void onCall() {
+        balance.accumulateAndGet(deposit, (current, added) -> Math.min(capacity, current + added));
+    }
+
+    public boolean tryWithdraw() {
+        return balance.getAndUpdate(current -> current >= TOKEN ? current - TOKEN : current) >= TOKEN;
+    }
+}
@@ -0,0 +1,179 @@
+package com.ryanair.challenge.infrastructure.client.hedging;
+
+import com.ryanair.challenge.configuration.HedgingProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second identical call when the first has not answered within a percentile of the recent response times,
+ * takes whichever answers first and cancels the other. Hedges are paid for from the shared {@link HedgeBudget}.
+ */
+public class HedgedUpstream<V> {
+
+    private static final String UPSTREAM_REQUESTS = "ryanair.upstream.requests";
+    private static final String HEDGES_WON = "ryanair.upstream.hedge.won";
+    private static final String HEDGES_SKIPPED = "ryanair.upstream.hedge.skipped";
+    private static final String HEDGE_DELAY = "ryanair.upstream.hedge.delay";
+
+    private final boolean enabled;
+    private final HedgeBudget budget;
+    private final LatencyPercentile latency;
+    private final Executor executor;
+    private final LongSupplier nanoTime;
+    private final Counter primaries;
+    private final Counter hedges;
+    private final Counter won;
+    private final Counter skipped;
+
+    public HedgedUpstream(final String client, final HedgingProperties properties, final HedgeBudget budget,
+                          final Executor executor, final MeterRegistry meterRegistry) {
+        this(client, properties, budget, executor, meterRegistry, System::nanoTime);
+    }
+
+    HedgedUpstream(final String client, final HedgingProperties properties, final HedgeBudget budget,
+                   final Executor executor, final MeterRegistry meterRegistry, final LongSupplier nanoTime) {
+        this.enabled = properties.isEnabled();
+        this.budget = budget;
+        this.latency = new LatencyPercentile(properties);
+        this.executor = executor;
+        this.nanoTime = nanoTime;
+        this.primaries = requests(client, "primary", meterRegistry);
+        this.hedges = requests(client, "hedge", meterRegistry);
+        this.won = Counter.builder(HEDGES_WON)
+            .description("Hedged calls answered before the call they were hedging")
+            .tag("client", client)
+            .register(meterRegistry);
+        this.skipped = Counter.builder(HEDGES_SKIPPED)
+            .description("Slow calls not hedged because the hedge budget was spent")
+            .tag("client", client)
+            .register(meterRegistry);
+        Gauge.builder(HEDGE_DELAY, latency, percentile -> percentile.delay() / 1_000_000.0)
+            .description("Milliseconds a call may take before it is hedged")
+            .tag("client", client)
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Blocking call. When the hedge executor is saturated the call runs on the caller thread and is not hedged.
+     */
+    public V call(final Supplier<V> upstream) {
+        if (!enabled) {
+            return upstream.get();
+        }
+        try {
+            return callAsync(() -> {
+                try {
+                    return CompletableFuture.supplyAsync(upstream, executor);
+                } catch (RejectedExecutionException e) {
+                    return CompletableFuture.completedFuture(upstream.get());
+                }
+            }).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else throw new BookFlightServiceException(e.getCause());
+        }
+    }
+
+    public CompletableFuture<V> callAsync(final Supplier<CompletableFuture<V>> upstream) {
+
+        if (!enabled) {
+            return upstream.get();
+        }
+
+        budget.onCall();
+        primaries.increment();
+        final Race race = new Race();
+        race.primary = attempt(upstream, race, false);
+
+        if (!race.primary.isDone()) {
+            CompletableFuture.delayedExecutor(latency.delay(), TimeUnit.NANOSECONDS, executor)
+                .execute(() -> hedge(upstream, race));
+        }
+        return race.result;
+    }
+
+    private void hedge(final Supplier<CompletableFuture<V>> upstream, final Race race) {
+        if (race.answered.get() || race.result.isDone()) {
+            return;
+        }
+        if (!budget.tryWithdraw()) {
+            skipped.increment();
+            return;
+        }
+        if (race.running.getAndUpdate(calls -> calls == 0 ? 0 : calls + 1) == 0) {
+            return;
+        }
+        hedges.increment();
+        race.hedge = attempt(upstream, race, true);
+        if (race.answered.get()) {
+            race.cancelLosers();
+        }
+    }
+
+    private CompletableFuture<V> attempt(final Supplier<CompletableFuture<V>> upstream, final Race race,
+                                         final boolean isHedge) {
+        final long start = nanoTime.getAsLong();
+        CompletableFuture<V> call;
+        try {
+            call = upstream.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((value, error) -> {
+            if (Objects.isNull(error)) {
+                latency.record(nanoTime.getAsLong() - start);
+                if (race.answered.compareAndSet(false, true)) {
+                    if (isHedge) {
+                        won.increment();
+                    }
+                    race.cancelLosers();
+                    race.result.complete(value);
+                }
+            } else if (race.running.decrementAndGet() == 0) {
+                race.result.completeExceptionally(error);
+            }
+        });
+        return call;
+    }
+
+    private static Counter requests(final String client, final String attempt, final MeterRegistry meterRegistry) {
+        return Counter.builder(UPSTREAM_REQUESTS)
+            .description("Upstream calls sent by the hedging clients, first attempts and hedges")
+            .tag("client", client)
+            .tag("attempt", attempt)
+            .register(meterRegistry);
+    }
+
+    private final class Race {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicBoolean answered = new AtomicBoolean();
+        private volatile CompletableFuture<V> primary;
+        private volatile CompletableFuture<V> hedge;
+
+        private void cancelLosers() {
+            if (Objects.nonNull(primary)) {
+                primary.cancel(true);
+            }
+            if (Objects.nonNull(hedge)) {
+                hedge.cancel(true);
+            }
+        }
+    }
+}
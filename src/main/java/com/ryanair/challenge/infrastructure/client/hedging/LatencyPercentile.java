@@ -0,0 +1,50 @@
+package com.ryanair.challenge.infrastructure.client.hedging;
+
+import com.ryanair.challenge.configuration.HedgingProperties;
+
+import java.util.Arrays;
+
+/**
+ * Percentile of the most recent response times of one client, recomputed after every few samples.
+ */
+final class LatencyPercentile {
+
+    private static final int RECOMPUTE_SHARE = 16;
+
+    private final int percentile;
+    private final int minSamples;
+    private final long initialDelay;
+    private final long minDelay;
+    private final long[] samples;
+    private final int recomputeEvery;
+
+    private int recorded;
+    private int next;
+    private int sinceRecompute;
+    private long current;
+
+    LatencyPercentile(final HedgingProperties properties) {
+        this.percentile = properties.getPercentile();
+        this.minSamples = Math.min(properties.getMinSamples(), properties.getWindowSize());
+        this.initialDelay = properties.getInitialDelay().toNanos();
+        this.minDelay = properties.getMinDelay().toNanos();
+        this.samples = new long[properties.getWindowSize()];
+        this.recomputeEvery = Math.max(1, samples.length / RECOMPUTE_SHARE);
+    }
+
+    synchronized void record(final long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        recorded = Math.min(recorded + 1, samples.length);
+        if (++sinceRecompute >= recomputeEvery || recorded == minSamples) {
+            sinceRecompute = 0;
+            final long[] sorted = Arrays.copyOf(samples, recorded);
+            Arrays.sort(sorted);
+            current = sorted[Math.max(0, (int) Math.ceil(percentile * recorded / 100.0) - 1)];
+        }
+    }
+
+    synchronized long delay() {
+        return recorded < minSamples ? initialDelay : Math.max(minDelay, current);
+    }
+}
@@ -2,29 +2,62 @@ package com.ryanair.challenge.infrastructure.client.mapper;
 
 import com.ryanair.challenge.domain.model.Flight;
 import com.ryanair.challenge.domain.model.Leg;
-import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import com.ryanair.challenge.infrastructure.timetable.MonthTimetable;
+import com.ryanair.challenge.infrastructure.timetable.TimetableDates;
 import lombok.experimental.UtilityClass;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @UtilityClass
 public class FlightClientMapper {
 
-    public Flight toBookFlightRequest(FlightDTO flightDTO) {
+    public Flight toFlight(MonthTimetable timetable, int flight) {
 
-        if (flightDTO == null) {
+        if (timetable == null) {
             return null;
         }
 
         return Flight.builder()
-            .legs(List.of(
-                Leg.builder()
-                    .departureAirport(flightDTO.getDepartureCity())
-                    .arrivalAirport(flightDTO.getArrivalCity())
-                    .arrivalDateTime(flightDTO.getArrivalLocalDateTime().toString())
-                    .departureDateTime(flightDTO.getDepartureLocalDateTime().toString())
-                    .build()
-            )).build();
+            .legs(List.of(toLeg(timetable, flight)))
+            .departureEpochMinute(timetable.departure(flight))
+            .arrivalEpochMinute(timetable.arrival(flight))
+            .stale(timetable.isStale()).build();
+    }
+
+    public Flight toConnection(MonthTimetable intoHub, int first, MonthTimetable outOfHub, int second) {
+        return Flight.builder()
+            .stops(1)
+            .legs(List.of(toLeg(intoHub, first), toLeg(outOfHub, second)))
+            .departureEpochMinute(intoHub.departure(first))
+            .arrivalEpochMinute(outOfHub.arrival(second))
+            .stale(intoHub.isStale() || outOfHub.isStale()).build();
+    }
+
+    public Flight toJourney(MonthTimetable[] timetables, int[] flights) {
+
+        final List<Leg> legs = new ArrayList<>(flights.length);
+        boolean stale = false;
+        for (int leg = 0; leg < flights.length; leg++) {
+            legs.add(toLeg(timetables[leg], flights[leg]));
+            stale |= timetables[leg].isStale();
+        }
+
+        return Flight.builder()
+            .stops(flights.length - 1)
+            .legs(legs)
+            .departureEpochMinute(timetables[0].departure(flights[0]))
+            .arrivalEpochMinute(timetables[flights.length - 1].arrival(flights[flights.length - 1]))
+            .stale(stale).build();
+    }
+
+    private Leg toLeg(MonthTimetable timetable, int flight) {
+        return Leg.builder()
+            .departureAirport(timetable.getFrom())
+            .arrivalAirport(timetable.getTo())
+            .arrivalDateTime(TimetableDates.format(timetable.arrival(flight)))
+            .departureDateTime(TimetableDates.format(timetable.departure(flight)))
+            .build();
     }
 
 }
@@ -0,0 +1,111 @@
+package com.ryanair.challenge.infrastructure.client.resilience;
+
+import com.ryanair.challenge.configuration.ResilienceProperties;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count based circuit breaker over the most recent calls, going half open after the wait duration.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumNumberOfCalls;
+    private final int permittedCallsInHalfOpenState;
+    private final long waitInOpenStateNanos;
+    private final LongSupplier nanoTime;
+    private final boolean[] failed;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int probes;
+    private int succeededProbes;
+
+    public CircuitBreaker(final ResilienceProperties properties, final LongSupplier nanoTime) {
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.minimumNumberOfCalls = properties.getMinimumNumberOfCalls();
+        this.permittedCallsInHalfOpenState = properties.getPermittedCallsInHalfOpenState();
+        this.waitInOpenStateNanos = properties.getWaitDurationInOpenState().toNanos();
+        this.nanoTime = nanoTime;
+        this.failed = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= waitInOpenStateNanos) {
+            state = State.HALF_OPEN;
+            probes = 0;
+            succeededProbes = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes == permittedCallsInHalfOpenState) {
+                return false;
+            }
+            probes++;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && probes > 0) {
+            probes--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++succeededProbes >= permittedCallsInHalfOpenState) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumNumberOfCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    private void record(final boolean failure) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        failures += failure ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
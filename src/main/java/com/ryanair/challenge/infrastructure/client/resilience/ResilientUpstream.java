@@ -0,0 +1,234 @@
+package com.ryanair.challenge.infrastructure.client.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ryanair.challenge.configuration.ResilienceProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.infrastructure.client.UpstreamStatusException;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Guards the calls to one upstream service with a circuit breaker and a bulkhead. Rejected and failed calls are
+ * answered with the last good response for the same key, marked as stale, when there is one.
+ */
+@Slf4j
+public class ResilientUpstream<K, V> {
+
+    private static final String REJECTED_CALLS = "ryanair.upstream.rejected";
+    private static final String FALLBACKS = "ryanair.upstream.fallback";
+    private static final String CIRCUIT_STATE = "ryanair.upstream.circuit.state";
+    private static final String UPSTREAM_LATENCY = "ryanair.upstream.latency";
+    private static final String CIRCUIT_OPEN = "Circuit to %s is open";
+    private static final String BULKHEAD_FULL = "Too many calls to %s in flight";
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final String client;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final long maxWait;
+    private final Cache<K, V> lastKnownGood;
+    private final UnaryOperator<V> markStale;
+    private final Counter circuitOpen;
+    private final Counter bulkheadFull;
+    private final Counter servedStale;
+    private final Counter unavailable;
+    private final Timer succeeded;
+    private final Timer clientErrors;
+    private final Timer failed;
+    private final LongSupplier nanoTime;
+
+    public ResilientUpstream(final String client, final ResilienceProperties properties,
+                             final UnaryOperator<V> markStale, final MeterRegistry meterRegistry) {
+        this(client, properties, markStale, meterRegistry, System::nanoTime);
+    }
+
+    ResilientUpstream(final String client, final ResilienceProperties properties, final UnaryOperator<V> markStale,
+                      final MeterRegistry meterRegistry, final LongSupplier nanoTime) {
+        this.client = client;
+        this.circuitBreaker = new CircuitBreaker(properties, nanoTime);
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.maxWait = properties.getMaxWaitDuration().toMillis();
+        this.lastKnownGood = Caffeine.newBuilder().maximumSize(properties.getLastKnownGoodSize()).build();
+        this.markStale = markStale;
+        this.circuitOpen = rejected(meterRegistry, "circuit_open");
+        this.bulkheadFull = rejected(meterRegistry, "bulkhead_full");
+        this.servedStale = fallback(meterRegistry, "stale");
+        this.unavailable = fallback(meterRegistry, "unavailable");
+        this.succeeded = latency(meterRegistry, "success");
+        this.clientErrors = latency(meterRegistry, "client_error");
+        this.failed = latency(meterRegistry, "failure");
+        this.nanoTime = nanoTime;
+        Gauge.builder(CIRCUIT_STATE, circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("State of the circuit to the upstream: 0 closed, 1 open, 2 half open")
+            .tag("client", client)
+            .register(meterRegistry);
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    public V call(final K key, final Supplier<V> upstream, final Function<Exception, V> callback) {
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpen.increment();
+            return fallback(key, new BookFlightServiceException(CIRCUIT_OPEN.formatted(client)), callback);
+        }
+        if (!awaitSlot()) {
+            circuitBreaker.releasePermission();
+            bulkheadFull.increment();
+            return fallback(key, new BookFlightServiceException(BULKHEAD_FULL.formatted(client)), callback);
+        }
+
+        final long start = nanoTime.getAsLong();
+        final V value;
+        try {
+            value = upstream.get();
+        } catch (RuntimeException e) {
+            return onError(key, e, callback, start);
+        } finally {
+            bulkhead.release();
+        }
+        return onSuccess(key, value, start);
+    }
+
+    /**
+     * A full bulkhead falls back straight away instead of waiting for a slot.
+     */
+    public CompletableFuture<V> callAsync(final K key, final Supplier<CompletableFuture<V>> upstream,
+                                          final Function<Exception, V> callback) {
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpen.increment();
+            return completed(() -> fallback(key,
+                new BookFlightServiceException(CIRCUIT_OPEN.formatted(client)), callback));
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            bulkheadFull.increment();
+            return completed(() -> fallback(key,
+                new BookFlightServiceException(BULKHEAD_FULL.formatted(client)), callback));
+        }
+
+        final long start = nanoTime.getAsLong();
+        final CompletableFuture<V> call;
+        try {
+            call = upstream.get();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            return completed(() -> onError(key, e, callback, start));
+        }
+        return call.handle((value, error) -> {
+            bulkhead.release();
+            return Objects.isNull(error) ?
+                onSuccess(key, value, start) : onError(key, unwrap(error), callback, start);
+        });
+    }
+
+    private V onSuccess(final K key, final V value, final long start) {
+        succeeded.record(nanoTime.getAsLong() - start, TimeUnit.NANOSECONDS);
+        circuitBreaker.onSuccess();
+        if (Objects.nonNull(value)) {
+            lastKnownGood.put(key, value);
+        }
+        return value;
+    }
+
+    private V onError(final K key, final RuntimeException error, final Function<Exception, V> callback,
+                      final long start) {
+        if (isClientError(error)) {
+            clientErrors.record(nanoTime.getAsLong() - start, TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess();
+            throw error;
+        }
+        failed.record(nanoTime.getAsLong() - start, TimeUnit.NANOSECONDS);
+        circuitBreaker.onFailure();
+        return fallback(key, error, callback);
+    }
+
+    private V fallback(final K key, final Exception cause, final Function<Exception, V> callback) {
+        final V lastGood = lastKnownGood.getIfPresent(key);
+        if (Objects.isNull(lastGood)) {
+            unavailable.increment();
+            return callback.apply(cause);
+        }
+        servedStale.increment();
+        log.warn("Serving last known {} for {}: {}", client, key, cause.getMessage());
+        return markStale.apply(lastGood);
+    }
+
+    private boolean awaitSlot() {
+        try {
+            return bulkhead.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter rejected(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder(REJECTED_CALLS)
+            .description("Upstream calls not made because the circuit was open or the bulkhead full")
+            .tag("client", client)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private Counter fallback(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder(FALLBACKS)
+            .description("Rejected or failed upstream calls, by whether a stale response could be served")
+            .tag("client", client)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Timer latency(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(UPSTREAM_LATENCY)
+            .description("Time the upstream took to answer a call let through, by outcome")
+            .tag("client", client)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static <V> CompletableFuture<V> completed(final Supplier<V> value) {
+        try {
+            return CompletableFuture.completedFuture(value.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static RuntimeException unwrap(final Throwable error) {
+        final Throwable cause = error instanceof CompletionException && Objects.nonNull(error.getCause()) ?
+            error.getCause() : error;
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new BookFlightServiceException(cause);
+    }
+
+    private static boolean isClientError(final RuntimeException error) {
+        final int status;
+        if (error instanceof FeignException) {
+            status = ((FeignException) error).status();
+        } else if (error instanceof UpstreamStatusException) {
+            status = ((UpstreamStatusException) error).getStatus();
+        } else {
+            return false;
+        }
+        return status >= 400 && status < 500 && status != TOO_MANY_REQUESTS;
+    }
+}
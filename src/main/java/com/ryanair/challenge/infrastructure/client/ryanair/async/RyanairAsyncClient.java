@@ -0,0 +1,122 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.async;
+
+import com.ryanair.challenge.configuration.FetchProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.infrastructure.client.UpstreamStatusException;
+import com.ryanair.challenge.infrastructure.client.decoder.RyanairJsonReader;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgedUpstream;
+import com.ryanair.challenge.infrastructure.client.resilience.ResilientUpstream;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClientCallback;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClientCallback;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import io.vavr.CheckedFunction1;
+import io.vavr.control.Try;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking counterpart of the route and schedule Feign clients, enqueuing its calls on the same OkHttp client.
+ */
+@Component
+public class RyanairAsyncClient {
+
+    private static final int OK = 200;
+
+    private final OkHttpClient okHttpClient;
+    private final RyanairJsonReader ryanairJsonReader;
+    private final String routesUrl;
+    private final String scheduleUrl;
+    private final Duration timeout;
+    private final ResilientUpstream<String, List<RouteDTO>> routesUpstream;
+    private final ResilientUpstream<ScheduleKey, ScheduleDTO> schedulesUpstream;
+    private final HedgedUpstream<List<RouteDTO>> routesHedge;
+    private final HedgedUpstream<ScheduleDTO> schedulesHedge;
+
+    public RyanairAsyncClient(final OkHttpClient ryanairOkHttpClient, final RyanairJsonReader ryanairJsonReader,
+                              final FetchProperties fetchProperties,
+                              @Value("${provider.ryanair.routes.url}") final String routesUrl,
+                              @Value("${provider.ryanair.schedule.url}") final String scheduleUrl,
+                              final ResilientUpstream<String, List<RouteDTO>> routesUpstream,
+                              final ResilientUpstream<ScheduleKey, ScheduleDTO> schedulesUpstream,
+                              final HedgedUpstream<List<RouteDTO>> routesHedge,
+                              final HedgedUpstream<ScheduleDTO> schedulesHedge) {
+        this.okHttpClient = ryanairOkHttpClient;
+        this.ryanairJsonReader = ryanairJsonReader;
+        this.routesUrl = routesUrl;
+        this.scheduleUrl = scheduleUrl;
+        this.timeout = fetchProperties.getTimeout();
+        this.routesUpstream = routesUpstream;
+        this.schedulesUpstream = schedulesUpstream;
+        this.routesHedge = routesHedge;
+        this.schedulesHedge = schedulesHedge;
+    }
+
+    public CompletableFuture<List<RouteDTO>> getRoutes(final String airportFrom) {
+        return routesUpstream.callAsync(airportFrom,
+            () -> routesHedge.callAsync(
+                () -> send("%s/routes/%s".formatted(routesUrl, airportFrom), ryanairJsonReader::readRoutes)),
+            cause -> new RyanairRouteClientCallback(cause).getRoutes(airportFrom));
+    }
+
+    public CompletableFuture<ScheduleDTO> getSchedule(final String from, final String to,
+                                                      final Integer year, final Integer month) {
+        return schedulesUpstream.callAsync(ScheduleKey.of(from, to, year, month),
+            () -> schedulesHedge.callAsync(
+                () -> send("%s/schedules/%s/%s/years/%d/months/%d".formatted(scheduleUrl, from, to, year, month),
+                    ryanairJsonReader::readSchedule)),
+            cause -> new RyanairScheduleClientCallback(cause).getSchedule(from, to, year, month));
+    }
+
+    private <T> CompletableFuture<T> send(final String url, final CheckedFunction1<InputStream, T> reader) {
+
+        final Call call = okHttpClient.newCall(new Request.Builder()
+            .url(url)
+            .header("Accept", "application/json")
+            .get()
+            .build());
+        call.timeout().timeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        final CompletableFuture<T> decoded = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(final Call failed, final IOException exception) {
+                decoded.completeExceptionally(new BookFlightServiceException(exception));
+            }
+
+            @Override
+            public void onResponse(final Call answered, final Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (response.code() != OK) {
+                        decoded.completeExceptionally(new UpstreamStatusException(response.code(), url));
+                    } else {
+                        Try.of(() -> reader.apply(body.byteStream()))
+                            .onSuccess(decoded::complete)
+                            .onFailure(cause -> decoded.completeExceptionally(new BookFlightServiceException(cause)));
+                    }
+                }
+            }
+        });
+        // a hedged call that lost the race is cancelled; pass that on so the exchange itself is aborted
+        decoded.whenComplete((value, error) -> {
+            if (decoded.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return decoded;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.routes;
+
+import com.ryanair.challenge.infrastructure.client.SingleFlight;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+
+public class CoalescingRyanairRouteClient implements RyanairRouteClient {
+
+    private static final String ALL_ROUTES = "*";
+
+    private final RyanairRouteClient delegate;
+    private final SingleFlight<String, List<RouteDTO>> singleFlight;
+
+    public CoalescingRyanairRouteClient(final RyanairRouteClient delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight<>("routes", meterRegistry);
+    }
+
+    @Override
+    public List<RouteDTO> getRoutes(final String airportFrom) {
+        return singleFlight.execute(airportFrom, () -> delegate.getRoutes(airportFrom));
+    }
+
+    @Override
+    public List<RouteDTO> getAllRoutes() {
+        return singleFlight.execute(ALL_ROUTES, delegate::getAllRoutes);
+    }
+}
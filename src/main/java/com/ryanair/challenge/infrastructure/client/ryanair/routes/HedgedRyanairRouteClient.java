@@ -0,0 +1,24 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.routes;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgedUpstream;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class HedgedRyanairRouteClient implements RyanairRouteClient {
+
+    private final RyanairRouteClient delegate;
+    private final HedgedUpstream<List<RouteDTO>> upstream;
+
+    @Override
+    public List<RouteDTO> getRoutes(final String airportFrom) {
+        return upstream.call(() -> delegate.getRoutes(airportFrom));
+    }
+
+    @Override
+    public List<RouteDTO> getAllRoutes() {
+        return upstream.call(delegate::getAllRoutes);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.routes;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.resilience.ResilientUpstream;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class ResilientRyanairRouteClient implements RyanairRouteClient {
+
+    private static final String ALL_ROUTES = "*";
+
+    private final RyanairRouteClient delegate;
+    private final ResilientUpstream<String, List<RouteDTO>> upstream;
+
+    @Override
+    public List<RouteDTO> getRoutes(final String airportFrom) {
+        return upstream.call(airportFrom, () -> delegate.getRoutes(airportFrom),
+            cause -> new RyanairRouteClientCallback(cause).getRoutes(airportFrom));
+    }
+
+    @Override
+    public List<RouteDTO> getAllRoutes() {
+        return upstream.call(ALL_ROUTES, delegate::getAllRoutes,
+            cause -> new RyanairRouteClientCallback(cause).getAllRoutes());
+    }
+}
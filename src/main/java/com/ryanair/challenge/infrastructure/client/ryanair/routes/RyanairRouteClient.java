@@ -9,10 +9,15 @@ import java.util.List;
 
 @FeignClient(
     name = "ryanair-route",
-    url = "${provider.ryanair.routes.url}"
+    url = "${provider.ryanair.routes.url}",
+    qualifier = "ryanairRouteFeignClient",
+    primary = false
 )
 public interface RyanairRouteClient {
 
     @RequestLine("GET routes/{airportFrom}")
     List<RouteDTO> getRoutes(@Param("airportFrom") String airportFrom);
+
+    @RequestLine("GET routes")
+    List<RouteDTO> getAllRoutes();
 }
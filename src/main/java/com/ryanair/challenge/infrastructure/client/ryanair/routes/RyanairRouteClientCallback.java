@@ -16,4 +16,9 @@ public class RyanairRouteClientCallback implements RyanairRouteClient {
         throw new BookFlightServiceException(cause);
     }
 
+    @Override
+    public List<RouteDTO> getAllRoutes() {
+        throw new BookFlightServiceException(cause);
+    }
+
 }
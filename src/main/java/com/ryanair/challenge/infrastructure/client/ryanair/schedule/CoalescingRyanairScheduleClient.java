@@ -0,0 +1,23 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.schedule;
+
+import com.ryanair.challenge.infrastructure.client.SingleFlight;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class CoalescingRyanairScheduleClient implements RyanairScheduleClient {
+
+    private final RyanairScheduleClient delegate;
+    private final SingleFlight<ScheduleKey, ScheduleDTO> singleFlight;
+
+    public CoalescingRyanairScheduleClient(final RyanairScheduleClient delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight<>("schedules", meterRegistry);
+    }
+
+    @Override
+    public ScheduleDTO getSchedule(final String from, final String to, final Integer year, final Integer month) {
+        return singleFlight.execute(ScheduleKey.of(from, to, year, month),
+            () -> delegate.getSchedule(from, to, year, month));
+    }
+}
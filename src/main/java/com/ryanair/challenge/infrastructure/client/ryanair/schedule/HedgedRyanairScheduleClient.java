@@ -0,0 +1,17 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.schedule;
+
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgedUpstream;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class HedgedRyanairScheduleClient implements RyanairScheduleClient {
+
+    private final RyanairScheduleClient delegate;
+    private final HedgedUpstream<ScheduleDTO> upstream;
+
+    @Override
+    public ScheduleDTO getSchedule(final String from, final String to, final Integer year, final Integer month) {
+        return upstream.call(() -> delegate.getSchedule(from, to, year, month));
+    }
+}
@@ -0,0 +1,19 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.schedule;
+
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.resilience.ResilientUpstream;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class ResilientRyanairScheduleClient implements RyanairScheduleClient {
+
+    private final RyanairScheduleClient delegate;
+    private final ResilientUpstream<ScheduleKey, ScheduleDTO> upstream;
+
+    @Override
+    public ScheduleDTO getSchedule(final String from, final String to, final Integer year, final Integer month) {
+        return upstream.call(ScheduleKey.of(from, to, year, month), () -> delegate.getSchedule(from, to, year, month),
+            cause -> new RyanairScheduleClientCallback(cause).getSchedule(from, to, year, month));
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.cloud.openfeign.FeignClient;
 
 @FeignClient(
     name = "ryanair-schedule",
-    url = "${provider.ryanair.schedule.url}"
+    url = "${provider.ryanair.schedule.url}",
+    qualifier = "ryanairScheduleFeignClient",
+    primary = false
 )
 public interface RyanairScheduleClient {
 
@@ -0,0 +1,43 @@
+package com.ryanair.challenge.infrastructure.client.transport;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Asks for gzip or deflate bodies and decompresses them while they are read. OkHttp alone only negotiates gzip.
+ */
+public class CompressionInterceptor implements Interceptor {
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+
+        final Request request = chain.request();
+        if (Objects.nonNull(request.header(ContentEncoding.ACCEPT_ENCODING))) {
+            return chain.proceed(request);
+        }
+
+        final Response response = chain.proceed(request.newBuilder()
+            .header(ContentEncoding.ACCEPT_ENCODING, ContentEncoding.ACCEPTED)
+            .build());
+        final String encoding = response.header(ContentEncoding.CONTENT_ENCODING);
+        final ResponseBody body = response.body();
+        if (!ContentEncoding.isCompressed(encoding) || Objects.isNull(body)) {
+            return response;
+        }
+
+        return response.newBuilder()
+            .removeHeader(ContentEncoding.CONTENT_ENCODING)
+            .removeHeader(CONTENT_LENGTH)
+            .body(ResponseBody.create(body.contentType(), -1,
+                Okio.buffer(Okio.source(ContentEncoding.decode(encoding, body.byteStream())))))
+            .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ryanair.challenge.infrastructure.client.transport;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+@UtilityClass
+public class ContentEncoding {
+
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+    public static final String ACCEPTED = "gzip, deflate";
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    public boolean isCompressed(final String encoding) {
+        return isGzip(encoding) || (Objects.nonNull(encoding) && DEFLATE.equalsIgnoreCase(encoding.trim()));
+    }
+
+    public InputStream decode(final String encoding, final InputStream body) throws IOException {
+        if (!isCompressed(encoding)) {
+            return body;
+        }
+        return isGzip(encoding) ? new GZIPInputStream(body) : new InflaterInputStream(body);
+    }
+
+    private boolean isGzip(final String encoding) {
+        return Objects.nonNull(encoding) && GZIP.equalsIgnoreCase(encoding.trim());
+    }
+}
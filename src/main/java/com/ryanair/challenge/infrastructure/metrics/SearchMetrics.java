@@ -0,0 +1,95 @@
+package com.ryanair.challenge.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in each stage of a search, and the upstream calls and results of each search.
+ */
+@Component
+public class SearchMetrics {
+
+    private static final String STAGE_TIMER = "ryanair.search.stage";
+    private static final String UPSTREAM_CALLS = "ryanair.search.upstream.calls";
+    private static final String RESULTS = "ryanair.search.results";
+    private static final String SCHEDULE_CALLS = "ryanair.search.schedule.calls";
+
+    public enum Stage {
+        ROUTES,
+        PLAN,
+        SCHEDULES,
+        DECODE,
+        CONNECTIONS,
+        MAPPING
+    }
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final DistributionSummary upstreamCalls;
+    private final DistributionSummary results;
+    private final DistributionSummary plannedScheduleCalls;
+    private final DistributionSummary executedScheduleCalls;
+
+    public SearchMetrics(final MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, stageTimer(meterRegistry, stage));
+        }
+        this.upstreamCalls = DistributionSummary.builder(UPSTREAM_CALLS)
+            .description("Route and schedule calls that went upstream for one search, cached ones excluded")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.results = DistributionSummary.builder(RESULTS)
+            .description("Flights returned by one search")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.plannedScheduleCalls = DistributionSummary.builder(SCHEDULE_CALLS)
+            .description("Schedule calls of one search, as planned and as sent upstream for uncached months")
+            .tag("calls", "planned")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.executedScheduleCalls = DistributionSummary.builder(SCHEDULE_CALLS)
+            .description("Schedule calls of one search, as planned and as sent upstream for uncached months")
+            .tag("calls", "executed")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    public static Timer stageTimer(final MeterRegistry meterRegistry, final Stage stage) {
+        return Timer.builder(STAGE_TIMER)
+            .description("Time spent in one stage of a flight search")
+            .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    public <T> T time(final Stage stage, final Supplier<T> work) {
+        return stages.get(stage).record(work);
+    }
+
+    public <T> CompletableFuture<T> timeAsync(final Stage stage, final Supplier<CompletableFuture<T>> work) {
+        final long start = System.nanoTime();
+        return work.get().whenComplete((result, failure) -> record(stage, System.nanoTime() - start));
+    }
+
+    public void record(final Stage stage, final long nanos) {
+        stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSearch(final int calls, final int flights) {
+        upstreamCalls.record(calls);
+        results.record(flights);
+    }
+
+    public void recordScheduleCalls(final int planned, final int executed) {
+        plannedScheduleCalls.record(planned);
+        executedScheduleCalls.record(executed);
+    }
+}
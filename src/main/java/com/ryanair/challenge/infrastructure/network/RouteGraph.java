@@ -0,0 +1,258 @@
+package com.ryanair.challenge.infrastructure.network;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable view of the direct Ryanair network. Airports are numbered in code order and edges are kept as
+ * adjacency arrays in both directions: {@code forwardTargets[forwardStart[a]..forwardStart[a + 1])} holds the
+ * airports reachable from {@code a} and {@code reverseSources[reverseStart[a]..reverseStart[a + 1])} the ones flying
+ * into it, both sorted by id.
+ */
+public final class RouteGraph {
+
+    private static final String RYANAIR = "RYANAIR";
+    private static final int NOT_FOUND = -1;
+
+    public static final RouteGraph EMPTY = of(List.of());
+
+    private final String[] codes;
+    private final Map<String, Integer> ids;
+    private final int[] forwardStart;
+    private final int[] forwardTargets;
+    private final int[] reverseStart;
+    private final int[] reverseSources;
+
+    private RouteGraph(final String[] codes, final Map<String, Integer> ids,
+                       final int[] forwardStart, final int[] forwardTargets,
+                       final int[] reverseStart, final int[] reverseSources) {
+        this.codes = codes;
+        this.ids = ids;
+        this.forwardStart = forwardStart;
+        this.forwardTargets = forwardTargets;
+        this.reverseStart = reverseStart;
+        this.reverseSources = reverseSources;
+    }
+
+    public static RouteGraph of(final Collection<RouteDTO> routes) {
+
+        final TreeSet<String> airports = new TreeSet<>();
+        for (RouteDTO route : routes) {
+            if (isDirectRyanairRoute(route)) {
+                airports.add(route.getAirportFrom());
+                airports.add(route.getAirportTo());
+            }
+        }
+
+        final String[] codes = airports.toArray(String[]::new);
+        final Map<String, Integer> ids = new HashMap<>(codes.length * 2);
+        for (int id = 0; id < codes.length; id++) {
+            ids.put(codes[id], id);
+        }
+
+        final long[] edges = new long[routes.size()];
+        int count = 0;
+        for (RouteDTO route : routes) {
+            if (isDirectRyanairRoute(route)) {
+                edges[count++] = edge(ids.get(route.getAirportFrom()), ids.get(route.getAirportTo()));
+            }
+        }
+        final long[] forward = distinct(edges, count);
+        final long[] reverse = new long[forward.length];
+        for (int i = 0; i < forward.length; i++) {
+            reverse[i] = edge(target(forward[i]), source(forward[i]));
+        }
+        Arrays.sort(reverse);
+
+        final int[] forwardStart = new int[codes.length + 1];
+        final int[] forwardTargets = adjacency(forward, forwardStart);
+        final int[] reverseStart = new int[codes.length + 1];
+        final int[] reverseSources = adjacency(reverse, reverseStart);
+
+        return new RouteGraph(codes, ids, forwardStart, forwardTargets, reverseStart, reverseSources);
+    }
+
+    public int airports() {
+        return codes.length;
+    }
+
+    public int routes() {
+        return forwardTargets.length;
+    }
+
+    public boolean contains(final String airport) {
+        return ids.containsKey(airport);
+    }
+
+    public int id(final String airport) {
+        final Integer id = ids.get(airport);
+        return Objects.isNull(id) ? NOT_FOUND : id;
+    }
+
+    public String code(final int id) {
+        return codes[id];
+    }
+
+    public int[] destinations(final int from) {
+        return Arrays.copyOfRange(forwardTargets, forwardStart[from], forwardStart[from + 1]);
+    }
+
+    public int[] origins(final int to) {
+        return Arrays.copyOfRange(reverseSources, reverseStart[to], reverseStart[to + 1]);
+    }
+
+    public boolean hasRoute(final String from, final String to) {
+        final int fromId = id(from);
+        final int toId = id(to);
+        return fromId != NOT_FOUND && toId != NOT_FOUND
+            && Arrays.binarySearch(forwardTargets, forwardStart[fromId], forwardStart[fromId + 1], toId) >= 0;
+    }
+
+    public void forEachRoute(final BiConsumer<String, String> route) {
+        for (int a = 0; a < codes.length; a++) {
+            for (int edge = forwardStart[a]; edge < forwardStart[a + 1]; edge++) {
+                route.accept(codes[a], codes[forwardTargets[edge]]);
+            }
+        }
+    }
+
+    /**
+     * Both adjacency lists are sorted, so they are intersected in one merge pass.
+     */
+    public List<String> hubs(final String from, final String to) {
+
+        final int fromId = id(from);
+        final int toId = id(to);
+        final List<String> hubs = new ArrayList<>();
+        if (fromId == NOT_FOUND || toId == NOT_FOUND) {
+            return hubs;
+        }
+
+        int out = forwardStart[fromId];
+        int in = reverseStart[toId];
+        while (out < forwardStart[fromId + 1] && in < reverseStart[toId + 1]) {
+            final int hub = forwardTargets[out];
+            final int origin = reverseSources[in];
+            if (hub < origin) {
+                out++;
+            } else if (hub > origin) {
+                in++;
+            } else {
+                if (hub != fromId && hub != toId) {
+                    hubs.add(codes[hub]);
+                }
+                out++;
+                in++;
+            }
+        }
+        return hubs;
+    }
+
+    /**
+     * Visits every route lying on some path of at most {@code maxLegs} legs from {@code from} to {@code to}: a route
+     * {@code a -> b} qualifies when the legs needed to reach {@code a} plus one plus the legs needed from {@code b}
+     * fit in the budget. Both distances come from a breadth first search over the forward and the reverse edges.
+     */
+    public void forEachRouteWithin(final String from, final String to, final int maxLegs,
+                                   final BiConsumer<String, String> route) {
+
+        final int fromId = id(from);
+        final int toId = id(to);
+        if (fromId == NOT_FOUND || toId == NOT_FOUND) {
+            return;
+        }
+
+        final int[] legsFromOrigin = distances(fromId, forwardStart, forwardTargets, maxLegs);
+        final int[] legsToDestination = distances(toId, reverseStart, reverseSources, maxLegs);
+
+        for (int a = 0; a < codes.length; a++) {
+            if (legsFromOrigin[a] >= maxLegs) {
+                continue;
+            }
+            for (int edge = forwardStart[a]; edge < forwardStart[a + 1]; edge++) {
+                final int b = forwardTargets[edge];
+                if (legsFromOrigin[a] + 1 + legsToDestination[b] <= maxLegs) {
+                    route.accept(codes[a], codes[b]);
+                }
+            }
+        }
+    }
+
+    private int[] distances(final int source, final int[] start, final int[] neighbours, final int maxLegs) {
+
+        final int[] distance = new int[codes.length];
+        Arrays.fill(distance, Integer.MAX_VALUE / 2);
+        final int[] queue = new int[codes.length];
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            final int airport = queue[head++];
+            if (distance[airport] == maxLegs) {
+                continue;
+            }
+            for (int edge = start[airport]; edge < start[airport + 1]; edge++) {
+                final int next = neighbours[edge];
+                if (distance[next] > distance[airport] + 1) {
+                    distance[next] = distance[airport] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distance;
+    }
+
+    private static boolean isDirectRyanairRoute(final RouteDTO route) {
+        return RYANAIR.equals(route.getOperator()) && Objects.isNull(route.getConnectingAirport())
+            && Objects.nonNull(route.getAirportFrom()) && Objects.nonNull(route.getAirportTo());
+    }
+
+    private static long[] distinct(final long[] edges, final int count) {
+        Arrays.sort(edges, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || edges[unique - 1] != edges[i]) {
+                edges[unique++] = edges[i];
+            }
+        }
+        return Arrays.copyOf(edges, unique);
+    }
+
+    /**
+     * Turns edges sorted by source into a compressed adjacency list, filling {@code start} with the offsets.
+     */
+    private static int[] adjacency(final long[] sortedEdges, final int[] start) {
+        final int[] neighbours = new int[sortedEdges.length];
+        for (int i = 0; i < sortedEdges.length; i++) {
+            start[source(sortedEdges[i]) + 1]++;
+            neighbours[i] = target(sortedEdges[i]);
+        }
+        for (int id = 0; id + 1 < start.length; id++) {
+            start[id + 1] += start[id];
+        }
+        return neighbours;
+    }
+
+    private static long edge(final int source, final int target) {
+        return ((long) source << 32) | target;
+    }
+
+    private static int source(final long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    private static int target(final long edge) {
+        return (int) edge;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ryanair.challenge.infrastructure.network;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds the whole route network in memory so a search finds its direct route and its hubs without going upstream.
+ */
+@Slf4j
+@Component
+public class RouteNetwork {
+
+    private static final String RYANAIR = "RYANAIR";
+
+    private final RyanairRouteClient ryanairRouteClient;
+    private volatile RouteGraph graph = RouteGraph.EMPTY;
+
+    public RouteNetwork(final RyanairRouteClient ryanairRouteClient) {
+        this.ryanairRouteClient = ryanairRouteClient;
+    }
+
+    public void refresh() {
+        Try.of(ryanairRouteClient::getAllRoutes)
+            .map(RouteGraph::of)
+            .onSuccess(loaded -> {
+                graph = loaded;
+                log.info("Route graph loaded : airports : %d, routes : %d".formatted(loaded.airports(), loaded.routes()));
+            })
+            .onFailure(e -> log.warn("Could not refresh the route graph, keeping the previous one", e));
+    }
+
+    public void restore(final RouteGraph restored) {
+        if (graph == RouteGraph.EMPTY) {
+            graph = restored;
+            log.info("Route graph restored : airports : %d, routes : %d"
+                .formatted(restored.airports(), restored.routes()));
+        }
+    }
+
+    public RouteGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Empty when the departure airport is not in the graph yet, so the caller can fall back to asking upstream.
+     */
+    public Optional<List<RouteDTO>> routesBetween(final String from, final String to) {
+
+        final RouteGraph current = graph;
+        if (!current.contains(from)) {
+            return Optional.empty();
+        }
+
+        final List<RouteDTO> routes = new ArrayList<>();
+        if (current.hasRoute(from, to)) {
+            routes.add(route(from, to, null));
+        }
+        current.hubs(from, to).forEach(hub -> routes.add(route(from, to, hub)));
+        return Optional.of(routes);
+    }
+
+    private RouteDTO route(final String from, final String to, final String connectingAirport) {
+        return RouteDTO.builder()
+            .airportFrom(from)
+            .airportTo(to)
+            .connectingAirport(connectingAirport)
+            .operator(RYANAIR)
+            .build();
+    }
+}
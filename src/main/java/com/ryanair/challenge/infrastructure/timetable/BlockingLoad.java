@@ -0,0 +1,40 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Blocking read of an async cache. A miss is loaded on the calling thread into the cache entry itself, so other
+ * callers missing the same key wait for that load.
+ */
+@UtilityClass
+class BlockingLoad {
+
+    <K, V> V get(final AsyncCache<K, V> cache, final K key, final Function<K, V> load) {
+
+        final CompletableFuture<V> loading = new CompletableFuture<>();
+        final CompletableFuture<V> found = cache.get(key, (missed, executor) -> loading);
+
+        if (found == loading) {
+            try {
+                loading.complete(load.apply(key));
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return found.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else throw new BookFlightServiceException(e.getCause());
+        }
+    }
+}
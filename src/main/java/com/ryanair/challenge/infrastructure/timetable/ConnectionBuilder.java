@@ -0,0 +1,64 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.domain.model.Flight;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Pairs first legs into a hub with second legs out of it. Flights of a day are sorted by departure, so every first
+ * leg binary searches the earliest second leg it can still catch.
+ */
+@Component
+@AllArgsConstructor
+public class ConnectionBuilder {
+
+    private final SearchProperties searchProperties;
+
+    public List<Flight> connect(final Timetable timetable, final String from, final String hub, final String to,
+                                final SearchWindow window) {
+
+        final ItineraryRanking connections = ItineraryRanking.inOfferedOrder();
+        connect(timetable, from, hub, to, window, connections);
+        return connections.page();
+    }
+
+    public void connect(final Timetable timetable, final String from, final String hub, final String to,
+                        final SearchWindow window, final ItineraryRanking ranking) {
+
+        final int minConnectionMinutes = searchProperties.getMinConnectionMinutes();
+        final int maxConnectionMinutes = searchProperties.getMaxConnectionMinutes();
+
+        for (LocalDate day : window.getDays()) {
+            final MonthTimetable intoHub = timetable.get(ScheduleKey.of(from, hub, day));
+            final int lastIntoHub = intoHub.endOfDay(day.getDayOfMonth());
+            for (int first = intoHub.firstOfDay(day.getDayOfMonth()); first < lastIntoHub; first++) {
+                if (window.departsInside(intoHub.departure(first))) {
+                    connectFrom(timetable, intoHub, first, hub, to, window, ranking,
+                        intoHub.arrival(first) + minConnectionMinutes, intoHub.arrival(first) + maxConnectionMinutes);
+                }
+            }
+        }
+    }
+
+    private void connectFrom(final Timetable timetable, final MonthTimetable intoHub, final int first,
+                             final String hub, final String to, final SearchWindow window,
+                             final ItineraryRanking ranking, final int earliestDeparture, final int latestDeparture) {
+
+        LocalDate day = TimetableDates.date(earliestDeparture);
+        while (!day.isAfter(window.getLastDay()) && TimetableDates.epochMinute(day) <= latestDeparture) {
+            final MonthTimetable outOfHub = timetable.get(ScheduleKey.of(hub, to, day));
+            final int lastOutOfHub = outOfHub.endOfDay(day.getDayOfMonth());
+            for (int second = outOfHub.firstDepartingAfter(day.getDayOfMonth(), earliestDeparture);
+                 second < lastOutOfHub && outOfHub.departure(second) <= latestDeparture; second++) {
+                if (window.arrivesInside(outOfHub.arrival(second))) {
+                    ranking.offer(intoHub, first, outOfHub, second);
+                }
+            }
+            day = day.plusDays(1);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.infrastructure.client.mapper.FlightClientMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Connection Scan over the days of a set of routes. Every flight of those days is one connection; they are scanned
+ * once in departure order while keeping, per number of legs, the earliest arrival at each airport. A connection
+ * is only taken when it arrives earlier than the label already held at its level, so dominated labels are never
+ * created, and it is skipped altogether once it cannot beat the arrival already found at the destination.
+ */
+@Component
+@AllArgsConstructor
+public class ConnectionScan {
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final SearchProperties searchProperties;
+
+    /**
+     * Journeys from {@code from} to {@code to} of at most {@code maxLegs} legs that are Pareto optimal on arrival
+     * time and number of stops, fewest stops first. The last one is the earliest arrival. They are searched over
+     * every day of the window, so they may run overnight and into the next month; the first leg must leave after
+     * its departure time and the last one land before its arrival time. The routes hold the months the days fall in.
+     */
+    public List<Flight> paretoJourneys(final List<MonthTimetable> routes, final String from, final String to,
+                                       final SearchWindow window, final int maxLegs) {
+
+        final List<LocalDate> days = window.getDays();
+        final long departAfter = window.getDepartAfter();
+        final long arriveBefore = window.getArriveBefore();
+        final Map<String, Integer> airports = new HashMap<>();
+        for (MonthTimetable route : routes) {
+            airports.putIfAbsent(route.getFrom(), airports.size());
+            airports.putIfAbsent(route.getTo(), airports.size());
+        }
+        final Integer origin = airports.get(from);
+        final Integer destination = airports.get(to);
+        if (Objects.isNull(origin) || Objects.isNull(destination) || maxLegs < 1) {
+            return List.of();
+        }
+
+        final Connections connections = Connections.of(routes, airports, days);
+        final int minConnectionMinutes = searchProperties.getMinConnectionMinutes();
+        final int[][] arrival = new int[maxLegs + 1][airports.size()];
+        final int[][] parent = new int[maxLegs + 1][airports.size()];
+        for (int[] level : arrival) {
+            Arrays.fill(level, UNREACHED);
+        }
+
+        for (int c : connections.order) {
+            final int departure = connections.departure(c);
+            if (departure * 60L <= departAfter) {
+                continue;
+            }
+            if (departure * 60L >= arriveBefore) {
+                break;
+            }
+            final int u = connections.from[c];
+            final int v = connections.to[c];
+            final int arrivesAt = connections.arrival(c);
+            if (v == origin || arrivesAt * 60L >= arriveBefore) {
+                continue;
+            }
+            for (int legs = maxLegs; legs >= 1; legs--) {
+                if (arrivesAt >= arrival[legs][v] || arrivesAt >= arrival[legs][destination]) {
+                    continue;
+                }
+                final boolean boardable = u == origin
+                    || (arrival[legs - 1][u] != UNREACHED && departure > arrival[legs - 1][u] + minConnectionMinutes);
+                if (boardable) {
+                    arrival[legs][v] = arrivesAt;
+                    parent[legs][v] = c;
+                }
+            }
+        }
+
+        final List<Flight> journeys = new ArrayList<>();
+        for (int legs = 1; legs <= maxLegs; legs++) {
+            if (arrival[legs][destination] < arrival[legs - 1][destination]) {
+                journeys.add(journey(connections, parent, origin, destination, legs));
+            }
+        }
+        return journeys;
+    }
+
+    private Flight journey(final Connections connections, final int[][] parent, final int origin,
+                           final int destination, final int legs) {
+
+        final MonthTimetable[] timetables = new MonthTimetable[legs];
+        final int[] flights = new int[legs];
+        int airport = destination;
+        for (int leg = legs - 1; leg >= 0; leg--) {
+            final int c = parent[leg + 1][airport];
+            timetables[leg] = connections.timetables.get(connections.route[c]);
+            flights[leg] = connections.flight[c];
+            airport = connections.from[c];
+        }
+        return FlightClientMapper.toJourney(timetables, flights);
+    }
+
+    /**
+     * Flights of the days as parallel arrays, with {@code order} listing them by departure.
+     */
+    private static final class Connections {
+
+        private final List<MonthTimetable> timetables;
+        private final int[] route;
+        private final int[] flight;
+        private final int[] from;
+        private final int[] to;
+        private final int[] order;
+
+        private Connections(final List<MonthTimetable> timetables, final int size) {
+            this.timetables = timetables;
+            this.route = new int[size];
+            this.flight = new int[size];
+            this.from = new int[size];
+            this.to = new int[size];
+            this.order = new int[size];
+        }
+
+        private static Connections of(final List<MonthTimetable> timetables, final Map<String, Integer> airports,
+                                      final List<LocalDate> days) {
+
+            int size = 0;
+            for (MonthTimetable timetable : timetables) {
+                for (LocalDate date : days) {
+                    if (timetable.covers(date)) {
+                        size += timetable.endOfDay(date.getDayOfMonth()) - timetable.firstOfDay(date.getDayOfMonth());
+                    }
+                }
+            }
+
+            final Connections connections = new Connections(timetables, size);
+            final long[] byDeparture = new long[size];
+            int c = 0;
+            for (int r = 0; r < timetables.size(); r++) {
+                final MonthTimetable timetable = timetables.get(r);
+                final int from = airports.get(timetable.getFrom());
+                final int to = airports.get(timetable.getTo());
+                for (LocalDate date : days) {
+                    if (!timetable.covers(date)) {
+                        continue;
+                    }
+                    final int day = date.getDayOfMonth();
+                    for (int f = timetable.firstOfDay(day); f < timetable.endOfDay(day); f++, c++) {
+                        connections.route[c] = r;
+                        connections.flight[c] = f;
+                        connections.from[c] = from;
+                        connections.to[c] = to;
+                        byDeparture[c] = ((long) timetable.departure(f) << 32) | c;
+                    }
+                }
+            }
+            Arrays.sort(byDeparture);
+            for (int i = 0; i < size; i++) {
+                connections.order[i] = (int) byDeparture[i];
+            }
+            return connections;
+        }
+
+        private int departure(final int c) {
+            return timetables.get(route[c]).departure(flight[c]);
+        }
+
+        private int arrival(final int c) {
+            return timetables.get(route[c]).arrival(flight[c]);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class FetchPlan {
+
+    private final Set<ScheduleKey> keys;
+
+    public int getPlannedCalls() {
+        return keys.size();
+    }
+}
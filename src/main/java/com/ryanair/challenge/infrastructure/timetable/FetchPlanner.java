@@ -0,0 +1,49 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.network.RouteGraph;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+public class FetchPlanner {
+
+    public FetchPlan plan(final BookFlightRequest request, final List<RouteDTO> routes) {
+        return plan(request, SearchWindow.of(request), routes);
+    }
+
+    public FetchPlan plan(final BookFlightRequest request, final SearchWindow window, final List<RouteDTO> routes) {
+
+        final Set<ScheduleKey> keys = new LinkedHashSet<>();
+
+        for (RouteDTO route : routes) {
+            for (YearMonth month : window.getMonths()) {
+                if (Objects.isNull(route.getConnectingAirport())) {
+                    keys.add(ScheduleKey.of(request.getDeparture(), request.getArrival(), month));
+                } else {
+                    keys.add(ScheduleKey.of(route.getAirportFrom(), route.getConnectingAirport(), month));
+                    keys.add(ScheduleKey.of(route.getConnectingAirport(), route.getAirportTo(), month));
+                }
+            }
+        }
+
+        return new FetchPlan(keys);
+    }
+
+    public FetchPlan plan(final BookFlightRequest request, final SearchWindow window, final RouteGraph graph,
+                          final int maxLegs) {
+
+        final Set<ScheduleKey> keys = new LinkedHashSet<>();
+
+        graph.forEachRouteWithin(request.getDeparture(), request.getArrival(), maxLegs,
+            (from, to) -> window.getMonths().forEach(month -> keys.add(ScheduleKey.of(from, to, month))));
+
+        return new FetchPlan(keys);
+    }
+}
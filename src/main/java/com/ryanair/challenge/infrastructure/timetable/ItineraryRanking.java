@@ -0,0 +1,179 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.FlightSort;
+import com.ryanair.challenge.infrastructure.client.mapper.FlightClientMapper;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks the itineraries of one search and keeps the requested page of them. With a limit, a bounded heap holds the
+ * best {@code cursor + limit} itineraries offered so far with the worst one on top, so an itinerary that does not
+ * beat it is dropped before any {@link Flight} is built for it, and only the page itself is materialized. Without
+ * a sort, a limit or a cursor every itinerary is kept in the order it was offered.
+ */
+public final class ItineraryRanking {
+
+    private final FlightSort sort;
+    private final int offset;
+    private final int capacity;
+    private final Queue<Candidate> kept;
+    private int offered;
+
+    private ItineraryRanking(final FlightSort sort, final int offset, final int capacity) {
+        this.sort = sort;
+        this.offset = offset;
+        this.capacity = capacity;
+        this.kept = capacity == Integer.MAX_VALUE ?
+            new ArrayDeque<>() :
+            new PriorityQueue<>((one, other) -> compare(other, one));
+    }
+
+    public static ItineraryRanking of(final BookFlightRequest request) {
+
+        final FlightSort sort = sortOf(request);
+        final int offset = Objects.isNull(request.getCursor()) ? 0 : request.getCursor();
+        final int capacity = Objects.isNull(request.getLimit()) ? Integer.MAX_VALUE :
+            (int) Math.min((long) offset + request.getLimit(), Integer.MAX_VALUE);
+
+        return new ItineraryRanking(sort, offset, capacity);
+    }
+
+    /**
+     * Sort the itineraries of the request are ranked by. A page needs a stable order, so a request with a limit or a
+     * cursor but no sort is ranked by departure.
+     */
+    public static FlightSort sortOf(final BookFlightRequest request) {
+        final boolean paged = Objects.nonNull(request.getLimit()) || Objects.nonNull(request.getCursor());
+        return Objects.nonNull(request.getSort()) || !paged ? request.getSort() : FlightSort.DEPARTURE;
+    }
+
+    public static ItineraryRanking inOfferedOrder() {
+        return new ItineraryRanking(null, 0, Integer.MAX_VALUE);
+    }
+
+    public void offer(final MonthTimetable timetable, final int flight) {
+        if (beatsWorst(timetable.departure(flight), timetable.arrival(flight), 0)) {
+            keep(new Candidate(timetable.departure(flight), timetable.arrival(flight), 0, offered,
+                timetable, flight, null, 0, null));
+        }
+        offered++;
+    }
+
+    public void offer(final MonthTimetable intoHub, final int first, final MonthTimetable outOfHub, final int second) {
+        if (beatsWorst(intoHub.departure(first), outOfHub.arrival(second), 1)) {
+            keep(new Candidate(intoHub.departure(first), outOfHub.arrival(second), 1, offered,
+                intoHub, first, outOfHub, second, null));
+        }
+        offered++;
+    }
+
+    /**
+     * Offers an itinerary that is already built, ranked by the times it carries from its timetables.
+     */
+    public void offer(final Flight flight) {
+        final int departure = flight.getDepartureEpochMinute();
+        final int arrival = flight.getArrivalEpochMinute();
+        if (beatsWorst(departure, arrival, flight.getStops())) {
+            keep(new Candidate(departure, arrival, flight.getStops(), offered, null, 0, null, 0, flight));
+        }
+        offered++;
+    }
+
+    /**
+     * Number of itineraries offered, whether or not they made it into the page.
+     */
+    public int getOffered() {
+        return offered;
+    }
+
+    public List<Flight> page() {
+
+        final Candidate[] ranked = kept.toArray(new Candidate[0]);
+        Arrays.sort(ranked, this::compare);
+
+        return Arrays.stream(ranked)
+            .skip(offset)
+            .map(Candidate::toFlight)
+            .collect(Collectors.toList());
+    }
+
+    private boolean beatsWorst(final int departure, final int arrival, final int stops) {
+        return kept.size() < capacity || compare(departure, arrival, stops, offered, kept.peek()) < 0;
+    }
+
+    private void keep(final Candidate candidate) {
+        if (kept.size() == capacity) {
+            kept.poll();
+        }
+        kept.add(candidate);
+    }
+
+    private int compare(final Candidate one, final Candidate other) {
+        return compare(one.departure, one.arrival, one.stops, one.sequence, other);
+    }
+
+    private int compare(final int departure, final int arrival, final int stops, final int sequence,
+                        final Candidate other) {
+
+        int result = 0;
+        if (Objects.nonNull(sort)) {
+            result = switch (sort) {
+                case DEPARTURE -> Integer.compare(departure, other.departure);
+                case ARRIVAL -> Integer.compare(arrival, other.arrival);
+                case DURATION -> Integer.compare(arrival - departure, other.arrival - other.departure);
+                case STOPS -> Integer.compare(stops, other.stops);
+            };
+            result = result != 0 ? result : Integer.compare(departure, other.departure);
+            result = result != 0 ? result : Integer.compare(arrival, other.arrival);
+        }
+        return result != 0 ? result : Integer.compare(sequence, other.sequence);
+    }
+
+    /**
+     * Itinerary kept in the heap, either as flight indexes into its timetables or, when offered already built, as
+     * the flight itself.
+     */
+    private static final class Candidate {
+
+        private final int departure;
+        private final int arrival;
+        private final int stops;
+        private final int sequence;
+        private final MonthTimetable firstTimetable;
+        private final int firstFlight;
+        private final MonthTimetable secondTimetable;
+        private final int secondFlight;
+        private final Flight built;
+
+        private Candidate(final int departure, final int arrival, final int stops, final int sequence,
+                          final MonthTimetable firstTimetable, final int firstFlight,
+                          final MonthTimetable secondTimetable, final int secondFlight, final Flight built) {
+            this.departure = departure;
+            this.arrival = arrival;
+            this.stops = stops;
+            this.sequence = sequence;
+            this.firstTimetable = firstTimetable;
+            this.firstFlight = firstFlight;
+            this.secondTimetable = secondTimetable;
+            this.secondFlight = secondFlight;
+            this.built = built;
+        }
+
+        private Flight toFlight() {
+            if (Objects.nonNull(built)) {
+                return built;
+            }
+            return Objects.isNull(secondTimetable) ?
+                FlightClientMapper.toFlight(firstTimetable, firstFlight) :
+                FlightClientMapper.toConnection(firstTimetable, firstFlight, secondTimetable, secondFlight);
+        }
+    }
+}
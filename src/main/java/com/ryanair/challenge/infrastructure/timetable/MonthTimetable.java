@@ -0,0 +1,206 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
+import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Month schedule of one route decoded into parallel primitive arrays, grouped by day and sorted by departure inside
+ * each day. Times are minutes since epoch.
+ */
+public final class MonthTimetable {
+
+    private static final int DAYS = 31;
+
+    @Getter
+    private final String from;
+    @Getter
+    private final String to;
+    @Getter
+    private final int year;
+    @Getter
+    private final int month;
+    private final int[] dayStart;
+    private final int[] departures;
+    private final int[] arrivals;
+    private final String[] carriers;
+    private final String[] numbers;
+    @Getter
+    private final boolean stale;
+
+    private MonthTimetable(final ScheduleKey key, final int[] dayStart, final int[] departures,
+                           final int[] arrivals, final String[] carriers, final String[] numbers,
+                           final boolean stale) {
+        this.from = key.getFrom().intern();
+        this.to = key.getTo().intern();
+        this.year = key.getYear();
+        this.month = key.getMonth();
+        this.dayStart = dayStart;
+        this.departures = departures;
+        this.arrivals = arrivals;
+        this.carriers = carriers;
+        this.numbers = numbers;
+        this.stale = stale;
+    }
+
+    public static MonthTimetable empty(final ScheduleKey key) {
+        return new MonthTimetable(key, new int[DAYS + 2], new int[0], new int[0], new String[0], new String[0], false);
+    }
+
+    public static MonthTimetable decode(final ScheduleKey key, final ScheduleDTO schedule) {
+
+        if (Objects.isNull(schedule) || Objects.isNull(schedule.getDays())) {
+            return empty(key);
+        }
+
+        final int[] dayStart = new int[DAYS + 2];
+        for (DayDTO day : schedule.getDays()) {
+            if (isValidDay(key, day)) {
+                dayStart[day.getDay() + 1] += day.getFlights().size();
+            }
+        }
+        for (int day = 1; day < dayStart.length; day++) {
+            dayStart[day] += dayStart[day - 1];
+        }
+
+        final int size = dayStart[DAYS + 1];
+        final int[] departures = new int[size];
+        final int[] arrivals = new int[size];
+        final String[] carriers = new String[size];
+        final String[] numbers = new String[size];
+        final int[] next = dayStart.clone();
+
+        for (DayDTO day : schedule.getDays()) {
+            if (!isValidDay(key, day)) {
+                continue;
+            }
+            final int midnight = TimetableDates.epochMinute(LocalDate.of(key.getYear(), key.getMonth(), day.getDay()));
+            for (FlightDTO flight : day.getFlights()) {
+                final int departure = TimetableDates.parseMinuteOfDay(flight.getDepartureTime());
+                final int arrival = TimetableDates.parseMinuteOfDay(flight.getArrivalTime());
+                if (departure < 0 || arrival < 0) {
+                    continue;
+                }
+                final int i = next[day.getDay()]++;
+                departures[i] = midnight + departure;
+                arrivals[i] = midnight + arrival + (arrival < departure ? TimetableDates.MINUTES_PER_DAY : 0);
+                carriers[i] = intern(flight.getCarrierCode());
+                numbers[i] = intern(flight.getNumber());
+            }
+        }
+
+        return compact(key, dayStart, next, departures, arrivals, carriers, numbers, schedule.isStale());
+    }
+
+    static MonthTimetable restore(final ScheduleKey key, final int[] dayStart, final int[] departures,
+                                  final int[] arrivals, final String[] carriers, final String[] numbers) {
+        return new MonthTimetable(key, dayStart, departures, arrivals, carriers, numbers, false);
+    }
+
+    public boolean covers(final LocalDate date) {
+        return date.getYear() == year && date.getMonthValue() == month;
+    }
+
+    public int size() {
+        return departures.length;
+    }
+
+    public int firstOfDay(final int day) {
+        return dayStart[day];
+    }
+
+    public int endOfDay(final int day) {
+        return dayStart[day + 1];
+    }
+
+    public int departure(final int flight) {
+        return departures[flight];
+    }
+
+    public int arrival(final int flight) {
+        return arrivals[flight];
+    }
+
+    public String carrier(final int flight) {
+        return carriers[flight];
+    }
+
+    public String number(final int flight) {
+        return numbers[flight];
+    }
+
+    public int firstDepartingAfter(final int day, final int epochMinute) {
+        int low = firstOfDay(day);
+        int high = endOfDay(day);
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (departures[middle] <= epochMinute) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isValidDay(final ScheduleKey key, final DayDTO day) {
+        return Objects.nonNull(day.getFlights()) && day.getDay() >= 1
+            && day.getDay() <= LocalDate.of(key.getYear(), key.getMonth(), 1).lengthOfMonth();
+    }
+
+    private static String intern(final String value) {
+        return Objects.isNull(value) ? null : value.intern();
+    }
+
+    private static MonthTimetable compact(final ScheduleKey key, final int[] dayStart, final int[] filled,
+                                          final int[] departures, final int[] arrivals,
+                                          final String[] carriers, final String[] numbers,
+                                          final boolean stale) {
+
+        final int[] start = new int[DAYS + 2];
+        int size = 0;
+        for (int day = 1; day <= DAYS; day++) {
+            start[day] = size;
+            for (int i = dayStart[day]; i < filled[day]; i++, size++) {
+                departures[size] = departures[i];
+                arrivals[size] = arrivals[i];
+                carriers[size] = carriers[i];
+                numbers[size] = numbers[i];
+            }
+            sortByDeparture(start[day], size, departures, arrivals, carriers, numbers);
+        }
+        start[DAYS + 1] = size;
+        start[0] = 0;
+
+        return new MonthTimetable(key, start,
+            Arrays.copyOf(departures, size), Arrays.copyOf(arrivals, size),
+            Arrays.copyOf(carriers, size), Arrays.copyOf(numbers, size), stale);
+    }
+
+    private static void sortByDeparture(final int from, final int to, final int[] departures, final int[] arrivals,
+                                        final String[] carriers, final String[] numbers) {
+        for (int i = from + 1; i < to; i++) {
+            final int departure = departures[i];
+            final int arrival = arrivals[i];
+            final String carrier = carriers[i];
+            final String number = numbers[i];
+            int j = i - 1;
+            while (j >= from && departures[j] > departure) {
+                departures[j + 1] = departures[j];
+                arrivals[j + 1] = arrivals[j];
+                carriers[j + 1] = carriers[j];
+                numbers[j + 1] = numbers[j];
+                j--;
+            }
+            departures[j + 1] = departure;
+            arrivals[j + 1] = arrival;
+            carriers[j + 1] = carrier;
+            numbers[j + 1] = number;
+        }
+    }
+}
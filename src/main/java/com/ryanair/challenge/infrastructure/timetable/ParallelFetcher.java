@@ -0,0 +1,122 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.FetchProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import io.vavr.control.Try;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs independent upstream calls on the shared fetch executor, capping how many of them one search keeps in
+ * flight and how long each of them may take.
+ */
+@Component
+@AllArgsConstructor
+public class ParallelFetcher {
+
+    private static final String FETCH_TIMED_OUT = "Timed out fetching %s";
+    private static final String FETCH_INTERRUPTED = "Interrupted fetching %s";
+    private static final String FETCH_REJECTED = "No thread available fetching %s";
+
+    @Qualifier("ryanairFetchExecutor")
+    private final Executor ryanairFetchExecutor;
+    private final FetchProperties fetchProperties;
+
+    public <K, V> Map<K, V> fetchAll(final Collection<K> keys, final Function<K, V> call) {
+
+        final long timeout = fetchProperties.getTimeout().toMillis();
+        final Semaphore inFlight = new Semaphore(fetchProperties.getMaxInFlightPerRequest());
+        final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+        try {
+            for (K key : keys) {
+                acquire(inFlight, key, timeout);
+                futures.put(key, submit(inFlight, key, call, timeout));
+            }
+
+            final Map<K, V> result = new HashMap<>();
+            futures.forEach((key, future) -> result.put(key, join(key, future)));
+            return result;
+        } catch (RuntimeException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #fetchAll(Collection, Function)}, but a failed or timed out call only fails its own key.
+     */
+    public <K, V> Map<K, Try<V>> fetchEach(final Collection<K> keys, final Function<K, V> call) {
+
+        final long timeout = fetchProperties.getTimeout().toMillis();
+        final Semaphore inFlight = new Semaphore(fetchProperties.getMaxInFlightPerBatch());
+        final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+        for (K key : keys) {
+            futures.put(key, Try.run(() -> acquire(inFlight, key, timeout))
+                .map(acquired -> submit(inFlight, key, call, timeout))
+                .getOrElseGet(CompletableFuture::failedFuture));
+        }
+
+        final Map<K, Try<V>> result = new LinkedHashMap<>();
+        futures.forEach((key, future) -> result.put(key, Try.of(() -> join(key, future))));
+        return result;
+    }
+
+    private <K, V> CompletableFuture<V> submit(final Semaphore inFlight, final K key, final Function<K, V> call,
+                                               final long timeout) {
+        try {
+            return CompletableFuture
+                .supplyAsync(() -> callAndRelease(inFlight, key, call), ryanairFetchExecutor)
+                .orTimeout(timeout, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(new BookFlightServiceException(FETCH_REJECTED.formatted(key)));
+        }
+    }
+
+    private <K> void acquire(final Semaphore inFlight, final K key, final long timeout) {
+        try {
+            if (!inFlight.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new BookFlightServiceException(FETCH_TIMED_OUT.formatted(key));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookFlightServiceException(FETCH_INTERRUPTED.formatted(key));
+        }
+    }
+
+    private <K, V> V callAndRelease(final Semaphore inFlight, final K key, final Function<K, V> call) {
+        try {
+            return call.apply(key);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private <K, V> V join(final K key, final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new BookFlightServiceException(FETCH_TIMED_OUT.formatted(key));
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else throw new BookFlightServiceException(e.getCause());
+        }
+    }
+}
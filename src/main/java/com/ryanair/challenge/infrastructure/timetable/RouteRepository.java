@@ -0,0 +1,79 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the route list of each origin airport in memory, refreshing old entries in the background. Stale lists
+ * served while the upstream is down are returned but never kept.
+ */
+public class RouteRepository {
+
+    private static final String CACHE_NAME = "ryanair.routes";
+
+    private final AsyncLoadingCache<String, List<RouteDTO>> routes;
+    private final RyanairRouteClient ryanairRouteClient;
+
+    public RouteRepository(final RyanairRouteClient ryanairRouteClient, final RyanairAsyncClient ryanairAsyncClient,
+                           final RyanairCacheProperties.Routes properties,
+                           final Executor executor, final MeterRegistry meterRegistry) {
+        this(ryanairRouteClient, ryanairAsyncClient, properties, executor, meterRegistry, Ticker.systemTicker());
+    }
+
+    RouteRepository(final RyanairRouteClient ryanairRouteClient, final RyanairAsyncClient ryanairAsyncClient,
+                    final RyanairCacheProperties.Routes properties,
+                    final Executor executor, final MeterRegistry meterRegistry, final Ticker ticker) {
+        this.ryanairRouteClient = ryanairRouteClient;
+        this.routes = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .refreshAfterWrite(properties.getRefreshAfter())
+            .expireAfterWrite(properties.getTtl())
+            .executor(executor)
+            .ticker(ticker)
+            .recordStats()
+            .buildAsync((String airportFrom, Executor loader) -> ryanairAsyncClient.getRoutes(airportFrom));
+        CaffeineCacheMetrics.monitor(meterRegistry, routes.synchronous(), CACHE_NAME);
+    }
+
+    public List<RouteDTO> get(final String airportFrom) {
+        return keptIfFresh(airportFrom, BlockingLoad.get(routes, airportFrom, ryanairRouteClient::getRoutes));
+    }
+
+    public CompletableFuture<List<RouteDTO>> getAsync(final String airportFrom) {
+        return routes.get(airportFrom).thenApply(found -> keptIfFresh(airportFrom, found));
+    }
+
+    /**
+     * Does not count as a cache read.
+     */
+    public boolean isCached(final String airportFrom) {
+        return routes.asMap().containsKey(airportFrom);
+    }
+
+    public void invalidateAll() {
+        routes.synchronous().invalidateAll();
+    }
+
+    private List<RouteDTO> keptIfFresh(final String airportFrom, final List<RouteDTO> found) {
+        if (isStale(found)) {
+            routes.synchronous().invalidate(airportFrom);
+        }
+        return found;
+    }
+
+    private static boolean isStale(final List<RouteDTO> found) {
+        return Objects.nonNull(found) && found.stream().anyMatch(RouteDTO::isStale);
+    }
+}
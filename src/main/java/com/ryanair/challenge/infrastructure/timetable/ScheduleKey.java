@@ -0,0 +1,35 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Value
+@AllArgsConstructor(staticName = "of")
+public class ScheduleKey {
+
+    String from;
+    String to;
+    int year;
+    int month;
+
+    public static ScheduleKey of(final String from, final String to, final LocalDateTime date) {
+        return of(from, to, date.getYear(), date.getMonthValue());
+    }
+
+    public static ScheduleKey of(final String from, final String to, final LocalDate date) {
+        return of(from, to, date.getYear(), date.getMonthValue());
+    }
+
+    public static ScheduleKey of(final String from, final String to, final YearMonth month) {
+        return of(from, to, month.getYear(), month.getMonthValue());
+    }
+
+    @Override
+    public String toString() {
+        return "%s-%s %d/%02d".formatted(from, to, year, month);
+    }
+}
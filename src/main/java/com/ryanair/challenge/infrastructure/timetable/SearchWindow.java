@@ -0,0 +1,77 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Days and months a search covers, capped to a number of days so a wide window cannot fan out into an unbounded
+ * number of schedule calls.
+ */
+@Getter
+public final class SearchWindow {
+
+    private final List<LocalDate> days;
+    private final Set<YearMonth> months;
+    private final long departAfter;
+    private final long arriveBefore;
+
+    private SearchWindow(final List<LocalDate> days, final long departAfter, final long arriveBefore) {
+        this.days = Collections.unmodifiableList(days);
+        final Set<YearMonth> touched = new LinkedHashSet<>();
+        days.forEach(day -> touched.add(YearMonth.from(day)));
+        this.months = Collections.unmodifiableSet(touched);
+        this.departAfter = departAfter;
+        this.arriveBefore = arriveBefore;
+    }
+
+    public static SearchWindow of(final BookFlightRequest request) {
+        return of(request, Integer.MAX_VALUE);
+    }
+
+    public static SearchWindow of(final BookFlightRequest request, final int maxDays) {
+
+        final LocalDateTime departure = request.getDepartureDateTime();
+        final LocalDate first = departure.toLocalDate();
+        final LocalDate requestedLast = request.getArrivalDateTime().toLocalDate();
+        final LocalDate cappedLast = first.plusDays(Math.max(maxDays, 1) - 1L);
+        final LocalDate last = requestedLast.isAfter(cappedLast) ? cappedLast : requestedLast;
+
+        final List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        if (days.isEmpty()) {
+            days.add(first);
+        }
+
+        final long arriveBefore = last.equals(requestedLast) ?
+            TimetableDates.epochSecond(request.getArrivalDateTime()) :
+            TimetableDates.epochSecond(last.plusDays(1).atStartOfDay());
+        return new SearchWindow(days, TimetableDates.epochSecond(departure), arriveBefore);
+    }
+
+    public LocalDate getFirstDay() {
+        return days.get(0);
+    }
+
+    public LocalDate getLastDay() {
+        return days.get(days.size() - 1);
+    }
+
+    public boolean departsInside(final int epochMinute) {
+        return epochMinute * 60L > departAfter;
+    }
+
+    public boolean arrivesInside(final int epochMinute) {
+        return epochMinute * 60L < arriveBefore;
+    }
+}
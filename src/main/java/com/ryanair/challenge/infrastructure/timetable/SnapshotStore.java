@@ -0,0 +1,138 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.RouteNetworkProperties;
+import com.ryanair.challenge.configuration.SnapshotProperties;
+import com.ryanair.challenge.infrastructure.network.RouteGraph;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the route graph, the cached months and the search popularity on disk so a restarted service does not begin
+ * with empty caches. Restored months are served at once and fetched again in the background, one at a time.
+ */
+@Slf4j
+public class SnapshotStore {
+
+    private final SnapshotProperties properties;
+    private final RouteNetworkProperties routeNetworkProperties;
+    private final RouteNetwork routeNetwork;
+    private final TimetableRepository timetableRepository;
+    private final SearchPopularity searchPopularity;
+    private final Executor executor;
+    private final Clock clock;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    public SnapshotStore(final SnapshotProperties properties, final RouteNetworkProperties routeNetworkProperties,
+                         final RouteNetwork routeNetwork, final TimetableRepository timetableRepository,
+                         final SearchPopularity searchPopularity, final Executor executor) {
+        this(properties, routeNetworkProperties, routeNetwork, timetableRepository, searchPopularity, executor,
+            Clock.systemUTC());
+    }
+
+    SnapshotStore(final SnapshotProperties properties, final RouteNetworkProperties routeNetworkProperties,
+                  final RouteNetwork routeNetwork, final TimetableRepository timetableRepository,
+                  final SearchPopularity searchPopularity, final Executor executor, final Clock clock) {
+        this.properties = properties;
+        this.routeNetworkProperties = routeNetworkProperties;
+        this.routeNetwork = routeNetwork;
+        this.timetableRepository = timetableRepository;
+        this.searchPopularity = searchPopularity;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public void restore() {
+
+        if (!properties.isEnabled() || !Files.exists(properties.getPath())) {
+            return;
+        }
+
+        final Try<TimetableSnapshot> opened = Try.of(() -> TimetableSnapshot.open(properties.getPath()))
+            .onFailure(e -> log.warn("Could not read the snapshot, starting cold", e));
+        if (opened.isFailure()) {
+            return;
+        }
+
+        final TimetableSnapshot snapshot = opened.get();
+        final Duration age = Duration.between(snapshot.getWrittenAt(), clock.instant());
+        if (age.compareTo(properties.getMaxAge()) > 0) {
+            log.info("Snapshot is %s old, starting cold".formatted(age));
+            return;
+        }
+
+        if (routeNetworkProperties.isEnabled()) {
+            routeNetwork.restore(snapshot.getRouteGraph());
+        }
+        timetableRepository.restoreFrom(snapshot);
+        searchPopularity.restore(snapshot.getPopularity(), age);
+        reloading.set(true);
+        log.info("Snapshot restored : months : %d, age : %s".formatted(snapshot.keys().size(), age));
+        executor.execute(() -> reload(snapshot));
+    }
+
+    /**
+     * Skipped while a restored snapshot is being reloaded, since memory then holds only the months reloaded so far.
+     */
+    public void save() {
+
+        if (!properties.isEnabled() || reloading.get()) {
+            return;
+        }
+
+        final YearMonth current = YearMonth.now(clock);
+        final List<MonthTimetable> months = timetableRepository.cached().stream()
+            .filter(month -> !YearMonth.of(month.getYear(), month.getMonth()).isBefore(current))
+            .collect(Collectors.toList());
+        final RouteGraph graph = routeNetwork.getGraph();
+        final Map<ScheduleKey, Double> popularity = searchPopularity.scores();
+        if (months.isEmpty() && graph.routes() == 0 && popularity.isEmpty()) {
+            return;
+        }
+
+        Try.run(() -> TimetableSnapshot.write(properties.getPath(), graph, months, popularity, clock.instant()))
+            .onSuccess(ignored -> log.debug("Snapshot written : months : %d, routes : %d"
+                .formatted(months.size(), graph.routes())))
+            .onFailure(e -> log.warn("Could not write the snapshot", e));
+    }
+
+    public boolean isReloading() {
+        return reloading.get();
+    }
+
+    private void reload(final TimetableSnapshot snapshot) {
+
+        final YearMonth current = YearMonth.now(clock);
+        final List<ScheduleKey> keys = snapshot.keys().stream()
+            .filter(key -> !YearMonth.of(key.getYear(), key.getMonth()).isBefore(current))
+            .sorted(Comparator.comparingInt(ScheduleKey::getYear).thenComparingInt(ScheduleKey::getMonth))
+            .collect(Collectors.toList());
+
+        int reloaded = 0;
+        try {
+            for (ScheduleKey key : keys) {
+                if (Try.of(() -> timetableRepository.reload(key)).getOrElse(false)) {
+                    reloaded++;
+                } else {
+                    timetableRepository.get(key);
+                }
+            }
+        } finally {
+            timetableRepository.releaseSnapshot();
+            reloading.set(false);
+        }
+        log.info("Snapshot reloaded : months : %d of %d".formatted(reloaded, keys.size()));
+    }
+}
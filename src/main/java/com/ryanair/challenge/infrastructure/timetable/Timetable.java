@@ -0,0 +1,22 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@AllArgsConstructor
+public class Timetable {
+
+    private final Map<ScheduleKey, MonthTimetable> schedules;
+    /**
+     * Months neither cached nor restorable when the fetch started.
+     */
+    @Getter
+    private final int executedCalls;
+
+    public MonthTimetable get(final ScheduleKey key) {
+        final MonthTimetable timetable = schedules.get(key);
+        return timetable == null ? MonthTimetable.empty(key) : timetable;
+    }
+}
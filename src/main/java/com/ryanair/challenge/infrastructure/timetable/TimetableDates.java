@@ -0,0 +1,92 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Times are local airport times, handled as UTC so that no time zone rules are applied.
+ */
+@UtilityClass
+public class TimetableDates {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int INVALID = -1;
+
+    /**
+     * -1 when it is not a valid time.
+     */
+    public int parseMinuteOfDay(final String time) {
+        if (time == null || time.length() != 5 || time.charAt(2) != ':') {
+            return INVALID;
+        }
+        final int hour = digits(time.charAt(0), time.charAt(1));
+        final int minute = digits(time.charAt(3), time.charAt(4));
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return INVALID;
+        }
+        return hour * 60 + minute;
+    }
+
+    public int epochMinute(final LocalDate date) {
+        return Math.toIntExact(date.toEpochDay() * MINUTES_PER_DAY);
+    }
+
+    public LocalDate date(final int epochMinute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+    }
+
+    public long epochSecond(final LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Same output as {@link LocalDateTime#toString()} for a time without seconds.
+     */
+    public String format(final int epochMinute) {
+
+        final int epochDay = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        final int minuteOfDay = Math.floorMod(epochMinute, MINUTES_PER_DAY);
+
+        // days to civil date, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        final int z = epochDay + 719468;
+        final int era = Math.floorDiv(z, 146097);
+        final int dayOfEra = z - era * 146097;
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        final int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        final int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        final char[] chars = new char[16];
+        chars[0] = (char) ('0' + year / 1000 % 10);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        chars[4] = '-';
+        twoDigits(chars, 5, month);
+        chars[7] = '-';
+        twoDigits(chars, 8, day);
+        chars[10] = 'T';
+        twoDigits(chars, 11, minuteOfDay / 60);
+        chars[13] = ':';
+        twoDigits(chars, 14, minuteOfDay % 60);
+        return new String(chars);
+    }
+
+    private int digits(final char tens, final char units) {
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return INVALID;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private void twoDigits(final char[] chars, final int offset, final int value) {
+        chars[offset] = (char) ('0' + value / 10);
+        chars[offset + 1] = (char) ('0' + value % 10);
+    }
+}
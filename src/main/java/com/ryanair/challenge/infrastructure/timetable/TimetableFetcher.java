@@ -0,0 +1,78 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import io.vavr.control.Try;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@AllArgsConstructor
+public class TimetableFetcher {
+
+    private final TimetableRepository timetableRepository;
+    private final ParallelFetcher parallelFetcher;
+
+    public Timetable fetch(final FetchPlan plan) {
+
+        final int uncached = countUncached(plan.getKeys());
+        final Map<ScheduleKey, MonthTimetable> schedules = parallelFetcher.fetchAll(plan.getKeys(), timetableRepository::get);
+
+        return new Timetable(schedules, uncached);
+    }
+
+    public Set<ScheduleKey> uncached(final Collection<ScheduleKey> keys) {
+        return timetableRepository.uncached(keys);
+    }
+
+    public int countUncached(final Collection<ScheduleKey> keys) {
+        return uncached(keys).size();
+    }
+
+    public CompletableFuture<Timetable> fetchAsync(final FetchPlan plan) {
+        final int uncached = countUncached(plan.getKeys());
+        return collect(startAsync(plan), uncached);
+    }
+
+    public Map<ScheduleKey, CompletableFuture<MonthTimetable>> startAsync(final FetchPlan plan) {
+
+        final Map<ScheduleKey, CompletableFuture<MonthTimetable>> futures = new LinkedHashMap<>();
+        plan.getKeys().forEach(key -> futures.put(key, timetableRepository.getAsync(key)));
+        return futures;
+    }
+
+    public CompletableFuture<Timetable> collect(final Map<ScheduleKey, CompletableFuture<MonthTimetable>> futures) {
+        return collect(futures, 0);
+    }
+
+    private CompletableFuture<Timetable> collect(final Map<ScheduleKey, CompletableFuture<MonthTimetable>> futures,
+                                                 final int executedCalls) {
+
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+            .thenApply(done -> {
+                final Map<ScheduleKey, MonthTimetable> schedules = new LinkedHashMap<>();
+                futures.forEach((key, future) -> schedules.put(key, future.join()));
+                return new Timetable(schedules, executedCalls);
+            });
+    }
+
+    public Map<ScheduleKey, Try<MonthTimetable>> fetchEach(final Collection<ScheduleKey> keys) {
+        return parallelFetcher.fetchEach(keys, timetableRepository::get);
+    }
+
+    /**
+     * Throws the failure of any key the search needs.
+     */
+    public Timetable timetableFor(final FetchPlan plan, final Map<ScheduleKey, Try<MonthTimetable>> fetched) {
+
+        final Map<ScheduleKey, MonthTimetable> schedules = new HashMap<>();
+        plan.getKeys().forEach(key -> schedules.put(key, fetched.get(key).get()));
+
+        return new Timetable(schedules, 0);
+    }
+}
@@ -0,0 +1,194 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps decoded month timetables in memory, bounded by the number of flights held. Months further ahead are kept
+ * for longer, and months decoded from a stale schedule are returned but never kept. Checking what is cached does
+ * not count as a cache read.
+ */
+public class TimetableRepository {
+
+    private static final String CACHE_NAME = "ryanair.schedules";
+
+    private final AsyncLoadingCache<ScheduleKey, MonthTimetable> timetables;
+    private final RyanairScheduleClient ryanairScheduleClient;
+    private final RyanairAsyncClient ryanairAsyncClient;
+    private final Timer decoding;
+    private volatile TimetableSnapshot snapshot;
+
+    public TimetableRepository(final RyanairScheduleClient ryanairScheduleClient,
+                               final RyanairAsyncClient ryanairAsyncClient,
+                               final RyanairCacheProperties.Schedules properties,
+                               final Executor executor, final MeterRegistry meterRegistry) {
+        this(ryanairScheduleClient, ryanairAsyncClient, properties, executor, meterRegistry, Ticker.systemTicker(),
+            Clock.systemUTC());
+    }
+
+    TimetableRepository(final RyanairScheduleClient ryanairScheduleClient, final RyanairAsyncClient ryanairAsyncClient,
+                        final RyanairCacheProperties.Schedules properties,
+                        final Executor executor, final MeterRegistry meterRegistry,
+                        final Ticker ticker, final Clock clock) {
+        this.ryanairScheduleClient = ryanairScheduleClient;
+        this.ryanairAsyncClient = ryanairAsyncClient;
+        this.decoding = SearchMetrics.stageTimer(meterRegistry, SearchMetrics.Stage.DECODE);
+        this.timetables = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumWeight())
+            .weigher((ScheduleKey key, MonthTimetable timetable) -> Math.max(1, timetable.size()))
+            .expireAfter(new HorizonExpiry(properties, clock))
+            .executor(executor)
+            .ticker(ticker)
+            .recordStats()
+            .buildAsync((ScheduleKey key, Executor loader) -> loadAsync(key));
+        CaffeineCacheMetrics.monitor(meterRegistry, timetables.synchronous(), CACHE_NAME);
+    }
+
+    public MonthTimetable get(final ScheduleKey key) {
+        return keptIfFresh(key, BlockingLoad.get(timetables, key, this::load));
+    }
+
+    public CompletableFuture<MonthTimetable> getAsync(final ScheduleKey key) {
+        return timetables.get(key).thenApply(timetable -> keptIfFresh(key, timetable));
+    }
+
+    public Set<ScheduleKey> uncached(final Collection<ScheduleKey> keys) {
+        return keys.stream()
+            .filter(key -> !isCached(key) && !isRestorable(key))
+            .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public boolean isCached(final ScheduleKey key) {
+        return timetables.asMap().containsKey(key);
+    }
+
+    public boolean isCachedFor(final ScheduleKey key, final Duration ahead) {
+        return timetables.synchronous().policy().expireVariably()
+            .map(expiry -> expiry.getExpiresAfter(key, TimeUnit.NANOSECONDS).orElse(0) > ahead.toNanos())
+            .orElse(false);
+    }
+
+    public boolean isRestorable(final ScheduleKey key) {
+        final TimetableSnapshot current = snapshot;
+        return Objects.nonNull(current) && current.keys().contains(key);
+    }
+
+    public void invalidateAll() {
+        timetables.synchronous().invalidateAll();
+    }
+
+    public void restoreFrom(final TimetableSnapshot restored) {
+        snapshot = restored;
+    }
+
+    public void releaseSnapshot() {
+        snapshot = null;
+    }
+
+    /**
+     * Returns whether the month was replaced, which it is not when the upstream could only give a stale schedule.
+     */
+    public boolean reload(final ScheduleKey key) {
+        final MonthTimetable fetched = fetch(key);
+        if (!fetched.isStale()) {
+            timetables.put(key, CompletableFuture.completedFuture(fetched));
+        }
+        return !fetched.isStale();
+    }
+
+    public Collection<MonthTimetable> cached() {
+        return timetables.asMap().values().stream()
+            .filter(timetable -> timetable.isDone() && !timetable.isCompletedExceptionally())
+            .map(CompletableFuture::join)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private MonthTimetable keptIfFresh(final ScheduleKey key, final MonthTimetable timetable) {
+        if (timetable.isStale()) {
+            timetables.synchronous().invalidate(key);
+        }
+        return timetable;
+    }
+
+    private MonthTimetable load(final ScheduleKey key) {
+        return Objects.requireNonNullElseGet(restored(key), () -> fetch(key));
+    }
+
+    private CompletableFuture<MonthTimetable> loadAsync(final ScheduleKey key) {
+        final MonthTimetable restored = restored(key);
+        if (Objects.nonNull(restored)) {
+            return CompletableFuture.completedFuture(restored);
+        }
+        return ryanairAsyncClient.getSchedule(key.getFrom(), key.getTo(), key.getYear(), key.getMonth())
+            .thenApply(schedule -> decode(key, schedule));
+    }
+
+    private MonthTimetable restored(final ScheduleKey key) {
+        final TimetableSnapshot current = snapshot;
+        return Objects.isNull(current) ? null : current.find(key);
+    }
+
+    private MonthTimetable fetch(final ScheduleKey key) {
+        return decode(key,
+            ryanairScheduleClient.getSchedule(key.getFrom(), key.getTo(), key.getYear(), key.getMonth()));
+    }
+
+    private MonthTimetable decode(final ScheduleKey key, final ScheduleDTO schedule) {
+        return decoding.record(() -> MonthTimetable.decode(key, schedule));
+    }
+
+    private static final class HorizonExpiry implements Expiry<ScheduleKey, MonthTimetable> {
+
+        private final long baseTtl;
+        private final long maxTtl;
+        private final Clock clock;
+
+        private HorizonExpiry(final RyanairCacheProperties.Schedules properties, final Clock clock) {
+            this.baseTtl = properties.getBaseTtl().toNanos();
+            this.maxTtl = properties.getMaxTtl().toNanos();
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(final ScheduleKey key, final MonthTimetable value, final long currentTime) {
+            final long monthsAhead = Math.max(0, ChronoUnit.MONTHS.between(YearMonth.now(clock),
+                YearMonth.of(key.getYear(), key.getMonth())));
+            return Math.min(maxTtl, baseTtl * (monthsAhead + 1));
+        }
+
+        @Override
+        public long expireAfterUpdate(final ScheduleKey key, final MonthTimetable value, final long currentTime,
+                                      final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final ScheduleKey key, final MonthTimetable value, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.network.RouteGraph;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Route graph, month timetables and search popularity of an earlier run, kept in one binary file. The file is
+ * memory mapped and only its header, string table, route list and popularity are read when it is opened; a month
+ * is copied out of the mapping the first time it is asked for, so opening costs the same however many months the
+ * file holds.
+ *
+ * <p>Layout, big endian: magic, version, write time in epoch millis, the string table as UTF-8 with a two byte
+ * length, the routes as pairs of string ids, every month as from, to, year, month and flight count followed by its
+ * day offsets and its departure, arrival, carrier and number columns, and last the popularity as from, to, year,
+ * month and score. Missing carriers and numbers are stored as id -1.
+ */
+public final class TimetableSnapshot {
+
+    private static final int MAGIC = 0x52594E53;
+    private static final int VERSION = 2;
+    private static final int DAY_OFFSETS = 33;
+    private static final int MISSING = -1;
+    private static final int MONTH_HEADER_BYTES = 5 * Integer.BYTES;
+
+    @Getter
+    private final Instant writtenAt;
+    @Getter
+    private final RouteGraph routeGraph;
+    /**
+     * Decayed number of searches of each route and month when the snapshot was written.
+     */
+    @Getter
+    private final Map<ScheduleKey, Double> popularity;
+    private final ByteBuffer mapped;
+    private final String[] strings;
+    private final Map<ScheduleKey, Integer> offsets;
+
+    private TimetableSnapshot(final Instant writtenAt, final RouteGraph routeGraph,
+                              final Map<ScheduleKey, Double> popularity, final ByteBuffer mapped,
+                              final String[] strings, final Map<ScheduleKey, Integer> offsets) {
+        this.writtenAt = writtenAt;
+        this.routeGraph = routeGraph;
+        this.popularity = popularity;
+        this.mapped = mapped;
+        this.strings = strings;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Maps the file and indexes its months. Fails with {@link IOException} when the file is not a snapshot of this
+     * version or is cut short.
+     */
+    public static TimetableSnapshot open(final Path path) throws IOException {
+
+        final ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            final ByteBuffer reader = mapped.duplicate();
+            if (reader.getInt() != MAGIC || reader.getInt() != VERSION) {
+                throw new IOException("%s is not a timetable snapshot".formatted(path));
+            }
+            final Instant writtenAt = Instant.ofEpochMilli(reader.getLong());
+
+            final String[] strings = new String[reader.getInt()];
+            for (int id = 0; id < strings.length; id++) {
+                final byte[] bytes = new byte[Short.toUnsignedInt(reader.getShort())];
+                reader.get(bytes);
+                strings[id] = new String(bytes, StandardCharsets.UTF_8).intern();
+            }
+
+            final List<RouteDTO> routes = new ArrayList<>();
+            for (int count = reader.getInt(); count > 0; count--) {
+                routes.add(RouteDTO.builder()
+                    .airportFrom(strings[reader.getInt()])
+                    .airportTo(strings[reader.getInt()])
+                    .operator("RYANAIR")
+                    .build());
+            }
+
+            final Map<ScheduleKey, Integer> offsets = new HashMap<>();
+            for (int count = reader.getInt(); count > 0; count--) {
+                final int offset = reader.position();
+                final ScheduleKey key = ScheduleKey.of(strings[reader.getInt()], strings[reader.getInt()],
+                    reader.getInt(), reader.getInt());
+                final int size = reader.getInt();
+                reader.position(offset + MONTH_HEADER_BYTES + (DAY_OFFSETS + 4 * size) * Integer.BYTES);
+                offsets.put(key, offset);
+            }
+
+            final Map<ScheduleKey, Double> popularity = new HashMap<>();
+            for (int count = reader.getInt(); count > 0; count--) {
+                popularity.put(ScheduleKey.of(strings[reader.getInt()], strings[reader.getInt()],
+                    reader.getInt(), reader.getInt()), reader.getDouble());
+            }
+
+            return new TimetableSnapshot(writtenAt, RouteGraph.of(routes), Collections.unmodifiableMap(popularity),
+                mapped, strings, offsets);
+        } catch (RuntimeException e) {
+            throw new IOException("%s is not a readable timetable snapshot".formatted(path), e);
+        }
+    }
+
+    /**
+     * Writes the graph, the months and the popularity to a file next to {@code path} and then moves it over
+     * {@code path}, so a reader never sees a half written snapshot.
+     */
+    public static void write(final Path path, final RouteGraph routeGraph, final Collection<MonthTimetable> months,
+                             final Map<ScheduleKey, Double> popularity, final Instant writtenAt) throws IOException {
+
+        final Map<String, Integer> ids = new LinkedHashMap<>();
+        final List<int[]> routes = new ArrayList<>();
+        routeGraph.forEachRoute((from, to) -> routes.add(new int[]{id(ids, from), id(ids, to)}));
+        for (MonthTimetable month : months) {
+            id(ids, month.getFrom());
+            id(ids, month.getTo());
+            for (int flight = 0; flight < month.size(); flight++) {
+                id(ids, month.carrier(flight));
+                id(ids, month.number(flight));
+            }
+        }
+        popularity.keySet().forEach(key -> {
+            id(ids, key.getFrom());
+            id(ids, key.getTo());
+        });
+
+        final Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(writtenAt.toEpochMilli());
+
+                out.writeInt(ids.size());
+                for (String value : ids.keySet()) {
+                    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                }
+
+                out.writeInt(routes.size());
+                for (int[] route : routes) {
+                    out.writeInt(route[0]);
+                    out.writeInt(route[1]);
+                }
+
+                out.writeInt(months.size());
+                for (MonthTimetable month : months) {
+                    writeMonth(out, ids, month);
+                }
+
+                out.writeInt(popularity.size());
+                for (Map.Entry<ScheduleKey, Double> popular : popularity.entrySet()) {
+                    out.writeInt(ids.get(popular.getKey().getFrom()));
+                    out.writeInt(ids.get(popular.getKey().getTo()));
+                    out.writeInt(popular.getKey().getYear());
+                    out.writeInt(popular.getKey().getMonth());
+                    out.writeDouble(popular.getValue());
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public Set<ScheduleKey> keys() {
+        return Collections.unmodifiableSet(offsets.keySet());
+    }
+
+    /**
+     * Copies the month out of the mapping, or returns null when the snapshot does not hold it.
+     */
+    public MonthTimetable find(final ScheduleKey key) {
+
+        final Integer offset = offsets.get(key);
+        if (Objects.isNull(offset)) {
+            return null;
+        }
+
+        final ByteBuffer reader = mapped.duplicate();
+        reader.position(offset + MONTH_HEADER_BYTES - Integer.BYTES);
+        final int size = reader.getInt();
+        final IntBuffer columns = reader.asIntBuffer();
+
+        final int[] dayStart = new int[DAY_OFFSETS];
+        final int[] departures = new int[size];
+        final int[] arrivals = new int[size];
+        final int[] carrierIds = new int[size];
+        final int[] numberIds = new int[size];
+        columns.get(dayStart).get(departures).get(arrivals).get(carrierIds).get(numberIds);
+
+        return MonthTimetable.restore(key, dayStart, departures, arrivals, strings(carrierIds), strings(numberIds));
+    }
+
+    private String[] strings(final int[] ids) {
+        final String[] values = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = ids[i] == MISSING ? null : strings[ids[i]];
+        }
+        return values;
+    }
+
+    private static void writeMonth(final DataOutputStream out, final Map<String, Integer> ids,
+                                   final MonthTimetable month) throws IOException {
+
+        out.writeInt(ids.get(month.getFrom()));
+        out.writeInt(ids.get(month.getTo()));
+        out.writeInt(month.getYear());
+        out.writeInt(month.getMonth());
+        out.writeInt(month.size());
+
+        for (int day = 0; day < DAY_OFFSETS - 1; day++) {
+            out.writeInt(month.firstOfDay(day));
+        }
+        out.writeInt(month.endOfDay(DAY_OFFSETS - 2));
+        for (int flight = 0; flight < month.size(); flight++) {
+            out.writeInt(month.departure(flight));
+        }
+        for (int flight = 0; flight < month.size(); flight++) {
+            out.writeInt(month.arrival(flight));
+        }
+        for (int flight = 0; flight < month.size(); flight++) {
+            out.writeInt(id(ids, month.carrier(flight)));
+        }
+        for (int flight = 0; flight < month.size(); flight++) {
+            out.writeInt(id(ids, month.number(flight)));
+        }
+    }
+
+    private static int id(final Map<String, Integer> ids, final String value) {
+        return Objects.isNull(value) ? MISSING : ids.computeIfAbsent(value, ignored -> ids.size());
+    }
+}
@@ -0,0 +1,171 @@
+package com.ryanair.challenge.infrastructure.warmup;
+
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlanner;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
+import io.vavr.control.Try;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the schedules of the most searched route months before users ask for them, with a bounded number of
+ * upstream calls per run. It reports warm once a run found a whole hot set cached, and stays warm from then on.
+ */
+@Slf4j
+public class CacheWarmer {
+
+    private static final String RYANAIR = "RYANAIR";
+
+    private final WarmupProperties properties;
+    private final SearchPopularity searchPopularity;
+    private final RouteNetwork routeNetwork;
+    private final RouteRepository routeRepository;
+    private final FetchPlanner fetchPlanner;
+    private final TimetableRepository timetableRepository;
+    private final Clock clock;
+    private final Instant started;
+
+    private volatile boolean warm;
+    @Getter
+    private volatile int hotRouteMonths;
+    @Getter
+    private volatile int pendingSchedules;
+    private Instant lastRun;
+
+    public CacheWarmer(final WarmupProperties properties, final SearchPopularity searchPopularity,
+                       final RouteNetwork routeNetwork, final RouteRepository routeRepository,
+                       final FetchPlanner fetchPlanner, final TimetableRepository timetableRepository) {
+        this(properties, searchPopularity, routeNetwork, routeRepository, fetchPlanner, timetableRepository,
+            Clock.systemUTC());
+    }
+
+    CacheWarmer(final WarmupProperties properties, final SearchPopularity searchPopularity,
+                final RouteNetwork routeNetwork, final RouteRepository routeRepository,
+                final FetchPlanner fetchPlanner, final TimetableRepository timetableRepository, final Clock clock) {
+        this.properties = properties;
+        this.searchPopularity = searchPopularity;
+        this.routeNetwork = routeNetwork;
+        this.routeRepository = routeRepository;
+        this.fetchPlanner = fetchPlanner;
+        this.timetableRepository = timetableRepository;
+        this.clock = clock;
+        this.started = clock.instant();
+    }
+
+    public boolean isWarm() {
+        return !properties.isEnabled() || warm;
+    }
+
+    public void warm() {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        final Instant now = clock.instant();
+        if (Objects.nonNull(lastRun)) {
+            searchPopularity.decay(Duration.between(lastRun, now));
+        }
+        lastRun = now;
+
+        final YearMonth current = YearMonth.now(clock);
+        final List<ScheduleKey> hottest = searchPopularity.hottest().stream()
+            .filter(hot -> !YearMonth.of(hot.getYear(), hot.getMonth()).isBefore(current))
+            .collect(Collectors.toList());
+
+        final Run run = new Run(properties.getMaxFetchesPerRun());
+        for (ScheduleKey hot : hottest) {
+            routesOf(hot, run).ifPresent(routes -> fetchPlanner.plan(searchOver(hot), routes).getKeys()
+                .forEach(key -> warm(key, run)));
+        }
+
+        hotRouteMonths = hottest.size();
+        pendingSchedules = run.pending;
+        if (!warm && run.pending == 0 && (!hottest.isEmpty() || knowsWhatToWarm(now))) {
+            warm = true;
+            log.info("Hot set warm : route months : %d".formatted(hottest.size()));
+        }
+        log.debug("Warm up run : route months : %d, upstream calls : %d, pending : %d"
+            .formatted(hottest.size(), properties.getMaxFetchesPerRun() - run.calls, run.pending));
+    }
+
+    private boolean knowsWhatToWarm(final Instant now) {
+        return searchPopularity.isRestored()
+            || !now.isBefore(started.plus(properties.getColdStartTimeout()));
+    }
+
+    private Optional<List<RouteDTO>> routesOf(final ScheduleKey hot, final Run run) {
+
+        final Optional<List<RouteDTO>> known = routeNetwork.routesBetween(hot.getFrom(), hot.getTo());
+        if (known.isPresent()) {
+            return known;
+        }
+        if (!routeRepository.isCached(hot.getFrom()) && !run.call()) {
+            run.pending++;
+            return Optional.empty();
+        }
+        return Try.of(() -> routeRepository.get(hot.getFrom()))
+            .map(routes -> routes.stream()
+                .filter(route -> RYANAIR.equals(route.getOperator()) && hot.getTo().equals(route.getAirportTo()))
+                .collect(Collectors.toList()))
+            .onFailure(e -> run.pending++)
+            .toJavaOptional();
+    }
+
+    private void warm(final ScheduleKey key, final Run run) {
+
+        if (timetableRepository.isCachedFor(key, properties.getRefreshAhead())) {
+            return;
+        }
+        if (!timetableRepository.isCached(key) && timetableRepository.isRestorable(key)) {
+            timetableRepository.get(key);
+            return;
+        }
+        if (!run.call() || !Try.of(() -> timetableRepository.reload(key)).getOrElse(false)) {
+            run.pending++;
+        }
+    }
+
+    private BookFlightRequest searchOver(final ScheduleKey hot) {
+        final YearMonth month = YearMonth.of(hot.getYear(), hot.getMonth());
+        return BookFlightRequest.builder()
+            .departure(hot.getFrom())
+            .arrival(hot.getTo())
+            .departureDateTime(month.atDay(1).atStartOfDay())
+            .arrivalDateTime(month.atEndOfMonth().atTime(LocalTime.MAX))
+            .build();
+    }
+
+    private static final class Run {
+
+        private int calls;
+        private int pending;
+
+        private Run(final int calls) {
+            this.calls = calls;
+        }
+
+        private boolean call() {
+            if (calls == 0) {
+                return false;
+            }
+            calls--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ryanair.challenge.infrastructure.warmup;
+
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Decaying count of the searches made on each route and month. Every score halves once per half life.
+ */
+public class SearchPopularity {
+
+    private static final double FORGOTTEN = 0.1;
+
+    private final WarmupProperties properties;
+    private final ConcurrentMap<ScheduleKey, Double> scores = new ConcurrentHashMap<>();
+    private volatile boolean restored;
+
+    public SearchPopularity(final WarmupProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Counts a search. Once the tracked route months reach their maximum only the ones already tracked are counted.
+     */
+    public void record(final String departure, final String arrival, final Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            final ScheduleKey key = ScheduleKey.of(departure, arrival, month);
+            if (scores.size() < properties.getMaxTracked()) {
+                scores.merge(key, 1.0, Double::sum);
+            } else {
+                scores.computeIfPresent(key, (ignored, score) -> score + 1);
+            }
+        }
+    }
+
+    public void decay(final Duration elapsed) {
+        final double factor = factor(elapsed);
+        scores.replaceAll((key, score) -> score * factor);
+        scores.values().removeIf(score -> score < FORGOTTEN);
+    }
+
+    public List<ScheduleKey> hottest() {
+        return scores.entrySet().stream()
+            .filter(entry -> entry.getValue() >= properties.getMinScore())
+            .sorted(Map.Entry.<ScheduleKey, Double>comparingByValue().reversed())
+            .limit(properties.getHotSetSize())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    public Map<ScheduleKey, Double> scores() {
+        return Map.copyOf(scores);
+    }
+
+    public void restore(final Map<ScheduleKey, Double> restored, final Duration age) {
+        final double factor = factor(age);
+        restored.forEach((key, score) -> scores.merge(key, score * factor, Double::sum));
+        this.restored = true;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    private double factor(final Duration elapsed) {
+        return Math.pow(0.5, (double) elapsed.toNanos() / properties.getHalfLife().toNanos());
+    }
+}
@@ -0,0 +1,26 @@
+package com.ryanair.challenge.infrastructure.warmup;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Warming up until the {@link CacheWarmer} has warmed the hot set. Only the readiness group answers that status
+ * with 503, see application.yml.
+ */
+@AllArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    public static final Status WARMING_UP = new Status("WARMING_UP", "The hot set is not warm yet");
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        return (cacheWarmer.isWarm() ? Health.up() : Health.status(WARMING_UP))
+            .withDetail("hotRouteMonths", cacheWarmer.getHotRouteMonths())
+            .withDetail("pendingSchedules", cacheWarmer.getPendingSchedules())
+            .build();
+    }
+}
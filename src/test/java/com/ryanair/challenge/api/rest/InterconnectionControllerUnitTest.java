@@ -1,36 +1,83 @@
 package com.ryanair.challenge.api.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ryanair.challenge.api.model.BookFlightRequestDTO;
 import com.ryanair.challenge.api.model.FlightDTO;
 import com.ryanair.challenge.api.rest.response.GenericResponse;
+import com.ryanair.challenge.api.rest.response.SearchResultCache;
 import com.ryanair.challenge.application.GetFlights;
+import com.ryanair.challenge.application.GetFlightsAsync;
+import com.ryanair.challenge.application.GetFlightsBatch;
+import com.ryanair.challenge.application.StreamFlights;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.configuration.WarmupProperties;
 import com.ryanair.challenge.domain.exception.BookFlightServiceException;
 import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.Leg;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.control.Either;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import javax.validation.Validation;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static com.ryanair.challenge.util.Constants.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 class InterconnectionControllerUnitTest {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String FLIGHTS_URI =
+        "/ryanair/flights?departure=BCN&arrival=BUD&departureDateTime=2021-06-16T06:19&arrivalDateTime=2021-06-16T23:59";
+
     private InterconnectionController interconnectionController;
     private GetFlights getFlights;
+    private GetFlightsAsync getFlightsAsync;
+    private GetFlightsBatch getFlightsBatch;
+    private StreamFlights streamFlights;
+    private SearchProperties searchProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         getFlights = mock(GetFlights.class);
-        interconnectionController = new InterconnectionController(getFlights);
+        getFlightsAsync = mock(GetFlightsAsync.class);
+        getFlightsBatch = mock(GetFlightsBatch.class);
+        streamFlights = mock(StreamFlights.class);
+        searchProperties = new SearchProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        final SearchMetrics searchMetrics = new SearchMetrics(meterRegistry);
+        interconnectionController = new InterconnectionController(getFlights, getFlightsAsync, getFlightsBatch,
+            streamFlights, Validation.buildDefaultValidatorFactory().getValidator(), searchProperties,
+            searchMetrics,
+            new SearchResultCache(new RyanairCacheProperties.Results(), searchProperties,
+                new SearchPopularity(new WarmupProperties()), searchMetrics, meterRegistry));
+        mockMvc = MockMvcBuilders.standaloneSetup(interconnectionController).build();
     }
 
     @Test
-    void should_return_not_found_if_the_route_is_not_present() {
+    void should_return_not_found_if_the_route_is_not_present() throws Exception {
 
         assertThat(interconnectionController).isNotNull();
 
@@ -39,51 +86,95 @@ class InterconnectionControllerUnitTest {
             .thenReturn(Either.left(new BookFlightServiceException(ROUTE_NOT_FOUND)));
 
         // WHEN
-        GenericResponse<List<FlightDTO>> flights =
-            interconnectionController.getFlights(BookFlightRequestDTO.builder().build());
+        JsonNode flights = getFlights(FLIGHTS_URI);
 
         // THEN
         verify(getFlights).apply(any());
 
-        assertThat(flights)
-            .isInstanceOf(GenericResponse.class)
-            .extracting("error")
-            .hasFieldOrPropertyWithValue("code", HttpStatus.NOT_FOUND.value())
-            .hasFieldOrPropertyWithValue("message", "Route not found");
+        assertThat(flights.at("/error/code").asInt()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(flights.at("/error/message").asText()).isEqualTo("Route not found");
     }
 
     @Test
-    void should_return_not_found_if_the_schedule_is_not_present() {
+    void should_return_not_found_if_the_schedule_is_not_present() throws Exception {
 
         // GIVEN
         when(getFlights.apply(any(BookFlightRequest.class)))
             .thenReturn(Either.left(new BookFlightServiceException(SCHEDULE_NOT_FOUND)));
 
         // WHEN
-        GenericResponse<List<FlightDTO>> flights =
-            interconnectionController.getFlights(BookFlightRequestDTO.builder().build());
+        JsonNode flights = getFlights(FLIGHTS_URI);
 
         // THEN
         verify(getFlights).apply(any());
 
-        assertThat(flights)
-            .isInstanceOf(GenericResponse.class)
-            .extracting("error")
-            .hasFieldOrPropertyWithValue("code", HttpStatus.NOT_FOUND.value())
-            .hasFieldOrPropertyWithValue("message", SCHEDULE_NOT_FOUND);
+        assertThat(flights.at("/error/code").asInt()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(flights.at("/error/message").asText()).isEqualTo(SCHEDULE_NOT_FOUND);
     }
 
     @Test
-    void should_return_valid_response_if_the_route_and_schedule_are_present() {
+    void should_return_valid_response_if_the_route_and_schedule_are_present() throws Exception {
 
         // GIVEN
         when(getFlights.apply(any(BookFlightRequest.class))).thenReturn(Either.right(validResponse()));
 
+        // WHEN
+        JsonNode flights = getFlights(FLIGHTS_URI);
+
+        // THEN
+        assertThat(flights.get("data")).hasSize(1);
+        assertThat(flights.at("/data/0/stops").asInt()).isZero();
+        assertThat(flights.at("/data/0").has("legs")).isTrue();
+    }
+
+    @Test
+    void should_return_the_next_cursor_when_the_page_is_full() throws Exception {
+
+        // GIVEN
+        when(getFlights.apply(any(BookFlightRequest.class))).thenReturn(Either.right(List.of(
+            flight("2021-06-16T07:00"), flight("2021-06-16T08:00"), flight("2021-06-16T09:00"),
+            flight("2021-06-16T10:00"), flight("2021-06-16T11:00"))));
+
+        // WHEN
+        JsonNode flights = getFlights(FLIGHTS_URI + "&limit=1&cursor=3");
+
+        // THEN
+        assertThat(flights.get("data")).hasSize(1);
+        assertThat(flights.at("/data/0/legs/0/departureDateTime").asText()).isEqualTo("2021-06-16T10:00");
+        assertThat(flights.get("nextCursor").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void should_answer_that_no_flight_is_available_without_searching_twice_when_none_is_inside_the_window()
+        throws Exception {
+
+        // GIVEN
+        when(getFlights.apply(any(BookFlightRequest.class)))
+            .thenReturn(Either.right(List.of(flight("2021-06-16T07:00"))));
+
+        // WHEN
+        JsonNode flights = getFlights(FLIGHTS_URI.replace("T06:19", "T09:30"));
+
+        // THEN
+        verify(getFlights, times(1)).apply(any());
+        assertThat(flights.at("/error/code").asInt()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(flights.at("/error/message").asText())
+            .isEqualTo("No flights available from BCN to BUD on this date");
+    }
+
+    @Test
+    void should_return_valid_response_asynchronously_if_the_route_and_schedule_are_present() {
+
+        // GIVEN
+        when(getFlightsAsync.apply(any(BookFlightRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(Either.right(validResponse())));
+
         // WHEN
         GenericResponse<List<FlightDTO>> flights =
-            interconnectionController.getFlights(BookFlightRequestDTO.builder().build());
+            interconnectionController.getFlightsAsync(BookFlightRequestDTO.builder().build()).join();
 
         // THEN
+        verifyNoInteractions(getFlights);
         assertThat(flights)
             .isInstanceOf(GenericResponse.class)
             .extracting("data")
@@ -93,4 +184,193 @@ class InterconnectionControllerUnitTest {
             .hasFieldOrProperty("legs");
     }
 
-}
\ No newline at end of file
+    @Test
+    void should_return_not_found_asynchronously_if_the_route_is_not_present() {
+
+        // GIVEN
+        when(getFlightsAsync.apply(any(BookFlightRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(Either.left(new BookFlightServiceException(ROUTE_NOT_FOUND))));
+
+        // WHEN
+        GenericResponse<List<FlightDTO>> flights =
+            interconnectionController.getFlightsAsync(BookFlightRequestDTO.builder().build()).join();
+
+        // THEN
+        assertThat(flights)
+            .extracting("error")
+            .hasFieldOrPropertyWithValue("code", HttpStatus.NOT_FOUND.value())
+            .hasFieldOrPropertyWithValue("message", "Route not found");
+    }
+
+    @Test
+    void should_answer_every_search_of_a_batch_in_order_with_its_own_error() {
+
+        // GIVEN
+        final BookFlightRequestDTO valid = BookFlightRequestDTO.builder().departure(BCN).arrival(DUB)
+            .departureDateTime(LocalDateTime.of(2021, 6, 16, 0, 1))
+            .arrivalDateTime(LocalDateTime.of(2021, 6, 16, 23, 59)).build();
+        final BookFlightRequestDTO invalid = BookFlightRequestDTO.builder().departure("BARCELONA").arrival(DUB)
+            .departureDateTime(LocalDateTime.of(2021, 6, 16, 0, 1))
+            .arrivalDateTime(LocalDateTime.of(2021, 6, 16, 23, 59)).build();
+        when(getFlightsBatch.apply(any())).thenReturn(List.of(
+            Either.right(validResponse()), Either.left(new BookFlightServiceException(ROUTE_NOT_FOUND))));
+
+        // WHEN
+        GenericResponse<List<GenericResponse<List<FlightDTO>>>> responses =
+            interconnectionController.getFlightsBatch(List.of(valid, invalid, valid));
+
+        // THEN
+        verify(getFlightsBatch).apply(argThat(requests -> requests.size() == 2));
+        assertThat(responses.getData()).hasSize(3);
+        assertThat(responses.getData().get(0).getData()).hasSize(1);
+        assertThat(responses.getData().get(1).getError())
+            .hasFieldOrPropertyWithValue("code", HttpStatus.BAD_REQUEST.value())
+            .hasFieldOrPropertyWithValue("message", "departure The IATA code should have 3 characters");
+        assertThat(responses.getData().get(2).getError())
+            .hasFieldOrPropertyWithValue("code", HttpStatus.NOT_FOUND.value())
+            .hasFieldOrPropertyWithValue("message", ROUTE_NOT_FOUND);
+    }
+
+    @Test
+    void should_reject_a_batch_larger_than_the_configured_size() {
+
+        // GIVEN
+        searchProperties.setMaxBatchSize(1);
+
+        // WHEN - THEN
+        assertThatThrownBy(() -> interconnectionController.getFlightsBatch(
+            List.of(BookFlightRequestDTO.builder().build(), BookFlightRequestDTO.builder().build())))
+            .isInstanceOf(BookFlightServiceException.class)
+            .hasMessage("A batch accepts at most 1 searches");
+        verifyNoInteractions(getFlightsBatch);
+    }
+
+    @Test
+    void should_stream_each_flight_as_a_json_line_when_accepting_ndjson() throws Exception {
+
+        // GIVEN
+        when(streamFlights.apply(any(), any())).thenAnswer(invocation -> {
+            final Consumer<Flight> sink = invocation.getArgument(1);
+            validResponse().forEach(sink);
+            validResponse().forEach(sink);
+            return CompletableFuture.completedFuture(Either.right(2));
+        });
+
+        // WHEN
+        MockHttpServletResponse response = mockMvc.perform(get(FLIGHTS_URI).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn().getResponse();
+
+        // THEN
+        verifyNoInteractions(getFlights);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(response.getContentAsString().split("\n"))
+            .hasSize(2)
+            .allMatch(line -> line.startsWith("{\"stops\":0,\"legs\":[{"));
+    }
+
+    @Test
+    void should_end_the_event_stream_with_an_error_event_when_the_route_is_not_present() throws Exception {
+
+        // GIVEN
+        when(streamFlights.apply(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(Either.left(new BookFlightServiceException(ROUTE_NOT_FOUND))));
+
+        // WHEN
+        MockHttpServletResponse response = mockMvc.perform(get(FLIGHTS_URI).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn().getResponse();
+
+        // THEN
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(response.getContentAsString())
+            .isEqualTo("event:error\ndata:{\"error\":{\"code\":404,\"message\":\"Route not found\"}}\n\n");
+    }
+
+    @Test
+    void should_reject_a_streamed_search_asking_for_a_sort_a_limit_or_a_cursor() throws Exception {
+
+        for (String paging : List.of("&sort=DURATION", "&limit=1", "&cursor=2")) {
+
+            // WHEN
+            MockHttpServletResponse response = mockMvc.perform(get(FLIGHTS_URI + paging)
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn().getResponse();
+
+            // THEN
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+            assertThat(response.getContentAsString()).isEqualTo(
+                "event:error\ndata:{\"error\":{\"code\":400,\"message\":\"A streamed search accepts no sort, limit " +
+                    "or cursor\"}}\n\n");
+        }
+        verifyNoInteractions(streamFlights);
+    }
+
+    @Test
+    void should_keep_answering_with_a_single_json_document_by_default() throws Exception {
+
+        // GIVEN
+        when(getFlights.apply(any(BookFlightRequest.class))).thenReturn(Either.right(validResponse()));
+
+        // WHEN
+        MockHttpServletResponse response = mockMvc.perform(get(FLIGHTS_URI).accept(MediaType.ALL))
+            .andReturn().getResponse();
+
+        // THEN
+        verifyNoInteractions(streamFlights);
+        assertThat(response.getContentAsString()).startsWith("{\"data\":[{\"stops\":0");
+    }
+
+    @Test
+    void should_answer_searches_of_the_same_day_from_one_search_with_an_etag() throws Exception {
+
+        // GIVEN
+        when(getFlights.apply(any(BookFlightRequest.class)))
+            .thenReturn(Either.right(List.of(flight("2021-06-16T07:00"), flight("2021-06-16T10:00"))));
+
+        // WHEN
+        MockHttpServletResponse whole = mockMvc.perform(get(FLIGHTS_URI)).andReturn().getResponse();
+        MockHttpServletResponse later = mockMvc.perform(get(FLIGHTS_URI.replace("T06:19", "T09:30")))
+            .andReturn().getResponse();
+
+        // THEN
+        verify(getFlights).apply(argThat(request ->
+            request.getDepartureDateTime().equals(LocalDateTime.of(2021, 6, 16, 0, 0))));
+        assertThat(whole.getContentAsString()).contains("2021-06-16T07:00", "2021-06-16T10:00");
+        assertThat(later.getContentAsString()).doesNotContain("2021-06-16T07:00").contains("2021-06-16T10:00");
+        assertThat(whole.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=30");
+        assertThat(whole.getHeader(HttpHeaders.ETAG)).startsWith("\"").isNotEqualTo(later.getHeader(HttpHeaders.ETAG));
+        assertThat(meterRegistry.get("ryanair.search.stage").tag("stage", "mapping").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void should_answer_a_matching_if_none_match_with_not_modified_without_searching() throws Exception {
+
+        // GIVEN
+        when(getFlights.apply(any(BookFlightRequest.class))).thenReturn(Either.right(validResponse()));
+        final String eTag = mockMvc.perform(get(FLIGHTS_URI)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // WHEN
+        MockHttpServletResponse response = mockMvc.perform(get(FLIGHTS_URI).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andReturn().getResponse();
+
+        // THEN
+        verify(getFlights, times(1)).apply(any());
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private JsonNode getFlights(final String uri) throws Exception {
+        return OBJECT_MAPPER.readTree(mockMvc.perform(get(uri)).andReturn().getResponse().getContentAsString());
+    }
+
+    private Flight flight(final String departureDateTime) {
+        final String arrivalDateTime = LocalDateTime.parse(departureDateTime).plusHours(2).toString();
+        return Flight.builder()
+            .stops(0)
+            .legs(List.of(Leg.builder().departureDateTime(departureDateTime).arrivalDateTime(arrivalDateTime)
+                .arrivalAirport(BUD).departureAirport(BCN).build()))
+            .departureEpochMinute(epochMinute(departureDateTime))
+            .arrivalEpochMinute(epochMinute(arrivalDateTime)).build();
+    }
+}
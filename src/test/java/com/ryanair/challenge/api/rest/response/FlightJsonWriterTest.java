@@ -0,0 +1,78 @@
+package com.ryanair.challenge.api.rest.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.api.mapper.FlightMapper;
+import com.ryanair.challenge.api.model.FlightDTO;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.Leg;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightJsonWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void should_write_the_same_json_as_the_object_mapper_for_the_mapped_flights() throws Exception {
+
+        //GIVEN
+        final List<Flight> flights = List.of(
+            validResponse().get(0),
+            Flight.builder().stops(1).stale(true).legs(List.of(
+                Leg.builder().departureAirport(BCN).arrivalAirport(DUB)
+                    .departureDateTime(T_06_19).arrivalDateTime(T_10_00).build(),
+                Leg.builder().departureAirport(DUB).arrivalAirport(CFU)
+                    .departureDateTime(T_12_30).arrivalDateTime(T_23_59).build())).build(),
+            Flight.builder().legs(List.of(
+                Leg.builder().departureAirport("Ré\"\\").arrivalDateTime("2021-06-16\n").build())).build());
+
+        //WHEN
+        final byte[] page = FlightJsonWriter.page(flights, 3);
+        final byte[] flight = FlightJsonWriter.flight(flights.get(1));
+
+        //THEN
+        assertThat(new String(page, StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(
+            GenericResponse.<List<FlightDTO>>builder()
+                .data(flights.stream().map(FlightMapper::toFlightDTO).collect(Collectors.toList()))
+                .nextCursor(3)
+                .build()));
+        assertThat(new String(flight, StandardCharsets.UTF_8))
+            .isEqualTo(objectMapper.writeValueAsString(FlightMapper.toFlightDTO(flights.get(1))));
+    }
+
+    @Test
+    void should_write_an_empty_page_without_a_next_cursor() throws Exception {
+
+        //WHEN
+        final byte[] page = FlightJsonWriter.body(0).end(null);
+
+        //THEN
+        assertThat(new String(page, StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(
+            GenericResponse.<List<FlightDTO>>builder().data(List.of()).build()));
+    }
+
+    @Test
+    void should_write_the_same_json_as_the_object_mapper_for_an_error() throws Exception {
+
+        //GIVEN
+        final GenericResponseError error = GenericResponseError.builder().code(404).message("No \"BCN\" route").build();
+        final GenericResponseError withoutCode = GenericResponseError.builder().message("Route not found").build();
+
+        //WHEN
+        final byte[] written = FlightJsonWriter.error(error);
+        final byte[] writtenWithoutCode = FlightJsonWriter.error(withoutCode);
+
+        //THEN
+        assertThat(new String(written, StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(
+            GenericResponse.builder().error(error).build()));
+        assertThat(new String(writtenWithoutCode, StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(
+            GenericResponse.builder().error(withoutCode).build()));
+    }
+}
@@ -0,0 +1,202 @@
+package com.ryanair.challenge.api.rest.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.FlightSort;
+import com.ryanair.challenge.domain.model.Leg;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nanos = new AtomicLong();
+    private List<BookFlightRequest> searched;
+    private SearchResultCache searchResultCache;
+
+    @BeforeEach
+    void setUp() {
+        searched = new ArrayList<>();
+        searchResultCache = new SearchResultCache(new RyanairCacheProperties.Results(), new SearchProperties(),
+            new SearchPopularity(new WarmupProperties()), new SearchMetrics(new SimpleMeterRegistry()),
+            new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void should_cut_the_page_of_the_exact_window_from_the_flights_of_the_whole_day() throws Exception {
+
+        //GIVEN
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> search =
+            searching(flight("07:00", false), flight("10:00", false), flight("14:00", false), flight("18:00", false));
+
+        //WHEN
+        final JsonNode page = read(searchResultCache.page(request("08:00", 2, 1), search));
+        final JsonNode all = read(searchResultCache.page(request("06:00", 10, null), search));
+
+        //THEN
+        assertThat(searched).hasSize(1);
+        assertThat(searched.get(0).getDepartureDateTime()).isEqualTo(LocalDateTime.of(2021, 6, 16, 0, 0));
+        assertThat(searched.get(0).getArrivalDateTime()).isEqualTo(LocalDate.of(2021, 6, 16).atTime(LocalTime.MAX));
+        assertThat(searched.get(0).getLimit()).isNull();
+        assertThat(searched.get(0).getSort()).isEqualTo(FlightSort.DEPARTURE);
+        assertThat(page.get("data")).extracting(flight -> flight.at("/legs/0/departureDateTime").asText())
+            .containsExactly("2021-06-16T14:00", "2021-06-16T18:00");
+        assertThat(page.get("nextCursor").asInt()).isEqualTo(3);
+        assertThat(all.get("data")).hasSize(4);
+        assertThat(all.has("nextCursor")).isFalse();
+    }
+
+    @Test
+    void should_answer_that_no_flight_is_available_when_none_of_the_day_is_inside_the_window() {
+
+        //GIVEN
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> search =
+            searching(flight("07:00", false));
+
+        //WHEN
+        final Either<BookFlightServiceException, byte[]> later =
+            searchResultCache.page(request("09:00", null, null), search);
+        final Either<BookFlightServiceException, byte[]> earlier =
+            searchResultCache.page(request("06:00", null, null), search);
+
+        //THEN
+        assertThat(searched).hasSize(1);
+        assertThat(later.getLeft()).hasMessage("No flights available from BCN to BUD on this date");
+        assertThat(earlier.isRight()).isTrue();
+    }
+
+    @Test
+    void should_search_again_once_the_results_expire_and_never_keep_stale_ones() {
+
+        //GIVEN
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> fresh =
+            searching(flight("10:00", false));
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> stale =
+            searching(flight("10:00", true));
+
+        //WHEN
+        searchResultCache.page(request("06:00", null, null), fresh);
+        searchResultCache.page(request("09:00", null, null), fresh);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        searchResultCache.page(request("06:00", null, null), stale);
+        final byte[] page = searchResultCache.page(request("06:00", null, null), stale).get();
+
+        //THEN
+        assertThat(searched).hasSize(3);
+        assertThat(new String(page)).contains("\"stale\":true");
+    }
+
+    @Test
+    void should_keep_direct_only_searches_apart_from_searches_with_one_stop() {
+
+        //GIVEN
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> search =
+            searching(flight("10:00", false));
+
+        //WHEN
+        searchResultCache.page(request("06:00", 0), search);
+        searchResultCache.page(request("06:00", null, null), search);
+        searchResultCache.page(request("06:00", 1), search);
+
+        //THEN
+        assertThat(searched).extracting(BookFlightRequest::getMaxStops).containsExactly(0, 1);
+    }
+
+    @Test
+    void should_search_the_exact_window_when_the_journeys_with_several_stops_depend_on_it() throws Exception {
+
+        //GIVEN
+        final List<Flight> day = List.of(flight("07:00", false), flight("14:00", false));
+        final Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> earliestArrival =
+            request -> {
+                searched.add(request);
+                return Either.right(day.stream()
+                    .filter(flight -> LocalDateTime.parse(flight.getLegs().get(0).getDepartureDateTime())
+                        .isAfter(request.getDepartureDateTime()))
+                    .limit(1)
+                    .collect(Collectors.toList()));
+            };
+
+        //WHEN
+        final JsonNode morning = read(searchResultCache.page(request("06:00", 2), earliestArrival));
+        final JsonNode afternoon = read(searchResultCache.page(request("12:00", 2), earliestArrival));
+        final JsonNode again = read(searchResultCache.page(request("12:00", 2), earliestArrival));
+
+        //THEN
+        assertThat(searched).extracting(BookFlightRequest::getDepartureDateTime)
+            .containsExactly(LocalDateTime.parse("2021-06-16T06:00"), LocalDateTime.parse("2021-06-16T12:00"));
+        assertThat(morning.at("/data/0/legs/0/departureDateTime").asText()).isEqualTo("2021-06-16T07:00");
+        assertThat(afternoon.at("/data/0/legs/0/departureDateTime").asText()).isEqualTo("2021-06-16T14:00");
+        assertThat(again).isEqualTo(afternoon);
+    }
+
+    private Function<BookFlightRequest, Either<BookFlightServiceException, List<Flight>>> searching(
+        final Flight... flights) {
+        return request -> {
+            searched.add(request);
+            return Either.right(List.of(flights));
+        };
+    }
+
+    private JsonNode read(final Either<BookFlightServiceException, byte[]> page) throws Exception {
+        return objectMapper.readTree(page.get());
+    }
+
+    private BookFlightRequest request(final String departure, final Integer limit, final Integer cursor) {
+        return BookFlightRequest.builder()
+            .departure(BCN)
+            .arrival(BUD)
+            .departureDateTime(LocalDateTime.parse("2021-06-16T" + departure))
+            .arrivalDateTime(LocalDateTime.parse(T_23_59))
+            .limit(limit)
+            .cursor(cursor)
+            .build();
+    }
+
+    private BookFlightRequest request(final String departure, final int maxStops) {
+        return BookFlightRequest.builder()
+            .departure(BCN)
+            .arrival(BUD)
+            .departureDateTime(LocalDateTime.parse("2021-06-16T" + departure))
+            .arrivalDateTime(LocalDateTime.parse(T_23_59))
+            .maxStops(maxStops)
+            .build();
+    }
+
+    private Flight flight(final String departure, final boolean stale) {
+        final LocalDateTime departureDateTime = LocalDateTime.parse("2021-06-16T" + departure);
+        final String arrivalDateTime = departureDateTime.plusHours(2).toString();
+        return Flight.builder()
+            .stops(0)
+            .legs(List.of(Leg.builder().departureAirport(BCN).arrivalAirport(BUD)
+                .departureDateTime(departureDateTime.toString())
+                .arrivalDateTime(arrivalDateTime).build()))
+            .departureEpochMinute(epochMinute(departureDateTime.toString()))
+            .arrivalEpochMinute(epochMinute(arrivalDateTime))
+            .stale(stale)
+            .build();
+    }
+}
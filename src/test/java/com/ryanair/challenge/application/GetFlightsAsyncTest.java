@@ -0,0 +1,48 @@
+package com.ryanair.challenge.application;
+
+import com.ryanair.challenge.domain.BookFlightService;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.ryanair.challenge.util.Constants.validResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GetFlightsAsyncTest {
+
+    private GetFlightsAsync getFlightsAsync;
+    private BookFlightService bookFlightService;
+
+    @BeforeEach
+    void setUp() {
+        bookFlightService = mock(BookFlightService.class);
+        getFlightsAsync = new GetFlightsAsync(bookFlightService);
+    }
+
+    @Test
+    void should_return_valid_response_when_provide_valid_request() {
+
+        //GIVEN
+        when(bookFlightService.getFlightsAsync(any()))
+            .thenReturn(CompletableFuture.completedFuture(Either.right(validResponse())));
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> result =
+            getFlightsAsync.apply(BookFlightRequest.builder().build()).join();
+
+        //THEN
+        verify(bookFlightService).getFlightsAsync(any());
+        verify(bookFlightService, never()).getFlights(any());
+        assertThat(result)
+            .isNotNull()
+            .isInstanceOf(Either.Right.class);
+    }
+}
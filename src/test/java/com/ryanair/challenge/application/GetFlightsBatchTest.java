@@ -0,0 +1,47 @@
+package com.ryanair.challenge.application;
+
+import com.ryanair.challenge.domain.BookFlightService;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.ryanair.challenge.util.Constants.validResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GetFlightsBatchTest {
+
+    private GetFlightsBatch getFlightsBatch;
+    private BookFlightService bookFlightService;
+
+    @BeforeEach
+    void setUp() {
+        bookFlightService = mock(BookFlightService.class);
+        getFlightsBatch = new GetFlightsBatch(bookFlightService);
+    }
+
+    @Test
+    void should_return_one_result_per_request() {
+
+        //GIVEN
+        when(bookFlightService.getFlightsBatch(any()))
+            .thenReturn(List.of(Either.right(validResponse()), Either.right(validResponse())));
+
+        //WHEN
+        List<Either<BookFlightServiceException, List<Flight>>> result = getFlightsBatch.apply(
+            List.of(BookFlightRequest.builder().build(), BookFlightRequest.builder().build()));
+
+        //THEN
+        verify(bookFlightService).getFlightsBatch(any());
+        verify(bookFlightService, never()).getFlights(any());
+        assertThat(result)
+            .hasSize(2)
+            .allMatch(Either::isRight);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ryanair.challenge.application;
+
+import com.ryanair.challenge.domain.BookFlightService;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import io.vavr.control.Either;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StreamFlightsTest {
+
+    private StreamFlights streamFlights;
+    private BookFlightService bookFlightService;
+
+    @BeforeEach
+    void setUp() {
+        bookFlightService = mock(BookFlightService.class);
+        streamFlights = new StreamFlights(bookFlightService);
+    }
+
+    @Test
+    void should_hand_the_sink_to_the_service() {
+
+        //GIVEN
+        final Consumer<Flight> sink = flight -> { };
+        when(bookFlightService.streamFlights(any(), any())).thenReturn(CompletableFuture.completedFuture(Either.right(1)));
+
+        //WHEN
+        Either<BookFlightServiceException, Integer> result =
+            streamFlights.apply(BookFlightRequest.builder().build(), sink).join();
+
+        //THEN
+        verify(bookFlightService).streamFlights(any(), eq(sink));
+        assertThat(result.get()).isEqualTo(1);
+    }
+}
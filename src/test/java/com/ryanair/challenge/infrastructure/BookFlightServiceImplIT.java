@@ -9,8 +9,11 @@ import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
 import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
 import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
 import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
 import io.vavr.control.Either;
 import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -37,6 +40,12 @@ class BookFlightServiceImplIT {
     @Autowired
     private BookFlightServiceImpl bookFlightService;
 
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private TimetableRepository timetableRepository;
+
     @MockBean
     private RyanairRouteClient ryanairRouteClient;
     @MockBean
@@ -63,6 +72,12 @@ class BookFlightServiceImplIT {
     @Value("classpath:response/invalid_schedule.json")
     private Resource invalidSchedule;
 
+    @BeforeEach
+    void setUp() {
+        routeRepository.invalidateAll();
+        timetableRepository.invalidateAll();
+    }
+
     @Test
     void should_return_valid_response_when_there_are_routes_and_schedule() throws IOException {
 
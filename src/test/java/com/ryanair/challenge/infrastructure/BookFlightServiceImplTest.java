@@ -1,20 +1,45 @@
 package com.ryanair.challenge.infrastructure;
 
+import com.ryanair.challenge.configuration.FetchProperties;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.configuration.WarmupProperties;
 import com.ryanair.challenge.domain.BookFlightService;
 import com.ryanair.challenge.domain.exception.BookFlightServiceException;
 import com.ryanair.challenge.domain.model.BookFlightRequest;
 import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.FlightSort;
+import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
+import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
 import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
 import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
 import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.metrics.SearchMetrics;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.ConnectionBuilder;
+import com.ryanair.challenge.infrastructure.timetable.ConnectionScan;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlanner;
+import com.ryanair.challenge.infrastructure.timetable.ParallelFetcher;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.TimetableFetcher;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.control.Either;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.ryanair.challenge.util.Constants.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,13 +50,30 @@ class BookFlightServiceImplTest {
 
     private RyanairRouteClient ryanairRouteClient;
     private RyanairScheduleClient ryanairScheduleClient;
+    private RyanairAsyncClient ryanairAsyncClient;
+    private RouteNetwork routeNetwork;
+    private SimpleMeterRegistry meterRegistry;
+    private SearchPopularity searchPopularity;
     private BookFlightService bookFlightService;
 
     @BeforeEach
     void setUp() {
         ryanairRouteClient = mock(RyanairRouteClient.class);
         ryanairScheduleClient = mock(RyanairScheduleClient.class);
-        bookFlightService = new BookFlightServiceImpl(ryanairRouteClient, ryanairScheduleClient);
+        ryanairAsyncClient = mock(RyanairAsyncClient.class);
+        routeNetwork = new RouteNetwork(ryanairRouteClient);
+        meterRegistry = new SimpleMeterRegistry();
+        searchPopularity = new SearchPopularity(new WarmupProperties());
+        final ParallelFetcher parallelFetcher = new ParallelFetcher(Runnable::run, new FetchProperties());
+        bookFlightService = new BookFlightServiceImpl(routeNetwork,
+            new RouteRepository(ryanairRouteClient, ryanairAsyncClient, new RyanairCacheProperties.Routes(),
+                Runnable::run, meterRegistry),
+            new FetchPlanner(),
+            new TimetableFetcher(new TimetableRepository(ryanairScheduleClient, ryanairAsyncClient,
+                new RyanairCacheProperties.Schedules(), Runnable::run, meterRegistry),
+                parallelFetcher),
+            parallelFetcher, new ConnectionBuilder(new SearchProperties()), new ConnectionScan(new SearchProperties()),
+            new SearchProperties(), new SearchMetrics(meterRegistry), searchPopularity);
     }
 
     @Test
@@ -80,6 +122,122 @@ class BookFlightServiceImplTest {
             .hasFieldOrPropertyWithValue(DETAIL_MESSAGE, "No flights available from BCN to MAD on this date");
     }
 
+    @Test
+    void should_return_valid_response_asynchronously_when_there_are_route_and_schedules() throws IOException {
+
+        //GIVEN
+        when(ryanairAsyncClient.getRoutes(any()))
+            .thenReturn(CompletableFuture.completedFuture(getValidRoutesResponse()));
+        when(ryanairAsyncClient.getSchedule(any(), any(), any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(getValidScheduleResponse()));
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlightsAsync(
+                BookFlightRequest.builder().arrival("MAD").departure("BCN")
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build()).join();
+
+        //THEN
+        verifyNoInteractions(ryanairRouteClient, ryanairScheduleClient);
+        assertThat(flights)
+            .isNotNull()
+            .isInstanceOf(Either.Right.class);
+        assertThat(flights.get())
+            .hasSize(1)
+            .first()
+            .hasNoNullFieldsOrProperties();
+    }
+
+    @Test
+    void should_stream_direct_flights_before_connections() {
+
+        //GIVEN
+        when(ryanairAsyncClient.getRoutes(BCN)).thenReturn(CompletableFuture.completedFuture(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).operator("RYANAIR").build())));
+        when(ryanairAsyncClient.getSchedule(BCN, DUB, 2021, 6))
+            .thenReturn(CompletableFuture.completedFuture(scheduleOn16th("13:00", "15:00")));
+        when(ryanairAsyncClient.getSchedule(BCN, BUD, 2021, 6))
+            .thenReturn(CompletableFuture.completedFuture(scheduleOn16th("06:00", "08:00")));
+        when(ryanairAsyncClient.getSchedule(BUD, DUB, 2021, 6))
+            .thenReturn(CompletableFuture.completedFuture(scheduleOn16th("10:30", "12:00")));
+        final List<Flight> streamed = new ArrayList<>();
+
+        //WHEN
+        Either<BookFlightServiceException, Integer> result =
+            bookFlightService.streamFlights(
+                BookFlightRequest.builder().arrival(DUB).departure(BCN)
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build(), streamed::add).join();
+
+        //THEN
+        verifyNoInteractions(ryanairRouteClient, ryanairScheduleClient);
+        assertThat(result.get()).isEqualTo(2);
+        assertThat(streamed)
+            .extracting(Flight::getStops)
+            .containsExactly(0, 1);
+    }
+
+    @Test
+    void should_find_hubs_in_the_route_graph_without_asking_for_routes() {
+
+        //GIVEN
+        when(ryanairRouteClient.getAllRoutes()).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(BUD).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BUD).airportTo(DUB).operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any())).thenReturn(getValidScheduleResponse());
+        routeNetwork.refresh();
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlights(
+                BookFlightRequest.builder().arrival(DUB).departure(BCN)
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build());
+
+        //THEN
+        verify(ryanairRouteClient, never()).getRoutes(any());
+        verify(ryanairScheduleClient).getSchedule(BCN, BUD, 2021, 6);
+        verify(ryanairScheduleClient).getSchedule(BUD, DUB, 2021, 6);
+        assertThat(flights)
+            .isNotNull()
+            .isInstanceOf(Either.Left.class);
+    }
+
+    @Test
+    void should_find_journeys_with_two_stops_when_the_request_allows_them() {
+
+        //GIVEN
+        when(ryanairRouteClient.getAllRoutes()).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(BUD).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BUD).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(DUB).airportTo(CFU).operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(BCN, BUD, 2021, 6)).thenReturn(scheduleOn16th("06:00", "08:00"));
+        when(ryanairScheduleClient.getSchedule(BUD, DUB, 2021, 6)).thenReturn(scheduleOn16th("10:30", "12:00"));
+        when(ryanairScheduleClient.getSchedule(DUB, CFU, 2021, 6)).thenReturn(scheduleOn16th("14:30", "16:00"));
+        routeNetwork.refresh();
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlights(
+                BookFlightRequest.builder().arrival(CFU).departure(BCN).maxStops(2)
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build());
+
+        //THEN
+        verify(ryanairRouteClient, never()).getRoutes(any());
+        verify(ryanairScheduleClient, times(3)).getSchedule(any(), any(), any(), any());
+        assertThat(flights.get())
+            .hasSize(1)
+            .first()
+            .hasFieldOrPropertyWithValue("stops", 2)
+            .extracting("legs")
+            .asList()
+            .extracting("departureAirport")
+            .containsExactly(BCN, BUD, DUB);
+    }
+
     @Test
     void should_return_valid_response_when_there_are_route_and_schedules() throws IOException {
 
@@ -145,5 +303,224 @@ class BookFlightServiceImplTest {
             .hasNoNullFieldsOrProperties();
     }
 
+    @Test
+    void should_fetch_each_schedule_once_when_there_are_several_hubs() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(any())).thenReturn(List.of(
+            RouteDTO.builder().airportFrom("BCN").airportTo("DUB").operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom("BCN").airportTo("DUB").connectingAirport("BUD").operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom("BCN").airportTo("DUB").connectingAirport("BGY").operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom("BCN").airportTo("DUB").connectingAirport("MAN").operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any()))
+            .thenAnswer(invocation -> getScheduleWithEightFlights());
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlights(
+                BookFlightRequest.builder().arrival("DUB").departure("BCN")
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build());
+
+        //THEN
+        verify(ryanairRouteClient).getRoutes(any());
+        verify(ryanairScheduleClient, times(7)).getSchedule(any(), any(), any(), any());
+        assertThat(flights)
+            .isNotNull()
+            .isInstanceOf(Either.Right.class);
+    }
+
+    @Test
+    void should_time_each_stage_and_count_upstream_calls_per_search() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(any())).thenReturn(List.of(
+            RouteDTO.builder().airportFrom("BCN").airportTo("DUB").operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom("BCN").airportTo("DUB").connectingAirport("BUD").operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any()))
+            .thenAnswer(invocation -> getScheduleWithEightFlights());
+        final BookFlightRequest request = BookFlightRequest.builder().arrival("DUB").departure("BCN")
+            .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+            .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build();
+
+        //WHEN
+        final int found = bookFlightService.getFlights(request).get().size();
+        bookFlightService.getFlights(request);
+
+        //THEN
+        assertThat(meterRegistry.get("ryanair.search.stage").tag("stage", "schedules").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ryanair.search.stage").tag("stage", "connections").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ryanair.search.stage").tag("stage", "decode").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ryanair.search.upstream.calls").summary().totalAmount()).isEqualTo(4);
+        assertThat(meterRegistry.get("ryanair.search.upstream.calls").summary().max()).isEqualTo(4);
+        assertThat(meterRegistry.get("ryanair.search.results").summary().totalAmount()).isEqualTo(2.0 * found);
+        assertThat(meterRegistry.get("ryanair.search.schedule.calls").tag("calls", "planned").summary().totalAmount())
+            .isEqualTo(6);
+        assertThat(meterRegistry.get("ryanair.search.schedule.calls").tag("calls", "executed").summary().totalAmount())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void should_time_each_stage_and_count_upstream_calls_of_async_streamed_and_batch_searches() {
+
+        //GIVEN
+        when(ryanairAsyncClient.getRoutes(any())).thenReturn(CompletableFuture.completedFuture(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).operator("RYANAIR").build())));
+        when(ryanairAsyncClient.getSchedule(any(), any(), any(), any()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(getScheduleWithEightFlights()));
+        final BookFlightRequest request = BookFlightRequest.builder().arrival("DUB").departure("BCN")
+            .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+            .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build();
+
+        //WHEN
+        final int found = bookFlightService.getFlightsAsync(request).join().get().size();
+        bookFlightService.streamFlights(request, flight -> { }).join();
+        bookFlightService.getFlightsBatch(List.of(request));
 
-}
\ No newline at end of file
+        //THEN
+        verifyNoInteractions(ryanairRouteClient, ryanairScheduleClient);
+        for (String stage : List.of("routes", "plan", "schedules", "connections")) {
+            assertThat(meterRegistry.get("ryanair.search.stage").tag("stage", stage).timer().count()).isEqualTo(3);
+        }
+        assertThat(meterRegistry.get("ryanair.search.upstream.calls").summary().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ryanair.search.upstream.calls").summary().totalAmount()).isEqualTo(4);
+        assertThat(meterRegistry.get("ryanair.search.results").summary().totalAmount()).isEqualTo(3.0 * found);
+    }
+
+    @Test
+    void should_fetch_shared_routes_and_schedules_once_per_batch() throws IOException {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(BCN)).thenReturn(getValidRoutesResponse());
+        when(ryanairRouteClient.getRoutes(DUB)).thenThrow(new BookFlightServiceException("Routes unavailable"));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any())).thenReturn(getValidScheduleResponse());
+        final BookFlightRequest fromBarcelona = BookFlightRequest.builder().arrival("MAD").departure(BCN)
+            .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+            .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build();
+        final BookFlightRequest fromDublin = BookFlightRequest.builder().arrival("MAD").departure(DUB)
+            .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+            .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build();
+
+        //WHEN
+        List<Either<BookFlightServiceException, List<Flight>>> results =
+            bookFlightService.getFlightsBatch(List.of(fromBarcelona, fromDublin, fromBarcelona));
+
+        //THEN
+        verify(ryanairRouteClient, times(1)).getRoutes(BCN);
+        verify(ryanairScheduleClient, times(1)).getSchedule(any(), any(), any(), any());
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).get()).hasSize(1);
+        assertThat(results.get(1).getLeft()).hasMessage("Routes unavailable");
+        assertThat(results.get(2).get()).usingRecursiveFieldByFieldElementComparator()
+            .isEqualTo(results.get(0).get());
+        assertThat(searchPopularity.scores()).hasSize(1).containsEntry(ScheduleKey.of(BCN, "MAD", 2021, 6), 2.0);
+    }
+
+    @Test
+    void should_return_only_the_requested_page_of_the_ranked_flights() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(any())).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any()))
+            .thenAnswer(invocation -> getScheduleWithEightFlights());
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlights(
+                BookFlightRequest.builder().arrival(DUB).departure(BCN).sort(FlightSort.DEPARTURE).limit(2)
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build());
+
+        //THEN
+        assertThat(flights.get())
+            .extracting(flight -> flight.getStops() + " " + flight.getLegs().get(flight.getLegs().size() - 1).getArrivalDateTime())
+            .containsExactly("0 2021-06-16T07:30", "1 2021-06-16T11:30");
+    }
+
+    @Test
+    void should_return_no_connections_when_the_request_allows_no_stop() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(any())).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any()))
+            .thenAnswer(invocation -> getScheduleWithEightFlights());
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlights(
+                BookFlightRequest.builder().arrival(DUB).departure(BCN).maxStops(0)
+                    .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+                    .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build());
+
+        //THEN
+        verify(ryanairScheduleClient).getSchedule(BCN, DUB, 2021, 6);
+        verifyNoMoreInteractions(ryanairScheduleClient);
+        assertThat(flights.get())
+            .hasSize(8)
+            .extracting(Flight::getStops)
+            .containsOnly(0);
+    }
+
+    @Test
+    void should_search_every_day_of_a_window_that_spans_two_months() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(any())).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo("MAD").operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(BCN, "MAD", 2021, 6)).thenReturn(ScheduleDTO.builder()
+            .month(6)
+            .days(List.of(DayDTO.builder().day(30).flights(List.of(
+                FlightDTO.builder().departureTime("07:00").arrivalTime("08:30").build(),
+                FlightDTO.builder().departureTime("23:00").arrivalTime("00:30").build())).build()))
+            .build());
+        when(ryanairScheduleClient.getSchedule(BCN, "MAD", 2021, 7)).thenReturn(ScheduleDTO.builder()
+            .month(7)
+            .days(List.of(DayDTO.builder().day(1).flights(List.of(
+                FlightDTO.builder().departureTime("09:00").arrivalTime("10:30").build())).build()))
+            .build());
+
+        //WHEN
+        Either<BookFlightServiceException, List<Flight>> flights =
+            bookFlightService.getFlights(
+                BookFlightRequest.builder().arrival("MAD").departure(BCN)
+                    .departureDateTime(LocalDateTime.of(2021, 06, 30, 12, 00))
+                    .arrivalDateTime(LocalDateTime.of(2021, 07, 01, 23, 59)).build());
+
+        //THEN
+        verify(ryanairScheduleClient).getSchedule(BCN, "MAD", 2021, 6);
+        verify(ryanairScheduleClient).getSchedule(BCN, "MAD", 2021, 7);
+        assertThat(flights.get())
+            .extracting(flight -> flight.getLegs().get(0).getDepartureDateTime() + "/" + flight.getLegs().get(0).getArrivalDateTime())
+            .containsExactly("2021-06-30T23:00/2021-07-01T00:30", "2021-07-01T09:00/2021-07-01T10:30");
+        assertThat(searchPopularity.scores().keySet())
+            .containsExactlyInAnyOrder(ScheduleKey.of(BCN, "MAD", 2021, 6), ScheduleKey.of(BCN, "MAD", 2021, 7));
+    }
+
+    private ScheduleDTO getScheduleWithEightFlights() {
+        return ScheduleDTO.builder()
+            .month(6)
+            .days(List.of(DayDTO.builder()
+                .day(16)
+                .flights(IntStream.range(6, 14)
+                    .mapToObj(hour -> FlightDTO.builder().carrierCode("FR").number("10" + hour)
+                        .departureTime("%02d:00".formatted(hour)).arrivalTime("%02d:30".formatted(hour + 1)).build())
+                    .collect(Collectors.toList())).build()))
+            .build();
+    }
+
+
+    private ScheduleDTO scheduleOn16th(final String departureTime, final String arrivalTime) {
+        return ScheduleDTO.builder()
+            .month(6)
+            .days(List.of(DayDTO.builder()
+                .day(16)
+                .flights(List.of(FlightDTO.builder().departureTime(departureTime).arrivalTime(arrivalTime).build()))
+                .build()))
+            .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ryanair.challenge.infrastructure.client;
+
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 5;
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("routes", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_share_one_upstream_call_between_concurrent_callers() throws Exception {
+
+        //GIVEN
+        final AtomicInteger upstreamCalls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        //WHEN
+        final CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("BCN", () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return "routes";
+        }), executor);
+        assertStillInFlight(first);
+        final List<CompletableFuture<String>> others = IntStream.range(1, CALLERS)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> singleFlight.execute("BCN", () -> {
+                upstreamCalls.incrementAndGet();
+                return "other";
+            }), executor))
+            .collect(Collectors.toList());
+        while (meterRegistry.get("ryanair.upstream.coalesced").counter().count() < CALLERS - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        //THEN
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("routes");
+        for (CompletableFuture<String> other : others) {
+            assertThat(other.get(1, TimeUnit.SECONDS)).isEqualTo("routes");
+        }
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("ryanair.upstream.coalesced").tag("client", "routes").counter().count())
+            .isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void should_call_upstream_again_once_the_previous_call_is_done() {
+
+        //GIVEN
+        final AtomicInteger upstreamCalls = new AtomicInteger();
+
+        //WHEN
+        singleFlight.execute("BCN", () -> "routes" + upstreamCalls.incrementAndGet());
+        final String second = singleFlight.execute("BCN", () -> "routes" + upstreamCalls.incrementAndGet());
+
+        //THEN
+        assertThat(second).isEqualTo("routes2");
+    }
+
+    @Test
+    void should_propagate_the_upstream_error_to_the_caller() {
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> singleFlight.execute("BCN", () -> {
+            throw new BookFlightServiceException("Upstream down");
+        }))
+            .isInstanceOf(BookFlightServiceException.class)
+            .hasMessage("Upstream down");
+    }
+
+    private void assertStillInFlight(final CompletableFuture<String> first) throws InterruptedException {
+        Thread.sleep(50);
+        assertThat(first).isNotDone();
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ryanair.challenge.infrastructure.client.decoder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RyanairStreamingDecoderTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Type ROUTE_LIST = new TypeReference<List<RouteDTO>>() {
+    }.getType();
+
+    private Decoder delegate;
+    private RyanairStreamingDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(Decoder.class);
+        decoder = new RyanairStreamingDecoder(new RyanairJsonReader(OBJECT_MAPPER), delegate);
+    }
+
+    @Test
+    void should_decode_the_same_schedule_as_jackson_databind() throws IOException {
+
+        //GIVEN
+        final byte[] body = fixture("response/valid_BCN_BGY_schedule.json");
+
+        //WHEN
+        final Object schedule = decoder.decode(response(body), ScheduleDTO.class);
+
+        //THEN
+        verifyNoInteractions(delegate);
+        assertThat(schedule).isEqualTo(OBJECT_MAPPER.readValue(body, ScheduleDTO.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_decode_only_the_route_fields_a_search_needs() throws IOException {
+
+        //GIVEN
+        final byte[] body = fixture("response/valid_BCN_CFU_routes.json");
+        final List<RouteDTO> expected = OBJECT_MAPPER.readValue(body, new TypeReference<>() {
+        });
+
+        //WHEN
+        final List<RouteDTO> routes = (List<RouteDTO>) decoder.decode(response(body), ROUTE_LIST);
+
+        //THEN
+        assertThat(routes)
+            .hasSameSizeAs(expected)
+            .usingElementComparatorOnFields("airportFrom", "airportTo", "connectingAirport", "operator")
+            .containsExactlyElementsOf(expected);
+        assertThat(routes)
+            .allMatch(route -> route.getTags() == null && route.getSimilarArrivalAirportCodes() == null);
+    }
+
+    @Test
+    void should_delegate_other_types() throws IOException {
+
+        //GIVEN
+        final Response response = response("\"OK\"".getBytes());
+
+        //WHEN
+        decoder.decode(response, String.class);
+
+        //THEN
+        verify(delegate).decode(any(), any());
+    }
+
+    private byte[] fixture(final String path) throws IOException {
+        return IOUtils.toByteArray(new ClassPathResource(path).getInputStream());
+    }
+
+    private Response response(final byte[] body) {
+        return Response.builder()
+            .status(200)
+            .reason("OK")
+            .headers(Collections.emptyMap())
+            .request(Request.create(Request.HttpMethod.GET, "/", Collections.emptyMap(), null, Util.UTF_8, null))
+            .body(body)
+            .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ryanair.challenge.infrastructure.client.hedging;
+
+import com.ryanair.challenge.configuration.HedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgedUpstreamTest {
+
+    private HedgingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+    private List<CompletableFuture<String>> calls;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setInitialDelay(Duration.ofMillis(50));
+        properties.setBudgetPercent(100);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(2);
+        calls = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_take_the_hedge_and_cancel_the_slow_call() throws Exception {
+
+        //GIVEN
+        final HedgedUpstream<String> upstream = hedgedUpstream();
+
+        //WHEN
+        final String result = upstream.callAsync(slowThenFast()).get(1, TimeUnit.SECONDS);
+
+        //THEN
+        assertThat(result).isEqualTo("hedge");
+        assertThat(calls).hasSize(2);
+        assertThat(calls.get(0)).isCancelled();
+        assertThat(meterRegistry.get("ryanair.upstream.requests").tag("attempt", "hedge").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("ryanair.upstream.hedge.won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_hedge_a_call_answering_in_time() throws Exception {
+
+        //GIVEN
+        final HedgedUpstream<String> upstream = hedgedUpstream();
+
+        //WHEN
+        final String result = upstream.callAsync(() -> CompletableFuture.completedFuture("primary"))
+            .get(1, TimeUnit.SECONDS);
+        Thread.sleep(100);
+
+        //THEN
+        assertThat(result).isEqualTo("primary");
+        assertThat(meterRegistry.get("ryanair.upstream.requests").tag("attempt", "hedge").counter().count())
+            .isZero();
+    }
+
+    @Test
+    void should_wait_for_the_slow_call_when_the_budget_is_spent() throws Exception {
+
+        //GIVEN
+        properties.setBudgetPercent(5);
+        final HedgedUpstream<String> upstream = hedgedUpstream();
+
+        //WHEN
+        final CompletableFuture<String> result = upstream.callAsync(slowThenFast());
+        Thread.sleep(100);
+        calls.get(0).complete("primary");
+
+        //THEN
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("primary");
+        assertThat(calls).hasSize(1);
+        assertThat(meterRegistry.get("ryanair.upstream.hedge.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_call_straight_through_when_disabled() {
+
+        //GIVEN
+        properties.setEnabled(false);
+        final HedgedUpstream<String> upstream = hedgedUpstream();
+
+        //WHEN
+        final String result = upstream.call(() -> "primary");
+
+        //THEN
+        assertThat(result).isEqualTo("primary");
+        assertThat(meterRegistry.get("ryanair.upstream.requests").tag("attempt", "primary").counter().count())
+            .isZero();
+    }
+
+    private HedgedUpstream<String> hedgedUpstream() {
+        return new HedgedUpstream<>("schedules", properties, new HedgeBudget(properties), executor, meterRegistry);
+    }
+
+    private Supplier<CompletableFuture<String>> slowThenFast() {
+        return () -> {
+            final CompletableFuture<String> call = calls.isEmpty() ?
+                new CompletableFuture<>() : CompletableFuture.completedFuture("hedge");
+            calls.add(call);
+            return call;
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.ryanair.challenge.infrastructure.client.hedging;
+
+import com.ryanair.challenge.configuration.HedgingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyPercentileTest {
+
+    private HedgingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HedgingProperties();
+        properties.setWindowSize(100);
+        properties.setMinSamples(10);
+        properties.setMinDelay(Duration.ofMillis(1));
+    }
+
+    @Test
+    void should_use_the_initial_delay_until_enough_samples_are_recorded() {
+
+        //GIVEN
+        final LatencyPercentile latency = new LatencyPercentile(properties);
+
+        //WHEN
+        record(latency, 9);
+
+        //THEN
+        assertThat(latency.delay()).isEqualTo(properties.getInitialDelay().toNanos());
+    }
+
+    @Test
+    void should_follow_the_percentile_of_the_recent_samples() {
+
+        //GIVEN
+        final LatencyPercentile latency = new LatencyPercentile(properties);
+
+        //WHEN
+        record(latency, 100);
+
+        //THEN
+        assertThat(latency.delay()).isEqualTo(Duration.ofMillis(95).toNanos());
+    }
+
+    private void record(final LatencyPercentile latency, final int samples) {
+        for (int millis = 1; millis <= samples; millis++) {
+            latency.record(Duration.ofMillis(millis).toNanos());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ryanair.challenge.infrastructure.client.resilience;
+
+import com.ryanair.challenge.configuration.ResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private AtomicLong nanos;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        final ResilienceProperties properties = new ResilienceProperties();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumNumberOfCalls(4);
+        properties.setPermittedCallsInHalfOpenState(2);
+        nanos = new AtomicLong();
+        circuitBreaker = new CircuitBreaker(properties, nanos::get);
+    }
+
+    @Test
+    void should_open_when_the_failure_rate_reaches_the_threshold() {
+
+        //GIVEN
+        record(true, false, true);
+
+        //WHEN
+        final CircuitBreaker.State beforeMinimum = circuitBreaker.getState();
+        record(false);
+
+        //THEN
+        assertThat(beforeMinimum).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void should_only_count_the_most_recent_calls() {
+
+        //GIVEN
+        record(true, true, false, false, false);
+
+        //WHEN
+        record(false);
+
+        //THEN
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_close_once_every_half_open_probe_succeeds() {
+
+        //GIVEN
+        record(true, true, true, true);
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        //WHEN
+        final boolean firstProbe = circuitBreaker.tryAcquirePermission();
+        final boolean secondProbe = circuitBreaker.tryAcquirePermission();
+        final boolean thirdProbe = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        //THEN
+        assertThat(firstProbe).isTrue();
+        assertThat(secondProbe).isTrue();
+        assertThat(thirdProbe).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_open_again_when_a_half_open_probe_fails() {
+
+        //GIVEN
+        record(true, true, true, true);
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        //WHEN
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        //THEN
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    private void record(final boolean... failures) {
+        for (boolean failure : failures) {
+            assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+            if (failure) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+    }
+}
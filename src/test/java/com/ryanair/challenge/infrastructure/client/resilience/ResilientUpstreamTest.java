@@ -0,0 +1,151 @@
+package com.ryanair.challenge.infrastructure.client.resilience;
+
+import com.ryanair.challenge.configuration.ResilienceProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import com.ryanair.challenge.infrastructure.client.UpstreamStatusException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientUpstreamTest {
+
+    private static final String BCN = "BCN";
+    private static final Function<Exception, String> CALLBACK = cause -> {
+        throw new BookFlightServiceException(cause);
+    };
+
+    private ResilienceProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong nanos;
+    private AtomicInteger upstreamCalls;
+    private ResilientUpstream<String, String> upstream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResilienceProperties();
+        properties.setSlidingWindowSize(2);
+        properties.setMinimumNumberOfCalls(2);
+        properties.setPermittedCallsInHalfOpenState(1);
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        upstreamCalls = new AtomicInteger();
+        upstream = new ResilientUpstream<>("routes", properties, value -> "stale " + value, meterRegistry,
+            nanos::get);
+    }
+
+    @Test
+    void should_serve_the_last_good_response_marked_as_stale_when_the_upstream_fails() {
+
+        //GIVEN
+        upstream.call(BCN, () -> "routes", CALLBACK);
+
+        //WHEN
+        final String result = upstream.call(BCN, failing(), CALLBACK);
+
+        //THEN
+        assertThat(result).isEqualTo("stale routes");
+        assertThat(meterRegistry.get("ryanair.upstream.fallback").tag("result", "stale").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("ryanair.upstream.latency").tag("outcome", "success").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("ryanair.upstream.latency").tag("outcome", "failure").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void should_fail_fast_without_calling_upstream_when_the_circuit_is_open() {
+
+        //GIVEN
+        failTwice();
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> upstream.call(BCN, counting(), CALLBACK))
+            .isInstanceOf(BookFlightServiceException.class)
+            .hasRootCauseMessage("Circuit to routes is open");
+        assertThat(upstreamCalls.get()).isZero();
+        assertThat(upstream.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.get("ryanair.upstream.rejected").tag("reason", "circuit_open").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("ryanair.upstream.circuit.state").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void should_close_the_circuit_when_the_probe_after_the_wait_succeeds() {
+
+        //GIVEN
+        failTwice();
+        nanos.addAndGet(properties.getWaitDurationInOpenState().plus(Duration.ofSeconds(1)).toNanos());
+
+        //WHEN
+        final String result = upstream.call(BCN, counting(), CALLBACK);
+
+        //THEN
+        assertThat(result).isEqualTo("routes");
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(upstream.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_rethrow_client_errors_without_opening_the_circuit() {
+
+        //GIVEN
+        final Supplier<String> notFound = () -> {
+            throw new UpstreamStatusException(404, "routes/XXX");
+        };
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> upstream.call(BCN, notFound, CALLBACK)).isInstanceOf(UpstreamStatusException.class);
+        assertThatThrownBy(() -> upstream.call(BCN, notFound, CALLBACK)).isInstanceOf(UpstreamStatusException.class);
+        assertThat(upstream.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_fall_back_without_waiting_when_the_bulkhead_is_full_on_the_async_path() {
+
+        //GIVEN
+        properties.setMaxConcurrentCalls(1);
+        upstream = new ResilientUpstream<>("routes", properties, value -> "stale " + value, meterRegistry,
+            nanos::get);
+        upstream.call(BCN, () -> "routes", CALLBACK);
+        final CompletableFuture<String> running = new CompletableFuture<>();
+        upstream.callAsync(BCN, () -> running, CALLBACK);
+
+        //WHEN
+        final CompletableFuture<String> rejected = upstream.callAsync(BCN,
+            () -> CompletableFuture.completedFuture("fresh"), CALLBACK);
+
+        //THEN
+        assertThat(rejected.join()).isEqualTo("stale routes");
+        assertThat(meterRegistry.get("ryanair.upstream.rejected").tag("reason", "bulkhead_full").counter().count())
+            .isEqualTo(1);
+        running.complete("routes");
+    }
+
+    private void failTwice() {
+        assertThatThrownBy(() -> upstream.call(BCN, failing(), CALLBACK)).isInstanceOf(BookFlightServiceException.class);
+        assertThatThrownBy(() -> upstream.call(BCN, failing(), CALLBACK)).isInstanceOf(BookFlightServiceException.class);
+    }
+
+    private Supplier<String> counting() {
+        return () -> {
+            upstreamCalls.incrementAndGet();
+            return "routes";
+        };
+    }
+
+    private Supplier<String> failing() {
+        return () -> {
+            throw new BookFlightServiceException("Upstream unavailable");
+        };
+    }
+}
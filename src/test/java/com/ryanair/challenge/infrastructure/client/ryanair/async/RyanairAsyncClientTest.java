@@ -0,0 +1,125 @@
+package com.ryanair.challenge.infrastructure.client.ryanair.async;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.configuration.FeignConfiguration;
+import com.ryanair.challenge.configuration.FetchProperties;
+import com.ryanair.challenge.configuration.HedgingProperties;
+import com.ryanair.challenge.configuration.ResilienceProperties;
+import com.ryanair.challenge.configuration.TransportProperties;
+import com.ryanair.challenge.infrastructure.client.decoder.RyanairJsonReader;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgeBudget;
+import com.ryanair.challenge.infrastructure.client.hedging.HedgedUpstream;
+import com.ryanair.challenge.infrastructure.client.resilience.ResilientUpstream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RyanairAsyncClientTest {
+
+    private static final String ROUTES = "[{\"airportFrom\":\"BCN\",\"airportTo\":\"BUD\",\"operator\":\"RYANAIR\"}]";
+    private static final String UPSTREAM = "https://services-api.ryanair.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private OkHttpClient ryanairOkHttpClient;
+    private List<Request> sent;
+    private int status;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sent = new CopyOnWriteArrayList<>();
+        status = 200;
+
+        final FeignConfiguration feignConfiguration = new FeignConfiguration();
+        final TransportProperties transportProperties = new TransportProperties();
+        final ConnectionPool connectionPool =
+            feignConfiguration.ryanairConnectionPool(transportProperties, meterRegistry);
+        ryanairOkHttpClient = feignConfiguration.ryanairOkHttpClient(connectionPool, transportProperties, meterRegistry)
+            .newBuilder()
+            .addInterceptor(chain -> {
+                sent.add(chain.request());
+                return new Response.Builder()
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(status)
+                    .message("")
+                    .header("Content-Encoding", "gzip")
+                    .body(ResponseBody.create(MediaType.get("application/json"), gzip(ROUTES)))
+                    .build();
+            })
+            .build();
+    }
+
+    @Test
+    void should_read_the_compressed_routes_on_the_transport_of_the_feign_clients() throws Exception {
+
+        //GIVEN
+        final RyanairAsyncClient client = ryanairAsyncClient();
+
+        //WHEN
+        final List<RouteDTO> routes = client.getRoutes(BCN).get(1, TimeUnit.SECONDS);
+
+        //THEN
+        assertThat(routes).singleElement()
+            .hasFieldOrPropertyWithValue("airportFrom", BCN)
+            .hasFieldOrPropertyWithValue("airportTo", BUD);
+        assertThat(sent).singleElement().satisfies(request -> {
+            assertThat(request.url()).hasToString("%s/routes/%s".formatted(UPSTREAM, BCN));
+            assertThat(request.header("Accept-Encoding")).isEqualTo("gzip, deflate");
+        });
+        assertThat(meterRegistry.find("http.client.pool.connection.count").gauges()).isNotEmpty();
+    }
+
+    @Test
+    void should_fail_the_call_when_the_upstream_does_not_answer_ok() {
+
+        //GIVEN
+        status = 503;
+        final RyanairAsyncClient client = ryanairAsyncClient();
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> client.getSchedule(DUB, BUD, 2021, 6).get(1, TimeUnit.SECONDS))
+            .hasStackTraceContaining("Unexpected status 503 from %s/schedules/DUB/BUD/years/2021/months/6"
+                .formatted(UPSTREAM));
+    }
+
+    private RyanairAsyncClient ryanairAsyncClient() {
+        final HedgingProperties hedgingProperties = new HedgingProperties();
+        return new RyanairAsyncClient(ryanairOkHttpClient, new RyanairJsonReader(new ObjectMapper()),
+            new FetchProperties(), UPSTREAM, UPSTREAM,
+            new ResilientUpstream<>("routes", new ResilienceProperties(), routes -> routes, meterRegistry),
+            new ResilientUpstream<>("schedules", new ResilienceProperties(), schedule -> schedule, meterRegistry),
+            new HedgedUpstream<>("routes", hedgingProperties, new HedgeBudget(hedgingProperties), Runnable::run,
+                meterRegistry),
+            new HedgedUpstream<>("schedules", hedgingProperties, new HedgeBudget(hedgingProperties), Runnable::run,
+                meterRegistry));
+    }
+
+    private static byte[] gzip(final String body) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+}
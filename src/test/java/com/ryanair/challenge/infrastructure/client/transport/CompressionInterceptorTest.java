@@ -0,0 +1,102 @@
+package com.ryanair.challenge.infrastructure.client.transport;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CompressionInterceptorTest {
+
+    private static final String SCHEDULE = "{\"month\":6,\"days\":[]}";
+    private static final Request REQUEST = new Request.Builder()
+        .url("https://services-api.ryanair.com/timtbl/3/schedules/DUB/WRO/years/2021/months/6")
+        .build();
+
+    private Interceptor.Chain chain;
+    private CompressionInterceptor compressionInterceptor;
+
+    @BeforeEach
+    void setUp() {
+        chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(REQUEST);
+        compressionInterceptor = new CompressionInterceptor();
+    }
+
+    @Test
+    void should_ask_for_compressed_bodies_and_gunzip_them() throws IOException {
+
+        //GIVEN
+        answer("gzip", compress(new ByteArrayOutputStream(), true));
+        final ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+
+        //WHEN
+        final Response response = compressionInterceptor.intercept(chain);
+
+        //THEN
+        verify(chain).proceed(sent.capture());
+        assertThat(sent.getValue().header("Accept-Encoding")).isEqualTo("gzip, deflate");
+        assertThat(response.header("Content-Encoding")).isNull();
+        assertThat(response.body().string()).isEqualTo(SCHEDULE);
+    }
+
+    @Test
+    void should_inflate_deflated_bodies() throws IOException {
+
+        //GIVEN
+        answer("deflate", compress(new ByteArrayOutputStream(), false));
+
+        //WHEN
+        final Response response = compressionInterceptor.intercept(chain);
+
+        //THEN
+        assertThat(response.body().string()).isEqualTo(SCHEDULE);
+    }
+
+    @Test
+    void should_pass_uncompressed_bodies_through() throws IOException {
+
+        //GIVEN
+        answer(null, SCHEDULE.getBytes(StandardCharsets.UTF_8));
+
+        //WHEN
+        final Response response = compressionInterceptor.intercept(chain);
+
+        //THEN
+        assertThat(response.body().string()).isEqualTo(SCHEDULE);
+    }
+
+    private void answer(final String encoding, final byte[] body) throws IOException {
+        when(chain.proceed(any())).thenAnswer(invocation -> {
+            final Response.Builder response = new Response.Builder()
+                .request(invocation.getArgument(0))
+                .protocol(Protocol.HTTP_2)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(MediaType.parse("application/json"), body));
+            return encoding == null ? response.build() : response.header("Content-Encoding", encoding).build();
+        });
+    }
+
+    private byte[] compress(final ByteArrayOutputStream bytes, final boolean gzip) throws IOException {
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+            out.write(SCHEDULE.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ryanair.challenge.infrastructure.network;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Upstream stand-in serving a fixed route list.
+ */
+@AllArgsConstructor
+class InMemoryRyanairRouteClient implements RyanairRouteClient {
+
+    private final List<RouteDTO> routes;
+
+    @Override
+    public List<RouteDTO> getRoutes(final String airportFrom) {
+        return routes.stream().filter(route -> airportFrom.equals(route.getAirportFrom())).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<RouteDTO> getAllRoutes() {
+        return routes;
+    }
+}
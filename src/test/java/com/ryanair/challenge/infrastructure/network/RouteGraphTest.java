@@ -0,0 +1,78 @@
+package com.ryanair.challenge.infrastructure.network;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteGraphTest {
+
+    private static final String RYANAIR = "RYANAIR";
+
+    @Test
+    void should_find_hubs_in_both_directions() {
+
+        //GIVEN
+        final RouteGraph graph = RouteGraph.of(List.of(
+            route("BCN", "BGY"), route("BGY", "CFU"),
+            route("BCN", "STN"), route("STN", "CFU"),
+            route("BCN", "DUB"), route("CFU", "DUB"),
+            route("BCN", "CFU")));
+
+        //WHEN
+        final List<String> hubs = graph.hubs("BCN", "CFU");
+
+        //THEN
+        assertThat(hubs).containsExactly("BGY", "STN");
+        assertThat(graph.hasRoute("BCN", "CFU")).isTrue();
+        assertThat(graph.hasRoute("CFU", "BCN")).isFalse();
+        assertThat(graph.destinations(graph.id("BCN"))).hasSize(4);
+        assertThat(graph.origins(graph.id("CFU"))).containsExactly(graph.id("BCN"), graph.id("BGY"), graph.id("STN"));
+    }
+
+    @Test
+    void should_ignore_routes_of_other_operators_and_through_connecting_airports() {
+
+        //GIVEN
+        final RouteGraph graph = RouteGraph.of(List.of(
+            route("BCN", "BGY"), route("BCN", "BGY"),
+            RouteDTO.builder().airportFrom("BCN").airportTo("CFU").connectingAirport("BGY").operator(RYANAIR).build(),
+            RouteDTO.builder().airportFrom("BGY").airportTo("CFU").operator("AIR_EUROPA").build()));
+
+        //WHEN
+        final List<String> hubs = graph.hubs("BCN", "CFU");
+
+        //THEN
+        assertThat(hubs).isEmpty();
+        assertThat(graph.routes()).isEqualTo(1);
+        assertThat(graph.airports()).isEqualTo(2);
+        assertThat(graph.contains("CFU")).isFalse();
+    }
+
+    @Test
+    void should_visit_only_routes_on_journeys_within_the_leg_budget() {
+
+        //GIVEN
+        final RouteGraph graph = RouteGraph.of(List.of(
+            route("BCN", "BGY"), route("BGY", "STN"), route("STN", "CFU"),
+            route("BCN", "DUB"), route("DUB", "CFU"),
+            route("BCN", "MAD"), route("MAD", "BCN")));
+        final List<String> twoLegs = new ArrayList<>();
+        final List<String> threeLegs = new ArrayList<>();
+
+        //WHEN
+        graph.forEachRouteWithin("BCN", "CFU", 2, (from, to) -> twoLegs.add(from + "-" + to));
+        graph.forEachRouteWithin("BCN", "CFU", 3, (from, to) -> threeLegs.add(from + "-" + to));
+
+        //THEN
+        assertThat(twoLegs).containsExactlyInAnyOrder("BCN-DUB", "DUB-CFU");
+        assertThat(threeLegs).containsExactlyInAnyOrder("BCN-DUB", "DUB-CFU", "BCN-BGY", "BGY-STN", "STN-CFU");
+    }
+
+    private RouteDTO route(final String from, final String to) {
+        return RouteDTO.builder().airportFrom(from).airportTo(to).operator(RYANAIR).build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ryanair.challenge.infrastructure.network;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RouteNetworkTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void should_answer_routes_from_the_loaded_graph() throws IOException {
+
+        //GIVEN
+        final RouteNetwork routeNetwork = new RouteNetwork(new InMemoryRyanairRouteClient(OBJECT_MAPPER.readValue(
+            getClass().getResourceAsStream("/response/valid_BCN_CFU_routes.json"), new TypeReference<List<RouteDTO>>() {
+            })));
+
+        //WHEN
+        routeNetwork.refresh();
+        final Optional<List<RouteDTO>> routes = routeNetwork.routesBetween("BCN", "BGY");
+
+        //THEN
+        assertThat(routes).isPresent();
+        assertThat(routes.get())
+            .first()
+            .hasFieldOrPropertyWithValue("connectingAirport", null)
+            .hasFieldOrPropertyWithValue("operator", "RYANAIR");
+        assertThat(routeNetwork.routesBetween("XXX", "BGY")).isEmpty();
+    }
+
+    @Test
+    void should_keep_the_previous_graph_when_a_refresh_fails() {
+
+        //GIVEN
+        final RyanairRouteClient ryanairRouteClient = mock(RyanairRouteClient.class);
+        when(ryanairRouteClient.getAllRoutes())
+            .thenReturn(List.of(RouteDTO.builder().airportFrom("BCN").airportTo("BGY").operator("RYANAIR").build()))
+            .thenThrow(new IllegalStateException("upstream down"));
+        final RouteNetwork routeNetwork = new RouteNetwork(ryanairRouteClient);
+        routeNetwork.refresh();
+
+        //WHEN
+        routeNetwork.refresh();
+
+        //THEN
+        verify(ryanairRouteClient, times(2)).getAllRoutes();
+        assertThat(routeNetwork.getGraph().hasRoute("BCN", "BGY")).isTrue();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionBuilderTest {
+
+    private static final String BGY = "BGY";
+    private static final int DAY = 27;
+    private static final SearchWindow WHOLE_DAY = SearchWindow.of(BookFlightRequest.builder()
+        .departureDateTime(LocalDateTime.of(2021, 7, DAY, 0, 0))
+        .arrivalDateTime(LocalDateTime.of(2021, 7, DAY, 23, 59)).build());
+
+    private ConnectionBuilder connectionBuilder;
+
+    @BeforeEach
+    void setUp() {
+        connectionBuilder = new ConnectionBuilder(new SearchProperties());
+    }
+
+    @Test
+    void should_connect_only_second_legs_leaving_more_than_two_hours_after_arrival() {
+
+        //GIVEN
+        final Timetable timetable = timetable(
+            monthTimetable(BCN, BGY, 7, DAY, "12:05-13:45", "06:20-08:00"),
+            monthTimetable(BGY, CFU, 7, DAY, "16:55-19:45", "10:00-12:50", "15:45-18:35", "10:05-12:55"));
+
+        //WHEN
+        final List<Flight> flights = connectionBuilder.connect(timetable, BCN, BGY, CFU, WHOLE_DAY);
+
+        //THEN
+        assertThat(flights)
+            .hasSize(4)
+            .allMatch(flight -> flight.getStops() == 1);
+        assertThat(flights)
+            .extracting(flight -> flight.getLegs().get(0).getDepartureDateTime() + "/" + flight.getLegs().get(1).getDepartureDateTime())
+            .containsExactly(
+                "2021-07-27T06:20/2021-07-27T10:05",
+                "2021-07-27T06:20/2021-07-27T15:45",
+                "2021-07-27T06:20/2021-07-27T16:55",
+                "2021-07-27T12:05/2021-07-27T16:55");
+        assertThat(flights.get(0).getLegs())
+            .extracting("departureAirport", "arrivalAirport")
+            .containsExactly(Tuple.tuple(BCN, BGY), Tuple.tuple(BGY, CFU));
+    }
+
+    @Test
+    void should_return_empty_list_when_one_of_the_legs_has_no_flights() {
+
+        //WHEN
+        final List<Flight> flights = connectionBuilder.connect(
+            timetable(monthTimetable(BCN, BGY, 7, DAY, "06:20-08:00")), BCN, BGY, CFU, WHOLE_DAY);
+
+        //THEN
+        assertThat(flights).isEqualTo(Collections.emptyList());
+    }
+
+    @Test
+    void should_connect_overnight_across_the_end_of_the_month_inside_the_window() {
+
+        //GIVEN
+        final Timetable timetable = new Timetable(Map.of(
+            ScheduleKey.of(BCN, BGY, 2021, 7), monthTimetable(BCN, BGY, 7, 31, "18:30-20:10", "21:00-22:40"),
+            ScheduleKey.of(BGY, CFU, 2021, 7), monthTimetable(BGY, CFU, 7, 31, "23:30-02:20"),
+            ScheduleKey.of(BGY, CFU, 2021, 8), monthTimetable(BGY, CFU, 8, 1, "06:00-08:50", "11:00-13:50")), 3);
+        final SearchWindow window = SearchWindow.of(BookFlightRequest.builder()
+            .departureDateTime(LocalDateTime.of(2021, 7, 31, 19, 0))
+            .arrivalDateTime(LocalDateTime.of(2021, 8, 1, 12, 0)).build());
+
+        //WHEN
+        final List<Flight> flights = connectionBuilder.connect(timetable, BCN, BGY, CFU, window);
+
+        //THEN
+        assertThat(flights)
+            .extracting(flight -> flight.getLegs().get(0).getDepartureDateTime() + "/" + flight.getLegs().get(1).getDepartureDateTime())
+            .containsExactly("2021-07-31T21:00/2021-08-01T06:00");
+    }
+
+    private Timetable timetable(final MonthTimetable... legs) {
+        return new Timetable(Arrays.stream(legs)
+            .collect(Collectors.toMap(leg -> ScheduleKey.of(leg.getFrom(), leg.getTo(), leg.getYear(), leg.getMonth()),
+                leg -> leg)), legs.length);
+    }
+}
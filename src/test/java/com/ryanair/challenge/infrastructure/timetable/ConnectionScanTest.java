@@ -0,0 +1,104 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.SearchProperties;
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionScanTest {
+
+    private static final String BGY = "BGY";
+    private static final String STN = "STN";
+    private static final int DAY = 27;
+    private static final SearchWindow WHOLE_DAY = window(LocalDateTime.of(2021, 7, 27, 0, 0),
+        LocalDateTime.of(2021, 7, 27, 23, 59));
+
+    private SearchProperties searchProperties;
+    private ConnectionScan connectionScan;
+    private List<MonthTimetable> routes;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        connectionScan = new ConnectionScan(searchProperties);
+        routes = List.of(
+            monthTimetable(BCN, CFU, 7, DAY, "19:10-22:40"),
+            monthTimetable(BCN, BGY, 7, DAY, "06:20-08:00", "09:00-10:40"),
+            monthTimetable(BGY, CFU, 7, DAY, "17:15-20:05", "10:30-15:20"),
+            monthTimetable(BGY, STN, 7, DAY, "10:05-11:00"),
+            monthTimetable(STN, CFU, 7, DAY, "13:05-14:30"));
+    }
+
+    @Test
+    void should_return_one_journey_per_number_of_stops_that_arrives_earlier() {
+
+        //WHEN
+        final List<Flight> journeys = connectionScan.paretoJourneys(routes, BCN, CFU, WHOLE_DAY, 3);
+
+        //THEN
+        assertThat(journeys)
+            .extracting(this::describe)
+            .containsExactly(
+                "BCN 19:10 CFU 22:40",
+                "BCN 06:20 BGY 08:00, BGY 10:30 CFU 15:20",
+                "BCN 06:20 BGY 08:00, BGY 10:05 STN 11:00, STN 13:05 CFU 14:30");
+    }
+
+    @Test
+    void should_honour_the_configured_minimum_connection_time() {
+
+        //GIVEN
+        searchProperties.setMinConnectionTime(Duration.ofMinutes(151));
+
+        //WHEN
+        final List<Flight> journeys = connectionScan.paretoJourneys(routes, BCN, CFU, WHOLE_DAY, 3);
+
+        //THEN
+        assertThat(journeys)
+            .last()
+            .extracting(this::describe)
+            .isEqualTo("BCN 09:00 BGY 10:40, BGY 17:15 CFU 20:05");
+    }
+
+    @Test
+    void should_respect_the_stop_limit_and_the_arrival_time() {
+
+        //GIVEN
+        final SearchWindow beforeNine = window(LocalDateTime.of(2021, 7, 27, 0, 0),
+            LocalDateTime.of(2021, 7, 27, 21, 0));
+
+        //WHEN
+        final List<Flight> upToOneStop = connectionScan.paretoJourneys(routes, BCN, CFU, WHOLE_DAY, 2);
+        final List<Flight> beforeTheDirect = connectionScan.paretoJourneys(routes, BCN, CFU, beforeNine, 3);
+
+        //THEN
+        assertThat(upToOneStop)
+            .extracting(this::describe)
+            .containsExactly(
+                "BCN 19:10 CFU 22:40",
+                "BCN 06:20 BGY 08:00, BGY 10:30 CFU 15:20");
+        assertThat(beforeTheDirect)
+            .extracting(Flight::getStops)
+            .containsExactly(1, 2);
+    }
+
+    private static SearchWindow window(final LocalDateTime departure, final LocalDateTime arrival) {
+        return SearchWindow.of(BookFlightRequest.builder().departureDateTime(departure).arrivalDateTime(arrival).build());
+    }
+
+    private String describe(final Flight flight) {
+        return flight.getLegs().stream()
+            .map(leg -> "%s %s %s %s".formatted(leg.getDepartureAirport(), leg.getDepartureDateTime().substring(11),
+                leg.getArrivalAirport(), leg.getArrivalDateTime().substring(11)))
+            .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FetchPlannerTest {
+
+    private FetchPlanner fetchPlanner;
+
+    @BeforeEach
+    void setUp() {
+        fetchPlanner = new FetchPlanner();
+    }
+
+    @Test
+    void should_plan_one_call_per_distinct_schedule() {
+
+        //GIVEN
+        final BookFlightRequest request = BookFlightRequest.builder().departure(BCN).arrival(DUB)
+            .departureDateTime(LocalDateTime.of(2021, 06, 16, 00, 01))
+            .arrivalDateTime(LocalDateTime.of(2021, 06, 16, 23, 59)).build();
+        final List<RouteDTO> routes = List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(CFU).build());
+
+        //WHEN
+        final FetchPlan plan = fetchPlanner.plan(request, routes);
+
+        //THEN
+        assertThat(plan.getPlannedCalls()).isEqualTo(5);
+        assertThat(plan.getKeys()).containsExactly(
+            ScheduleKey.of(BCN, DUB, 2021, 6),
+            ScheduleKey.of(BCN, BUD, 2021, 6),
+            ScheduleKey.of(BUD, DUB, 2021, 6),
+            ScheduleKey.of(BCN, CFU, 2021, 6),
+            ScheduleKey.of(CFU, DUB, 2021, 6));
+    }
+
+    @Test
+    void should_plan_every_month_the_window_touches() {
+
+        //GIVEN
+        final BookFlightRequest request = BookFlightRequest.builder().departure(BCN).arrival(DUB)
+            .departureDateTime(LocalDateTime.of(2021, 06, 29, 18, 00))
+            .arrivalDateTime(LocalDateTime.of(2021, 07, 02, 12, 00)).build();
+        final List<RouteDTO> routes = List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).connectingAirport(BUD).build());
+
+        //WHEN
+        final FetchPlan plan = fetchPlanner.plan(request, routes);
+
+        //THEN
+        assertThat(plan.getKeys()).containsExactly(
+            ScheduleKey.of(BCN, DUB, 2021, 6),
+            ScheduleKey.of(BCN, DUB, 2021, 7),
+            ScheduleKey.of(BCN, BUD, 2021, 6),
+            ScheduleKey.of(BUD, DUB, 2021, 6),
+            ScheduleKey.of(BCN, BUD, 2021, 7),
+            ScheduleKey.of(BUD, DUB, 2021, 7));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import com.ryanair.challenge.domain.model.Flight;
+import com.ryanair.challenge.domain.model.FlightSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItineraryRankingTest {
+
+    private static final int DAY = 16;
+
+    private final MonthTimetable direct = monthTimetable(BCN, DUB, 6, DAY, "10:00-11:40", "05:00-08:20", "15:00-15:30");
+    private final MonthTimetable intoHub = monthTimetable(BCN, BUD, 6, DAY, "01:40-03:20");
+    private final MonthTimetable outOfHub = monthTimetable(BUD, DUB, 6, DAY, "06:40-07:30", "13:20-14:10");
+
+    @Test
+    void should_keep_every_itinerary_in_the_offered_order_without_sort_nor_limit() {
+
+        //GIVEN
+        final ItineraryRanking ranking = ItineraryRanking.of(BookFlightRequest.builder().build());
+
+        //WHEN
+        offerAll(ranking);
+
+        //THEN
+        assertThat(departures(ranking.page()))
+            .containsExactly("05:00", "10:00", "15:00", "01:40", "01:40");
+    }
+
+    @Test
+    void should_rank_by_the_requested_sort_and_return_the_page_at_the_cursor() {
+
+        //GIVEN
+        final ItineraryRanking byDuration = ItineraryRanking.of(BookFlightRequest.builder()
+            .sort(FlightSort.DURATION).limit(2).build());
+        final ItineraryRanking byStops = ItineraryRanking.of(BookFlightRequest.builder()
+            .sort(FlightSort.STOPS).limit(2).cursor(2).build());
+
+        //WHEN
+        offerAll(byDuration);
+        offerAll(byStops);
+
+        //THEN
+        assertThat(departures(byDuration.page())).containsExactly("15:00", "10:00");
+        assertThat(byStops.page())
+            .extracting(Flight::getStops)
+            .containsExactly(0, 1);
+        assertThat(byStops.getOffered()).isEqualTo(5);
+    }
+
+    @Test
+    void should_rank_by_departure_when_only_a_limit_is_requested() {
+
+        //GIVEN
+        final ItineraryRanking ranking = ItineraryRanking.of(BookFlightRequest.builder().limit(3).build());
+
+        //WHEN
+        offerAll(ranking);
+
+        //THEN
+        assertThat(ranking.page())
+            .extracting(flight -> flight.getLegs().get(flight.getLegs().size() - 1).getArrivalDateTime())
+            .containsExactly("2021-06-16T07:30", "2021-06-16T14:10", "2021-06-16T08:20");
+    }
+
+    @Test
+    void should_return_an_empty_page_when_the_cursor_is_past_the_last_itinerary() {
+
+        //GIVEN
+        final ItineraryRanking ranking = ItineraryRanking.of(BookFlightRequest.builder().limit(2).cursor(10).build());
+
+        //WHEN
+        offerAll(ranking);
+
+        //THEN
+        assertThat(ranking.page()).isEmpty();
+        assertThat(ranking.getOffered()).isEqualTo(5);
+    }
+
+    private void offerAll(final ItineraryRanking ranking) {
+        for (int flight = 0; flight < direct.size(); flight++) {
+            ranking.offer(direct, flight);
+        }
+        ranking.offer(intoHub, 0, outOfHub, 0);
+        ranking.offer(intoHub, 0, outOfHub, 1);
+    }
+
+    private List<String> departures(final List<Flight> flights) {
+        return flights.stream()
+            .map(flight -> flight.getLegs().get(0).getDepartureDateTime().substring(11))
+            .collect(Collectors.toList());
+    }
+}
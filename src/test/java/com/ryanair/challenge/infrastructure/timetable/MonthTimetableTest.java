@@ -0,0 +1,103 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
+import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonthTimetableTest {
+
+    private static final ScheduleKey KEY = ScheduleKey.of(BCN, DUB, 2021, 7);
+
+    @Test
+    void should_group_flights_by_day_sorted_by_departure() {
+
+        //GIVEN
+        final ScheduleDTO schedule = ScheduleDTO.builder()
+            .month(7)
+            .days(List.of(
+                DayDTO.builder().day(27).flights(List.of(
+                    FlightDTO.builder().carrierCode("FR").number("6305").departureTime("18:30").arrivalTime("20:10").build(),
+                    FlightDTO.builder().carrierCode("FR").number("6353").departureTime("06:20").arrivalTime("08:00").build()))
+                    .build(),
+                DayDTO.builder().day(3).flights(List.of(
+                    FlightDTO.builder().carrierCode("FR").number("6365").departureTime("21:15").arrivalTime("22:55").build()))
+                    .build()))
+            .build();
+
+        //WHEN
+        final MonthTimetable timetable = MonthTimetable.decode(KEY, schedule);
+
+        //THEN
+        assertThat(timetable.size()).isEqualTo(3);
+        assertThat(timetable.endOfDay(3) - timetable.firstOfDay(3)).isEqualTo(1);
+        assertThat(timetable.endOfDay(16) - timetable.firstOfDay(16)).isZero();
+        final int first = timetable.firstOfDay(27);
+        assertThat(timetable.number(first)).isEqualTo("6353");
+        assertThat(timetable.number(first + 1)).isEqualTo("6305");
+        assertThat(TimetableDates.format(timetable.departure(first)))
+            .isEqualTo(LocalDateTime.of(2021, 7, 27, 6, 20).toString());
+        assertThat(TimetableDates.format(timetable.arrival(first)))
+            .isEqualTo(LocalDateTime.of(2021, 7, 27, 8, 0).toString());
+    }
+
+    @Test
+    void should_skip_flights_and_days_that_cannot_be_decoded() {
+
+        //GIVEN
+        final ScheduleDTO schedule = ScheduleDTO.builder()
+            .month(7)
+            .days(List.of(
+                DayDTO.builder().day(27).flights(List.of(
+                    FlightDTO.builder().departureTime("6:20").arrivalTime("08:00").build(),
+                    FlightDTO.builder().departureTime("18:30").arrivalTime("20:10").build()))
+                    .build(),
+                DayDTO.builder().day(32).flights(List.of(
+                    FlightDTO.builder().departureTime("21:15").arrivalTime("22:55").build()))
+                    .build()))
+            .build();
+
+        //WHEN
+        final MonthTimetable timetable = MonthTimetable.decode(KEY, schedule);
+
+        //THEN
+        assertThat(timetable.size()).isEqualTo(1);
+        assertThat(TimetableDates.format(timetable.departure(timetable.firstOfDay(27)))).isEqualTo("2021-07-27T18:30");
+    }
+
+    @Test
+    void should_land_flights_arriving_earlier_than_they_leave_on_the_next_day() {
+
+        //GIVEN
+        final ScheduleDTO schedule = ScheduleDTO.builder()
+            .month(7)
+            .days(List.of(
+                DayDTO.builder().day(31).flights(List.of(
+                    FlightDTO.builder().departureTime("23:10").arrivalTime("01:05").build()))
+                    .build()))
+            .build();
+
+        //WHEN
+        final MonthTimetable timetable = MonthTimetable.decode(KEY, schedule);
+
+        //THEN
+        assertThat(TimetableDates.format(timetable.arrival(timetable.firstOfDay(31)))).isEqualTo("2021-08-01T01:05");
+    }
+
+    @Test
+    void should_return_empty_timetable_when_there_is_no_schedule() {
+
+        //WHEN
+        final MonthTimetable timetable = MonthTimetable.decode(KEY, null);
+
+        //THEN
+        assertThat(timetable.size()).isZero();
+        assertThat(timetable.firstOfDay(16)).isEqualTo(timetable.endOfDay(16));
+    }
+}
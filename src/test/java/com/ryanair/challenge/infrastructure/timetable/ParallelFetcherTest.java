@@ -0,0 +1,177 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.FetchConfiguration;
+import com.ryanair.challenge.configuration.FetchProperties;
+import com.ryanair.challenge.domain.exception.BookFlightServiceException;
+import io.vavr.control.Try;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelFetcherTest {
+
+    private ExecutorService executor;
+    private FetchProperties fetchProperties;
+    private ParallelFetcher parallelFetcher;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        fetchProperties = new FetchProperties();
+        parallelFetcher = new ParallelFetcher(executor, fetchProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_run_calls_concurrently_and_join_every_result() {
+
+        //GIVEN
+        final long start = System.nanoTime();
+
+        //WHEN
+        final Map<Integer, Integer> result = parallelFetcher.fetchAll(List.of(1, 2, 3, 4), key -> {
+            sleep(200);
+            return key * 10;
+        });
+
+        //THEN
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(600));
+        assertThat(result).containsEntry(1, 10).containsEntry(2, 20).containsEntry(3, 30).containsEntry(4, 40);
+    }
+
+    @Test
+    void should_not_exceed_the_in_flight_limit_per_request() {
+
+        //GIVEN
+        fetchProperties.setMaxInFlightPerRequest(2);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        //WHEN
+        parallelFetcher.fetchAll(List.of(1, 2, 3, 4, 5, 6), key -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(50);
+            inFlight.decrementAndGet();
+            return key;
+        });
+
+        //THEN
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void should_return_exception_when_a_call_times_out() {
+
+        //GIVEN
+        fetchProperties.setTimeout(Duration.ofMillis(100));
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> parallelFetcher.fetchAll(List.of(1, 2), key -> {
+            sleep(key * 300L);
+            return key;
+        }))
+            .isInstanceOf(BookFlightServiceException.class)
+            .hasMessageStartingWith("Timed out fetching");
+    }
+
+    @Test
+    void should_return_exception_when_the_only_call_times_out() {
+
+        //GIVEN
+        fetchProperties.setTimeout(Duration.ofMillis(100));
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> parallelFetcher.fetchAll(List.of(1), key -> {
+            sleep(300);
+            return key;
+        }))
+            .isInstanceOf(BookFlightServiceException.class)
+            .hasMessage("Timed out fetching 1");
+    }
+
+    @Test
+    void should_still_time_out_when_the_executor_is_saturated() {
+
+        //GIVEN
+        fetchProperties.setPoolSize(1);
+        fetchProperties.setQueueCapacity(1);
+        fetchProperties.setTimeout(Duration.ofMillis(100));
+        final ThreadPoolTaskExecutor saturated = new FetchConfiguration().ryanairFetchExecutor(fetchProperties);
+        saturated.initialize();
+        final ParallelFetcher fetcher = new ParallelFetcher(saturated, fetchProperties);
+        final long start = System.nanoTime();
+
+        //WHEN - THEN
+        try {
+            assertThatThrownBy(() -> fetcher.fetchAll(List.of(1, 2, 3, 4), key -> {
+                sleep(1000);
+                return key;
+            }))
+                .isInstanceOf(BookFlightServiceException.class)
+                .hasMessage("Timed out fetching 1");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        } finally {
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void should_fail_only_the_rejected_call_and_give_its_permit_back_when_fetching_each() {
+
+        //GIVEN
+        fetchProperties.setMaxInFlightPerBatch(1);
+        final ParallelFetcher rejecting = new ParallelFetcher(task -> {
+            throw new RejectedExecutionException();
+        }, fetchProperties);
+
+        //WHEN
+        final Map<Integer, Try<Integer>> result = rejecting.fetchEach(List.of(1, 2), key -> key);
+
+        //THEN
+        assertThat(result.get(1).getCause()).hasMessage("No thread available fetching 1");
+        assertThat(result.get(2).getCause()).hasMessage("No thread available fetching 2");
+    }
+
+    @Test
+    void should_keep_a_failed_call_to_its_own_key_when_fetching_each() {
+
+        //WHEN
+        final Map<Integer, Try<Integer>> result = parallelFetcher.fetchEach(List.of(3, 1, 2), key -> {
+            if (key == 2) {
+                throw new BookFlightServiceException("Upstream failed for %d".formatted(key));
+            }
+            return key * 10;
+        });
+
+        //THEN
+        assertThat(result.keySet()).containsExactly(3, 1, 2);
+        assertThat(result.get(3).get()).isEqualTo(30);
+        assertThat(result.get(1).get()).isEqualTo(10);
+        assertThat(result.get(2).isFailure()).isTrue();
+        assertThat(result.get(2).getCause()).hasMessage("Upstream failed for 2");
+    }
+
+    private void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
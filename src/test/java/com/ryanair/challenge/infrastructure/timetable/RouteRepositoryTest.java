@@ -0,0 +1,150 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RouteRepositoryTest {
+
+    private static final List<RouteDTO> OLD_ROUTES = List.of(RouteDTO.builder().airportFrom(BCN).airportTo(DUB).build());
+    private static final List<RouteDTO> NEW_ROUTES = List.of(RouteDTO.builder().airportFrom(BCN).airportTo(BUD).build());
+
+    private RyanairRouteClient ryanairRouteClient;
+    private RyanairAsyncClient ryanairAsyncClient;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong nanos;
+    private RouteRepository routeRepository;
+
+    @BeforeEach
+    void setUp() {
+        ryanairRouteClient = mock(RyanairRouteClient.class);
+        ryanairAsyncClient = mock(RyanairAsyncClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        routeRepository = new RouteRepository(ryanairRouteClient, ryanairAsyncClient, new RyanairCacheProperties.Routes(),
+            Runnable::run, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void should_call_upstream_once_per_origin_airport() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(BCN)).thenReturn(OLD_ROUTES);
+
+        //WHEN
+        routeRepository.get(BCN);
+        List<RouteDTO> routes = routeRepository.get(BCN);
+
+        //THEN
+        verify(ryanairRouteClient, times(1)).getRoutes(BCN);
+        assertThat(routes).isEqualTo(OLD_ROUTES);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_serve_stale_routes_while_refreshing() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(BCN)).thenReturn(OLD_ROUTES);
+        when(ryanairAsyncClient.getRoutes(BCN)).thenReturn(CompletableFuture.completedFuture(NEW_ROUTES));
+        routeRepository.get(BCN);
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+
+        //WHEN
+        List<RouteDTO> stale = routeRepository.get(BCN);
+        List<RouteDTO> refreshed = routeRepository.get(BCN);
+
+        //THEN
+        verify(ryanairRouteClient, times(1)).getRoutes(BCN);
+        verify(ryanairAsyncClient, times(1)).getRoutes(BCN);
+        assertThat(stale).isEqualTo(OLD_ROUTES);
+        assertThat(refreshed).isEqualTo(NEW_ROUTES);
+    }
+
+    @Test
+    void should_call_upstream_again_when_the_routes_expire() {
+
+        //GIVEN
+        when(ryanairRouteClient.getRoutes(BCN)).thenReturn(OLD_ROUTES, NEW_ROUTES);
+        routeRepository.get(BCN);
+        nanos.addAndGet(Duration.ofHours(25).toNanos());
+
+        //WHEN
+        List<RouteDTO> routes = routeRepository.get(BCN);
+
+        //THEN
+        verify(ryanairRouteClient, times(2)).getRoutes(BCN);
+        assertThat(routes).isEqualTo(NEW_ROUTES);
+    }
+
+    @Test
+    void should_fetch_missing_routes_with_the_async_client_and_cache_them() {
+
+        //GIVEN
+        when(ryanairAsyncClient.getRoutes(BCN)).thenReturn(CompletableFuture.completedFuture(OLD_ROUTES));
+
+        //WHEN
+        List<RouteDTO> fetched = routeRepository.getAsync(BCN).join();
+        List<RouteDTO> cached = routeRepository.getAsync(BCN).join();
+
+        //THEN
+        verify(ryanairAsyncClient, times(1)).getRoutes(BCN);
+        verifyNoInteractions(ryanairRouteClient);
+        assertThat(fetched).isEqualTo(OLD_ROUTES);
+        assertThat(cached).isEqualTo(OLD_ROUTES);
+    }
+
+    @Test
+    void should_share_one_async_fetch_between_concurrent_searches_of_the_same_airport() {
+
+        //GIVEN
+        final CompletableFuture<List<RouteDTO>> upstream = new CompletableFuture<>();
+        when(ryanairAsyncClient.getRoutes(BCN)).thenReturn(upstream);
+
+        //WHEN
+        CompletableFuture<List<RouteDTO>> first = routeRepository.getAsync(BCN);
+        CompletableFuture<List<RouteDTO>> second = routeRepository.getAsync(BCN);
+        upstream.complete(OLD_ROUTES);
+
+        //THEN
+        verify(ryanairAsyncClient, times(1)).getRoutes(BCN);
+        assertThat(first.join()).isEqualTo(OLD_ROUTES);
+        assertThat(second.join()).isEqualTo(OLD_ROUTES);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_let_a_blocking_search_wait_for_the_async_fetch_of_the_same_airport() throws Exception {
+
+        //GIVEN
+        final CompletableFuture<List<RouteDTO>> upstream = new CompletableFuture<>();
+        when(ryanairAsyncClient.getRoutes(BCN)).thenReturn(upstream);
+        final CompletableFuture<List<RouteDTO>> fetched = routeRepository.getAsync(BCN);
+
+        //WHEN
+        final CompletableFuture<List<RouteDTO>> blocking =
+            CompletableFuture.supplyAsync(() -> routeRepository.get(BCN));
+        upstream.complete(OLD_ROUTES);
+
+        //THEN
+        assertThat(blocking.get(1, TimeUnit.SECONDS)).isSameAs(fetched.join());
+        verify(ryanairAsyncClient, times(1)).getRoutes(BCN);
+        verifyNoInteractions(ryanairRouteClient);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.domain.model.BookFlightRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchWindowTest {
+
+    @Test
+    void should_cover_every_day_and_month_from_departure_to_arrival() {
+
+        //GIVEN
+        final BookFlightRequest request = BookFlightRequest.builder()
+            .departureDateTime(LocalDateTime.of(2021, 6, 30, 18, 0))
+            .arrivalDateTime(LocalDateTime.of(2021, 7, 1, 12, 0)).build();
+
+        //WHEN
+        final SearchWindow window = SearchWindow.of(request, 7);
+
+        //THEN
+        assertThat(window.getDays()).containsExactly(LocalDate.of(2021, 6, 30), LocalDate.of(2021, 7, 1));
+        assertThat(window.getMonths()).containsExactly(YearMonth.of(2021, 6), YearMonth.of(2021, 7));
+        assertThat(window.getArriveBefore())
+            .isEqualTo(TimetableDates.epochSecond(LocalDateTime.of(2021, 7, 1, 12, 0)));
+    }
+
+    @Test
+    void should_cap_the_days_searched_and_end_the_window_with_the_last_of_them() {
+
+        //GIVEN
+        final BookFlightRequest request = BookFlightRequest.builder()
+            .departureDateTime(LocalDateTime.of(2021, 6, 16, 6, 0))
+            .arrivalDateTime(LocalDateTime.of(2021, 8, 16, 6, 0)).build();
+
+        //WHEN
+        final SearchWindow window = SearchWindow.of(request, 3);
+
+        //THEN
+        assertThat(window.getDays()).hasSize(3);
+        assertThat(window.getLastDay()).isEqualTo(LocalDate.of(2021, 6, 18));
+        assertThat(window.getMonths()).containsExactly(YearMonth.of(2021, 6));
+        assertThat(window.getArriveBefore())
+            .isEqualTo(TimetableDates.epochSecond(LocalDateTime.of(2021, 6, 19, 0, 0)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.RouteNetworkProperties;
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.SnapshotProperties;
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.warmup.SearchPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2021-06-10T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private RyanairRouteClient ryanairRouteClient;
+    private RyanairScheduleClient ryanairScheduleClient;
+    private SnapshotProperties properties;
+    private List<Runnable> background;
+
+    @BeforeEach
+    void setUp() {
+        ryanairRouteClient = mock(RyanairRouteClient.class);
+        ryanairScheduleClient = mock(RyanairScheduleClient.class);
+        properties = new SnapshotProperties();
+        properties.setPath(directory.resolve("ryanair.snapshot"));
+        background = new ArrayList<>();
+    }
+
+    @Test
+    void should_serve_the_previous_run_before_fetching_it_again_in_the_background() {
+
+        //GIVEN
+        when(ryanairRouteClient.getAllRoutes()).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(BCN, DUB, 2021, 6)).thenReturn(getMultiplyScheduleResponse());
+        final RouteNetwork previousNetwork = new RouteNetwork(ryanairRouteClient);
+        previousNetwork.refresh();
+        final TimetableRepository previousRepository = timetableRepository();
+        previousRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        snapshotStore(previousNetwork, previousRepository, NOW.minus(Duration.ofHours(1))).save();
+        reset(ryanairRouteClient, ryanairScheduleClient);
+
+        final RouteNetwork routeNetwork = new RouteNetwork(ryanairRouteClient);
+        final TimetableRepository timetableRepository = timetableRepository();
+        final SnapshotStore snapshotStore = snapshotStore(routeNetwork, timetableRepository, NOW);
+
+        //WHEN
+        snapshotStore.restore();
+        final MonthTimetable restored = timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        verifyNoInteractions(ryanairRouteClient, ryanairScheduleClient);
+        assertThat(routeNetwork.getGraph().hasRoute(BCN, DUB)).isTrue();
+        assertThat(restored.size()).isEqualTo(2);
+        assertThat(snapshotStore.isReloading()).isTrue();
+
+        //WHEN
+        when(ryanairScheduleClient.getSchedule(BCN, DUB, 2021, 6)).thenReturn(getValidScheduleResponse());
+        background.forEach(Runnable::run);
+
+        //THEN
+        verify(ryanairScheduleClient, times(1)).getSchedule(BCN, DUB, 2021, 6);
+        assertThat(timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6)).size()).isEqualTo(1);
+        assertThat(snapshotStore.isReloading()).isFalse();
+    }
+
+    @Test
+    void should_start_cold_when_the_snapshot_is_too_old() {
+
+        //GIVEN
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any())).thenReturn(getMultiplyScheduleResponse());
+        final TimetableRepository previousRepository = timetableRepository();
+        previousRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        snapshotStore(new RouteNetwork(ryanairRouteClient), previousRepository, NOW.minus(Duration.ofDays(2))).save();
+        final TimetableRepository timetableRepository = timetableRepository();
+
+        //WHEN
+        snapshotStore(new RouteNetwork(ryanairRouteClient), timetableRepository, NOW).restore();
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        assertThat(Files.exists(properties.getPath())).isTrue();
+        assertThat(background).isEmpty();
+        verify(ryanairScheduleClient, times(2)).getSchedule(BCN, DUB, 2021, 6);
+    }
+
+    private TimetableRepository timetableRepository() {
+        return new TimetableRepository(ryanairScheduleClient, mock(RyanairAsyncClient.class),
+            new RyanairCacheProperties.Schedules(), Runnable::run, new SimpleMeterRegistry());
+    }
+
+    private SnapshotStore snapshotStore(final RouteNetwork routeNetwork, final TimetableRepository timetableRepository,
+                                        final Instant now) {
+        return new SnapshotStore(properties, new RouteNetworkProperties(), routeNetwork, timetableRepository,
+            new SearchPopularity(new WarmupProperties()), background::add, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
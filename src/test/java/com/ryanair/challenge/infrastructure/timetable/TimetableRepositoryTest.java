@@ -0,0 +1,169 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TimetableRepositoryTest {
+
+    private RyanairScheduleClient ryanairScheduleClient;
+    private RyanairAsyncClient ryanairAsyncClient;
+    private RyanairCacheProperties.Schedules properties;
+    private AtomicLong nanos;
+    private TimetableRepository timetableRepository;
+
+    @BeforeEach
+    void setUp() {
+        ryanairScheduleClient = mock(RyanairScheduleClient.class);
+        ryanairAsyncClient = mock(RyanairAsyncClient.class);
+        properties = new RyanairCacheProperties.Schedules();
+        nanos = new AtomicLong();
+        timetableRepository = new TimetableRepository(ryanairScheduleClient, ryanairAsyncClient, properties,
+            Runnable::run, new SimpleMeterRegistry(), nanos::get,
+            Clock.fixed(Instant.parse("2021-06-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void should_serve_every_day_of_a_month_from_one_decoded_timetable() {
+
+        //GIVEN
+        when(ryanairScheduleClient.getSchedule(BCN, DUB, 2021, 6)).thenReturn(getMultiplyScheduleResponse());
+
+        //WHEN
+        final MonthTimetable first = timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        final MonthTimetable second = timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        verify(ryanairScheduleClient, times(1)).getSchedule(any(), any(), any(), any());
+        assertThat(second).isSameAs(first);
+        assertThat(first.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_keep_months_further_ahead_for_longer() {
+
+        //GIVEN
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any())).thenReturn(getValidScheduleResponse());
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 9));
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+
+        //WHEN
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 9));
+
+        //THEN
+        verify(ryanairScheduleClient, times(2)).getSchedule(BCN, DUB, 2021, 6);
+        verify(ryanairScheduleClient, times(1)).getSchedule(BCN, DUB, 2021, 9);
+    }
+
+    @Test
+    void should_evict_timetables_when_the_flight_weight_is_exceeded() {
+
+        //GIVEN
+        properties.setMaximumWeight(1);
+        timetableRepository = new TimetableRepository(ryanairScheduleClient, ryanairAsyncClient, properties,
+            Runnable::run, new SimpleMeterRegistry(), nanos::get, Clock.systemUTC());
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any())).thenReturn(getMultiplyScheduleResponse());
+
+        //WHEN
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        verify(ryanairScheduleClient, times(2)).getSchedule(BCN, DUB, 2021, 6);
+    }
+
+    @Test
+    void should_share_timetables_between_the_blocking_and_the_async_path() {
+
+        //GIVEN
+        when(ryanairAsyncClient.getSchedule(BCN, DUB, 2021, 6))
+            .thenReturn(CompletableFuture.completedFuture(getMultiplyScheduleResponse()));
+
+        //WHEN
+        final MonthTimetable fetched = timetableRepository.getAsync(ScheduleKey.of(BCN, DUB, 2021, 6)).join();
+        final MonthTimetable cached = timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        verify(ryanairAsyncClient, times(1)).getSchedule(any(), any(), any(), any());
+        verifyNoInteractions(ryanairScheduleClient);
+        assertThat(cached).isSameAs(fetched);
+        assertThat(timetableRepository.getAsync(ScheduleKey.of(BCN, DUB, 2021, 6)).join()).isSameAs(fetched);
+    }
+
+    @Test
+    void should_share_one_async_fetch_and_decode_between_concurrent_searches_of_the_same_month() {
+
+        //GIVEN
+        final CompletableFuture<ScheduleDTO> upstream = new CompletableFuture<>();
+        when(ryanairAsyncClient.getSchedule(BCN, DUB, 2021, 6)).thenReturn(upstream);
+
+        //WHEN
+        final ScheduleKey june = ScheduleKey.of(BCN, DUB, 2021, 6);
+        final CompletableFuture<MonthTimetable> first = timetableRepository.getAsync(june);
+        final CompletableFuture<MonthTimetable> second = timetableRepository.getAsync(june);
+        upstream.complete(getMultiplyScheduleResponse());
+
+        //THEN
+        verify(ryanairAsyncClient, times(1)).getSchedule(any(), any(), any(), any());
+        assertThat(second.join()).isSameAs(first.join());
+        assertThat(timetableRepository.get(june)).isSameAs(first.join());
+    }
+
+    @Test
+    void should_let_an_async_search_wait_for_the_blocking_fetch_of_the_same_month() {
+
+        //GIVEN
+        final ScheduleKey june = ScheduleKey.of(BCN, DUB, 2021, 6);
+        final List<CompletableFuture<MonthTimetable>> async = new ArrayList<>();
+        when(ryanairScheduleClient.getSchedule(BCN, DUB, 2021, 6)).thenAnswer(invocation -> {
+            async.add(timetableRepository.getAsync(june));
+            return getMultiplyScheduleResponse();
+        });
+
+        //WHEN
+        final MonthTimetable fetched = timetableRepository.get(june);
+
+        //THEN
+        verify(ryanairScheduleClient, times(1)).getSchedule(any(), any(), any(), any());
+        verifyNoInteractions(ryanairAsyncClient);
+        assertThat(async).singleElement().satisfies(timetable -> assertThat(timetable.join()).isSameAs(fetched));
+    }
+
+    @Test
+    void should_not_keep_timetables_decoded_from_a_stale_schedule() {
+
+        //GIVEN
+        when(ryanairScheduleClient.getSchedule(BCN, DUB, 2021, 6))
+            .thenReturn(getMultiplyScheduleResponse().toBuilder().stale(true).build(), getMultiplyScheduleResponse());
+
+        //WHEN
+        final MonthTimetable stale = timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+        final MonthTimetable fresh = timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        verify(ryanairScheduleClient, times(2)).getSchedule(BCN, DUB, 2021, 6);
+        assertThat(stale.isStale()).isTrue();
+        assertThat(fresh.isStale()).isFalse();
+        assertThat(timetableRepository.get(ScheduleKey.of(BCN, DUB, 2021, 6))).isSameAs(fresh);
+    }
+}
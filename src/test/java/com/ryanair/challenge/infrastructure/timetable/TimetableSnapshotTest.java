@@ -0,0 +1,80 @@
+package com.ryanair.challenge.infrastructure.timetable;
+
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.network.RouteGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class TimetableSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_read_back_the_route_graph_and_every_month_written() throws IOException {
+
+        //GIVEN
+        final Path path = directory.resolve("ryanair.snapshot");
+        final MonthTimetable written = MonthTimetable.decode(ScheduleKey.of(BCN, DUB, 2021, 6),
+            getMultiplyScheduleResponse());
+        final RouteGraph graph = RouteGraph.of(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(DUB).airportTo(BUD).operator("RYANAIR").build()));
+        TimetableSnapshot.write(path, graph, List.of(written), Map.of(ScheduleKey.of(BCN, BUD, 2021, 7), 3.5),
+            Instant.parse("2021-06-01T10:00:00Z"));
+
+        //WHEN
+        final TimetableSnapshot snapshot = TimetableSnapshot.open(path);
+        final MonthTimetable read = snapshot.find(ScheduleKey.of(BCN, DUB, 2021, 6));
+
+        //THEN
+        assertThat(snapshot.getWrittenAt()).isEqualTo(Instant.parse("2021-06-01T10:00:00Z"));
+        assertThat(snapshot.keys()).containsExactly(ScheduleKey.of(BCN, DUB, 2021, 6));
+        assertThat(snapshot.getRouteGraph().routes()).isEqualTo(2);
+        assertThat(snapshot.getRouteGraph().hasRoute(DUB, BUD)).isTrue();
+        assertThat(snapshot.find(ScheduleKey.of(BCN, DUB, 2021, 7))).isNull();
+        assertThat(snapshot.getPopularity()).containsOnly(entry(ScheduleKey.of(BCN, BUD, 2021, 7), 3.5));
+        assertThat(read.size()).isEqualTo(2);
+        assertThat(read.firstOfDay(16)).isEqualTo(written.firstOfDay(16));
+        assertThat(read.endOfDay(16)).isEqualTo(written.endOfDay(16));
+        assertThat(TimetableDates.format(read.departure(1))).isEqualTo("2021-06-16T17:00");
+        assertThat(TimetableDates.format(read.arrival(1))).isEqualTo("2021-06-16T19:00");
+        assertThat(read.carrier(0)).isNull();
+        assertThat(read.carrier(1)).isEqualTo("carrierCode");
+        assertThat(read.number(1)).isEqualTo("number");
+    }
+
+    @Test
+    void should_refuse_a_file_that_is_not_a_complete_snapshot() throws IOException {
+
+        //GIVEN
+        final Path path = directory.resolve("ryanair.snapshot");
+        final MonthTimetable written = MonthTimetable.decode(ScheduleKey.of(BCN, DUB, 2021, 6),
+            getMultiplyScheduleResponse());
+        TimetableSnapshot.write(path, RouteGraph.EMPTY, List.of(written), Map.of(), Instant.now());
+        final byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 20));
+
+        //WHEN - THEN
+        assertThatThrownBy(() -> TimetableSnapshot.open(path))
+            .isInstanceOf(IOException.class)
+            .hasMessageEndingWith("is not a readable timetable snapshot");
+        Files.writeString(path, "not a snapshot at all");
+        assertThatThrownBy(() -> TimetableSnapshot.open(path))
+            .isInstanceOf(IOException.class)
+            .hasMessageEndingWith("is not a timetable snapshot");
+    }
+}
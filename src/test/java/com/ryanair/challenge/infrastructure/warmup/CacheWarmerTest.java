@@ -0,0 +1,137 @@
+package com.ryanair.challenge.infrastructure.warmup;
+
+import com.ryanair.challenge.configuration.RyanairCacheProperties;
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
+import com.ryanair.challenge.infrastructure.client.ryanair.async.RyanairAsyncClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.routes.RyanairRouteClient;
+import com.ryanair.challenge.infrastructure.client.ryanair.schedule.RyanairScheduleClient;
+import com.ryanair.challenge.infrastructure.network.RouteNetwork;
+import com.ryanair.challenge.infrastructure.timetable.FetchPlanner;
+import com.ryanair.challenge.infrastructure.timetable.RouteRepository;
+import com.ryanair.challenge.infrastructure.timetable.TimetableRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.SimpleStatusAggregator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CacheWarmerTest {
+
+    private RyanairRouteClient ryanairRouteClient;
+    private RyanairScheduleClient ryanairScheduleClient;
+    private WarmupProperties properties;
+    private SearchPopularity searchPopularity;
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        ryanairRouteClient = mock(RyanairRouteClient.class);
+        ryanairScheduleClient = mock(RyanairScheduleClient.class);
+        when(ryanairRouteClient.getAllRoutes()).thenReturn(List.of(
+            RouteDTO.builder().airportFrom(BCN).airportTo(DUB).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BCN).airportTo(BUD).operator("RYANAIR").build(),
+            RouteDTO.builder().airportFrom(BUD).airportTo(DUB).operator("RYANAIR").build()));
+        when(ryanairScheduleClient.getSchedule(any(), any(), any(), any())).thenReturn(getValidScheduleResponse());
+        final RouteNetwork routeNetwork = new RouteNetwork(ryanairRouteClient);
+        routeNetwork.refresh();
+
+        properties = new WarmupProperties();
+        searchPopularity = new SearchPopularity(properties);
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cacheWarmer = new CacheWarmer(properties, searchPopularity, routeNetwork,
+            new RouteRepository(ryanairRouteClient, mock(RyanairAsyncClient.class), new RyanairCacheProperties.Routes(),
+                Runnable::run, meterRegistry),
+            new FetchPlanner(),
+            new TimetableRepository(ryanairScheduleClient, mock(RyanairAsyncClient.class),
+                new RyanairCacheProperties.Schedules(), Runnable::run, meterRegistry),
+            Clock.fixed(Instant.parse("2021-06-10T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void should_warm_the_direct_leg_and_both_legs_through_every_hub_of_the_hot_set() {
+
+        //GIVEN
+        searchPopularity.record(BCN, DUB, List.of(YearMonth.of(2021, 6), YearMonth.of(2021, 7)));
+        searchPopularity.record(BCN, DUB, List.of(YearMonth.of(2021, 6)));
+        searchPopularity.record(BCN, BUD, List.of(YearMonth.of(2021, 5), YearMonth.of(2021, 6)));
+
+        //WHEN
+        cacheWarmer.warm();
+        cacheWarmer.warm();
+
+        //THEN
+        verify(ryanairScheduleClient).getSchedule(BCN, DUB, 2021, 6);
+        verify(ryanairScheduleClient).getSchedule(BCN, BUD, 2021, 6);
+        verify(ryanairScheduleClient).getSchedule(BUD, DUB, 2021, 6);
+        verify(ryanairScheduleClient, times(3)).getSchedule(any(), any(), any(), any());
+        verify(ryanairRouteClient, never()).getRoutes(any());
+        assertThat(cacheWarmer.isWarm()).isTrue();
+        assertThat(cacheWarmer.getHotRouteMonths()).isEqualTo(1);
+    }
+
+    @Test
+    void should_report_warming_up_until_the_hot_set_fits_in_the_upstream_calls_of_the_runs() {
+
+        //GIVEN
+        properties.setMaxFetchesPerRun(2);
+        searchPopularity.record(BCN, DUB, List.of(YearMonth.of(2021, 6)));
+        searchPopularity.record(BCN, DUB, List.of(YearMonth.of(2021, 6)));
+        final WarmupHealthIndicator health = new WarmupHealthIndicator(cacheWarmer);
+
+        //WHEN
+        cacheWarmer.warm();
+
+        //THEN
+        verify(ryanairScheduleClient, times(2)).getSchedule(any(), any(), any(), any());
+        assertThat(health.health().getStatus()).isEqualTo(WarmupHealthIndicator.WARMING_UP);
+        assertThat(health.health().getDetails()).containsEntry("pendingSchedules", 1);
+
+        //WHEN
+        cacheWarmer.warm();
+
+        //THEN
+        verify(ryanairScheduleClient, times(3)).getSchedule(any(), any(), any(), any());
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void should_not_report_warm_at_startup_before_anything_was_warmed() {
+
+        //GIVEN
+        final WarmupHealthIndicator health = new WarmupHealthIndicator(cacheWarmer);
+
+        //WHEN
+        cacheWarmer.warm();
+
+        //THEN
+        verifyNoInteractions(ryanairScheduleClient);
+        assertThat(health.health().getStatus()).isEqualTo(WarmupHealthIndicator.WARMING_UP);
+        assertThat(health.health().getDetails()).containsEntry("hotRouteMonths", 0);
+        assertThat(new SimpleStatusAggregator().getAggregateStatus(Status.UP, health.health().getStatus()))
+            .isEqualTo(Status.UP);
+        assertThat(new SimpleStatusAggregator("down", "out-of-service", "warming-up", "up", "unknown")
+            .getAggregateStatus(Status.UP, health.health().getStatus()))
+            .isEqualTo(WarmupHealthIndicator.WARMING_UP);
+
+        //WHEN
+        searchPopularity.restore(Map.of(), Duration.ZERO);
+        cacheWarmer.warm();
+
+        //THEN
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
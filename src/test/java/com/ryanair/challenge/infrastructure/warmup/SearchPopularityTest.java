@@ -0,0 +1,98 @@
+package com.ryanair.challenge.infrastructure.warmup;
+
+import com.ryanair.challenge.configuration.WarmupProperties;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static com.ryanair.challenge.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchPopularityTest {
+
+    private static final YearMonth JUNE = YearMonth.of(2021, 6);
+
+    private WarmupProperties properties;
+    private SearchPopularity searchPopularity;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WarmupProperties();
+        searchPopularity = new SearchPopularity(properties);
+    }
+
+    @Test
+    void should_rank_the_route_months_searched_the_most_first() {
+
+        //GIVEN
+        properties.setHotSetSize(2);
+        record(BCN, DUB, 3);
+        record(BCN, BUD, 5);
+        record(DUB, CFU, 4);
+        record(BUD, CFU, 1);
+
+        //WHEN
+        final List<ScheduleKey> hottest = searchPopularity.hottest();
+
+        //THEN
+        assertThat(hottest).containsExactly(ScheduleKey.of(BCN, BUD, JUNE), ScheduleKey.of(DUB, CFU, JUNE));
+    }
+
+    @Test
+    void should_halve_every_score_once_per_half_life_and_forget_the_faded_ones() {
+
+        //GIVEN
+        record(BCN, DUB, 4);
+        record(BCN, BUD, 1);
+
+        //WHEN
+        searchPopularity.decay(Duration.ofHours(2));
+
+        //THEN
+        assertThat(searchPopularity.scores()).containsEntry(ScheduleKey.of(BCN, DUB, JUNE), 1.0);
+        assertThat(searchPopularity.hottest()).isEmpty();
+
+        //WHEN
+        searchPopularity.decay(Duration.ofHours(4));
+
+        //THEN
+        assertThat(searchPopularity.scores()).isEmpty();
+    }
+
+    @Test
+    void should_only_count_tracked_route_months_once_the_maximum_is_reached() {
+
+        //GIVEN
+        properties.setMaxTracked(1);
+        record(BCN, DUB, 1);
+
+        //WHEN
+        record(BCN, BUD, 3);
+        record(BCN, DUB, 1);
+
+        //THEN
+        assertThat(searchPopularity.scores()).isEqualTo(Map.of(ScheduleKey.of(BCN, DUB, JUNE), 2.0));
+    }
+
+    @Test
+    void should_age_the_restored_scores_of_an_earlier_run() {
+
+        //WHEN
+        searchPopularity.restore(Map.of(ScheduleKey.of(BCN, DUB, JUNE), 8.0), Duration.ofHours(1));
+        record(BCN, DUB, 1);
+
+        //THEN
+        assertThat(searchPopularity.scores()).isEqualTo(Map.of(ScheduleKey.of(BCN, DUB, JUNE), 5.0));
+    }
+
+    private void record(final String departure, final String arrival, final int searches) {
+        for (int search = 0; search < searches; search++) {
+            searchPopularity.record(departure, arrival, List.of(JUNE));
+        }
+    }
+}
@@ -6,8 +6,14 @@ import com.ryanair.challenge.infrastructure.client.dto.DayDTO;
 import com.ryanair.challenge.infrastructure.client.dto.FlightDTO;
 import com.ryanair.challenge.infrastructure.client.dto.RouteDTO;
 import com.ryanair.challenge.infrastructure.client.dto.ScheduleDTO;
+import com.ryanair.challenge.infrastructure.timetable.MonthTimetable;
+import com.ryanair.challenge.infrastructure.timetable.ScheduleKey;
+import com.ryanair.challenge.infrastructure.timetable.TimetableDates;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 public class Constants {
@@ -30,7 +36,13 @@ public class Constants {
         return List.of(Flight.builder()
             .stops(0)
             .legs(List.of(Leg.builder().departureDateTime(T_10_00).arrivalDateTime(T_12_30)
-                .arrivalAirport(BUD).departureAirport(BCN).build())).build());
+                .arrivalAirport(BUD).departureAirport(BCN).build()))
+            .departureEpochMinute(epochMinute(T_10_00))
+            .arrivalEpochMinute(epochMinute(T_12_30)).build());
+    }
+
+    public static final int epochMinute(final String dateTime) {
+        return Math.toIntExact(TimetableDates.epochSecond(LocalDateTime.parse(dateTime)) / 60);
     }
 
     public static final List<RouteDTO> getValidRoutesResponse() {
@@ -43,7 +55,7 @@ public class Constants {
             .month(6)
             .days(List.of(DayDTO.builder()
                 .day(16)
-                .flights(List.of(FlightDTO.builder().arrivalCity("MAD").departureCity("BCN")
+                .flights(List.of(FlightDTO.builder()
                     .arrivalTime("15:00").departureTime("13:00").build())).build()))
             .build();
     }
@@ -54,13 +66,30 @@ public class Constants {
             .days(List.of(DayDTO.builder()
                 .day(16)
                 .flights(List.of(
-                    FlightDTO.builder().arrivalCity("MAD").departureCity("BCN")
+                    FlightDTO.builder()
                     .arrivalTime("15:00").departureTime("13:00").build(),
-                    FlightDTO.builder().arrivalCity("MAD").departureCity("BCN").number("number")
+                    FlightDTO.builder().number("number")
                         .arrivalTime("19:00").carrierCode("carrierCode").departureTime("17:00").build())).build()))
             .build();
     }
 
+    /**
+     * Timetable of one day of a 2021 month, with flights given as "HH:mm-HH:mm".
+     */
+    public static final MonthTimetable monthTimetable(final String from, final String to, final int month,
+                                                      final int day, final String... times) {
+        return MonthTimetable.decode(ScheduleKey.of(from, to, 2021, month), ScheduleDTO.builder()
+            .month(month)
+            .days(List.of(DayDTO.builder()
+                .day(day)
+                .flights(Arrays.stream(times)
+                    .map(time -> FlightDTO.builder().carrierCode("FR")
+                        .departureTime(time.substring(0, 5)).arrivalTime(time.substring(6)).build())
+                    .collect(Collectors.toList()))
+                .build()))
+            .build());
+    }
+
     public static final String routeResponse = """
         [{"airportFrom":"BCN","airportTo":"ACE","connectingAirport":null,"newRoute":false,"seasonalRoute":false,
         "operator":"RYANAIR","carrierCode":"FR","group":"GENERIC","similarArrivalAirportCodes":[],"tags":[]},